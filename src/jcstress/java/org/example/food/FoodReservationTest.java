@@ -0,0 +1,46 @@
+package org.example.food;
+
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// Two single CAS reservations race on the counter. Whatever was granted
+// plus what is left must still be the starting food, also when a CAS lost.
+// r1 is that sum, r2 how many reservations came back CONTENDED
+@JCStressTest
+@Outcome(id = "4, 0", expect = ACCEPTABLE, desc = "Both reservations went through")
+@Outcome(id = "4, 1", expect = ACCEPTABLE_INTERESTING, desc = "One CAS lost and nothing went missing")
+@Outcome(expect = FORBIDDEN, desc = "Portions were lost or made up")
+@State
+public class FoodReservationTest {
+
+    private final AtomicInteger food = new AtomicInteger(4);
+    private final FoodDispenser dispenser = new FoodDispenser(food, 1);
+    private int first;
+    private int second;
+
+    @Actor
+    public void first() {
+        first = dispenser.tryReserve(3);
+    }
+
+    @Actor
+    public void second() {
+        second = dispenser.tryReserve(3);
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        r.r1 = granted(first) + granted(second) + food.get();
+        r.r2 = (first == FoodDispenser.CONTENDED ? 1 : 0) + (second == FoodDispenser.CONTENDED ? 1 : 0);
+    }
+
+    private static int granted(int reserved) {
+        return reserved == FoodDispenser.CONTENDED ? 0 : reserved;
+    }
+}
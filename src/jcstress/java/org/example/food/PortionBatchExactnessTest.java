@@ -0,0 +1,41 @@
+package org.example.food;
+
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// Two programmers empty the same dispenser through their own batches. Every
+// portion must be taken exactly once: r1 is the portions taken, r2 what is left
+@JCStressTest
+@Outcome(id = "5, 0", expect = ACCEPTABLE, desc = "All food was taken exactly once")
+@Outcome(expect = FORBIDDEN, desc = "Portions were lost or taken twice")
+@State
+public class PortionBatchExactnessTest {
+
+    private final AtomicInteger food = new AtomicInteger(5);
+    private final FoodDispenser dispenser = new FoodDispenser(food, 2);
+    private final PortionBatch firstBatch = new PortionBatch(dispenser);
+    private final PortionBatch secondBatch = new PortionBatch(dispenser);
+    private int first;
+    private int second;
+
+    @Actor
+    public void first() {
+        while (firstBatch.takeOne()) first++;
+    }
+
+    @Actor
+    public void second() {
+        while (secondBatch.takeOne()) second++;
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        r.r1 = first + second;
+        r.r2 = food.get();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.fork;
+
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// Two sets spanning two bitmap words and sharing resource 70 race with
+// tryAcquire. Each word is taken with its own CAS, so both may back off, but
+// never may both get their whole set
+@JCStressTest
+@Outcome(id = {"true, false", "false, true"}, expect = ACCEPTABLE, desc = "One task got its set")
+@Outcome(id = "false, false", expect = ACCEPTABLE_INTERESTING, desc = "Both took their first word and backed off")
+@Outcome(id = "true, true", expect = FORBIDDEN, desc = "Resource 70 was handed out twice")
+@State
+public class BitmapAllocatorExclusionTest {
+
+    private final BitmapResourceAllocator allocator = new BitmapResourceAllocator(128, new ParkWaitPolicy());
+    private final ResourceSet first = ResourceSet.of(1, 70);
+    private final ResourceSet second = ResourceSet.of(2, 70);
+
+    @Actor
+    public void first(ZZ_Result r) {
+        r.r1 = allocator.tryAcquire(first, 0);
+    }
+
+    @Actor
+    public void second(ZZ_Result r) {
+        r.r2 = allocator.tryAcquire(second, 1);
+    }
+}
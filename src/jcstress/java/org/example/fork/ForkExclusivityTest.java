@@ -0,0 +1,28 @@
+package org.example.fork;
+
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// Two programmers race for the same free fork, exactly one may get it
+@JCStressTest
+@Outcome(id = {"true, false", "false, true"}, expect = ACCEPTABLE, desc = "One programmer holds the fork")
+@Outcome(id = "true, true", expect = FORBIDDEN, desc = "Both programmers hold the fork")
+@Outcome(id = "false, false", expect = FORBIDDEN, desc = "The free fork was lost")
+@State
+public class ForkExclusivityTest {
+
+    private final Fork fork = new Fork(0);
+
+    @Actor
+    public void first(ZZ_Result r) {
+        r.r1 = fork.tryAcquire(0);
+    }
+
+    @Actor
+    public void second(ZZ_Result r) {
+        r.r2 = fork.tryAcquire(1);
+    }
+}
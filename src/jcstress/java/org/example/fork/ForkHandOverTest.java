@@ -0,0 +1,38 @@
+package org.example.fork;
+
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// The owner puts the fork down while a neighbour reaches for it: the fork
+// ends up either with the neighbour or back on the table, never nowhere
+@JCStressTest
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "The neighbour took the released fork")
+@Outcome(id = "0, -1", expect = ACCEPTABLE, desc = "The neighbour came too early, the fork is free")
+@Outcome(expect = FORBIDDEN, desc = "The fork was lost or shared")
+@State
+public class ForkHandOverTest {
+
+    private final Fork fork = new Fork(0);
+
+    public ForkHandOverTest() {
+        fork.tryAcquire(0);
+    }
+
+    @Actor
+    public void owner() {
+        fork.release(0);
+    }
+
+    @Actor
+    public void neighbour(II_Result r) {
+        r.r1 = fork.tryAcquire(1) ? 1 : 0;
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        r.r2 = fork.getOwner();
+    }
+}
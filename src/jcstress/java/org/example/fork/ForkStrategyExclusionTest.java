@@ -0,0 +1,87 @@
+package org.example.fork;
+
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// On a table of two both seats share both forks, so the two programmers
+// must never eat at the same time, whichever strategy hands the forks out.
+// Every actor reports how many times it found the other one eating
+public class ForkStrategyExclusionTest {
+
+    // Nobody else is eating when the programmer sits down
+    static int eat(ForkAcquisitionStrategy strategy, AtomicInteger eating, int seat) {
+        if (!strategy.acquire(seat, seat)) return -1;
+        try {
+            int others = eating.incrementAndGet() - 1;
+            eating.decrementAndGet();
+            return others;
+        } finally {
+            strategy.release(seat, seat);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "The programmers ate one after the other")
+    @Outcome(expect = FORBIDDEN, desc = "Both programmers ate at once")
+    @State
+    public static class Ordered {
+        private final ForkAcquisitionStrategy strategy = ForkStrategy.ORDERED.create(new ForkTable(2));
+        private final AtomicInteger eating = new AtomicInteger();
+
+        @Actor
+        public void first(II_Result r) { r.r1 = eat(strategy, eating, 0); }
+
+        @Actor
+        public void second(II_Result r) { r.r2 = eat(strategy, eating, 1); }
+    }
+
+    @JCStressTest
+    @Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "The programmers ate one after the other")
+    @Outcome(expect = FORBIDDEN, desc = "Both programmers ate at once")
+    @State
+    public static class ChandyMisra {
+        private final ForkAcquisitionStrategy strategy = ForkStrategy.CHANDY_MISRA.create(new ForkTable(2));
+        private final AtomicInteger eating = new AtomicInteger();
+
+        @Actor
+        public void first(II_Result r) { r.r1 = eat(strategy, eating, 0); }
+
+        @Actor
+        public void second(II_Result r) { r.r2 = eat(strategy, eating, 1); }
+    }
+
+    @JCStressTest
+    @Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "The programmers ate one after the other")
+    @Outcome(expect = FORBIDDEN, desc = "Both programmers ate at once")
+    @State
+    public static class Arbitrator {
+        private final ForkAcquisitionStrategy strategy = ForkStrategy.ARBITRATOR.create(new ForkTable(2));
+        private final AtomicInteger eating = new AtomicInteger();
+
+        @Actor
+        public void first(II_Result r) { r.r1 = eat(strategy, eating, 0); }
+
+        @Actor
+        public void second(II_Result r) { r.r2 = eat(strategy, eating, 1); }
+    }
+
+    @JCStressTest
+    @Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "The programmers ate one after the other")
+    @Outcome(expect = FORBIDDEN, desc = "Both programmers ate at once")
+    @State
+    public static class Backoff {
+        private final ForkAcquisitionStrategy strategy = ForkStrategy.BACKOFF.create(new ForkTable(2));
+        private final AtomicInteger eating = new AtomicInteger();
+
+        @Actor
+        public void first(II_Result r) { r.r1 = eat(strategy, eating, 0); }
+
+        @Actor
+        public void second(II_Result r) { r.r2 = eat(strategy, eating, 1); }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.programmer;
+
+import org.example.fork.ForkTable;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+// Two whole programmers on a table of two. Once both are done the meals add
+// up to the starting food, nothing is left and both forks are back.
+// r1 is the meals eaten, r2 the food left, r3 the free forks
+@JCStressTest
+@Outcome(id = "4, 0, 2", expect = ACCEPTABLE, desc = "All food eaten, forks back on the table")
+@Outcome(expect = FORBIDDEN, desc = "Food or forks went missing")
+@State
+public class ProgrammerInvariantTest {
+
+    private final ForkTable forks = new ForkTable(2);
+    private final AtomicInteger food = new AtomicInteger(4);
+    private final Programmer first = new Programmer(0, forks, food);
+    private final Programmer second = new Programmer(1, forks, food);
+
+    public ProgrammerInvariantTest() {
+        first.setEatModel(WorkModel.NONE);
+        second.setEatModel(WorkModel.NONE);
+        first.setLatencyHistograms(false);
+        second.setLatencyHistograms(false);
+    }
+
+    @Actor
+    public void first() {
+        first.run();
+    }
+
+    @Actor
+    public void second() {
+        second.run();
+    }
+
+    @Arbiter
+    public void arbiter(III_Result r) {
+        r.r1 = first.getPortionsEaten() + second.getPortionsEaten();
+        r.r2 = food.get();
+        r.r3 = forks.freeCount();
+    }
+}
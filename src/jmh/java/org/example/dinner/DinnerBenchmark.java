@@ -0,0 +1,66 @@
+package org.example.dinner;
+
+import org.example.fork.ForkStrategy;
+import org.example.programmer.WorkModelType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A whole dinner with eating switched off, so only synchronization is timed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DinnerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int programmers;
+
+    @Param({"100"})
+    int portionsPerProgrammer;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ExecutionMode mode;
+
+    @Param({"2"})
+    int waiters;
+
+    @Param({"ORDERED", "CHANDY_MISRA", "ARBITRATOR", "BACKOFF"})
+    ForkStrategy strategy;
+
+    // Tables the programmers are split into
+    @Param({"1", "4"})
+    int shards;
+
+    private DinnerConfig config;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() {
+        config = new DinnerConfig();
+        config.setExecutionMode(mode);
+        config.setWaitersCount(waiters);
+        config.setEatModel(WorkModelType.ZERO);
+        config.setForkStrategy(strategy);
+        config.setShards(shards);
+        // serve prints its stats, which would only measure the console
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public int serve() throws InterruptedException {
+        AtomicInteger food = new AtomicInteger(programmers * portionsPerProgrammer);
+        new Dinner(config).serve(programmers, food);
+        return food.get();
+    }
+}
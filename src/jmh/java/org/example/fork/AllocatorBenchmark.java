@@ -0,0 +1,100 @@
+package org.example.fork;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cost of one acquire/release of k resources, for both allocators and three
+// ways tasks overlap: never, with their neighbours as at the dinner table, or
+// at random over the whole pool. JMH's @Fork is spelled out, Fork is ours here
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@org.openjdk.jmh.annotations.Fork(1)
+public class AllocatorBenchmark {
+    // Sets each thread cycles through, so random overlap is not one fixed set
+    private static final int SETS_PER_THREAD = 256;
+
+    public enum Overlap { DISJOINT, NEIGHBOURS, RANDOM }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"ORDERED", "BITMAP"})
+        String allocatorType;
+
+        @Param({"2", "4", "16"})
+        int k;
+
+        @Param({"DISJOINT", "NEIGHBOURS", "RANDOM"})
+        Overlap overlap;
+
+        @Param({"4096"})
+        int resources;
+
+        ResourceAllocator allocator;
+        final AtomicInteger nextTask = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            WaitPolicy wait = new SpinYieldParkWaitPolicy();
+            allocator = allocatorType.equals("BITMAP")
+                    ? new BitmapResourceAllocator(resources, wait)
+                    : new OrderedResourceAllocator(resources, wait);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Task {
+        int id;
+        ResourceSet[] sets;
+        int next;
+
+        @Setup
+        public void setUp(Pool pool) {
+            id = pool.nextTask.getAndIncrement();
+            SplittableRandom random = new SplittableRandom(id);
+            sets = new ResourceSet[SETS_PER_THREAD];
+            for (int s = 0; s < sets.length; s++) {
+                int[] ids = new int[pool.k];
+                for (int i = 0; i < ids.length; i++) {
+                    switch (pool.overlap) {
+                        // Every task has a block of k of its own
+                        case DISJOINT: ids[i] = (id * pool.k + i) % pool.resources; break;
+                        // Blocks shifted by half, so each task shares with the next one
+                        case NEIGHBOURS: ids[i] = (id * pool.k / 2 + i) % pool.resources; break;
+                        default: ids[i] = random.nextInt(pool.resources); break;
+                    }
+                }
+                sets[s] = ResourceSet.of(ids);
+            }
+        }
+
+        ResourceSet nextSet() {
+            ResourceSet set = sets[next];
+            next = (next + 1) % sets.length;
+            return set;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean uncontended(Pool pool, Task task) {
+        return acquireAndRelease(pool.allocator, task);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean contended(Pool pool, Task task) {
+        return acquireAndRelease(pool.allocator, task);
+    }
+
+    private static boolean acquireAndRelease(ResourceAllocator allocator, Task task) {
+        ResourceSet set = task.nextSet();
+        boolean acquired = allocator.acquire(set, task.id);
+        allocator.release(set, task.id);
+        return acquired;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.programmer;
+
+import org.example.food.FoodDispenser;
+import org.example.food.FoodSource;
+import org.example.fork.ForkTable;
+import org.example.waiter.WaiterPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cost of takeOnePortionIfAvailable with several programmers hitting one supply
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class FoodBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Kitchen {
+        // 0 means programmers reserve from the dispenser themselves
+        @Param({"0", "2"})
+        int waiters;
+
+        final ForkTable forks = new ForkTable(64);
+        final AtomicInteger nextSeat = new AtomicInteger();
+        FoodDispenser dispenser;
+        WaiterPool waiterPool;
+
+        // A fresh supply per iteration, so it can never run dry mid-measurement
+        @Setup(Level.Iteration)
+        public void setUp() {
+            nextSeat.set(0);
+            dispenser = new FoodDispenser(new AtomicInteger(Integer.MAX_VALUE), 4);
+            if (waiters > 0) {
+                waiterPool = new WaiterPool(waiters, 64, 16, dispenser);
+                waiterPool.start();
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws InterruptedException {
+            if (waiterPool != null) {
+                waiterPool.shutdown();
+                waiterPool = null;
+            }
+        }
+
+        FoodSource sourceFor(int id) {
+            return waiterPool == null ? dispenser : waiterPool.clientFor(id);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Seat {
+        Programmer programmer;
+
+        @Setup(Level.Iteration)
+        public void setUp(Kitchen kitchen) {
+            int id = kitchen.nextSeat.getAndIncrement();
+            programmer = new Programmer(id, kitchen.forks, kitchen.sourceFor(id));
+        }
+    }
+
+    @Benchmark
+    public boolean takeOnePortion(Seat seat) {
+        return seat.programmer.takeOnePortionIfAvailable();
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.programmer;
+
+import org.example.food.FoodDispenser;
+import org.example.fork.ForkAcquisitionStrategy;
+import org.example.fork.ForkStrategy;
+import org.example.fork.ForkTable;
+import org.example.fork.WaitMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cost of one grabForks/releaseForks pair, without eating in between
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForkBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({"ORDERED", "CHANDY_MISRA", "ARBITRATOR", "BACKOFF"})
+        ForkStrategy strategy;
+
+        // Only used by ORDERED, compare with -p wait=PARK,SPIN_YIELD_PARK,ADAPTIVE
+        @Param({"SPIN_YIELD_PARK"})
+        WaitMode wait;
+
+        ForkAcquisitionStrategy forks;
+        // Threads sit next to each other, so every one of them has neighbours
+        final AtomicInteger nextSeat = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            forks = strategy.create(new ForkTable(64), wait.create());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Seat {
+        Programmer programmer;
+
+        @Setup
+        public void setUp(Table table) {
+            programmer = new Programmer(table.nextSeat.getAndIncrement(), table.forks,
+                    new FoodDispenser(new AtomicInteger(0), 1));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean uncontended(Seat seat) {
+        return grabAndRelease(seat.programmer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean neighbours(Seat seat) {
+        return grabAndRelease(seat.programmer);
+    }
+
+    private static boolean grabAndRelease(Programmer programmer) {
+        boolean grabbed = programmer.grabForks();
+        programmer.releaseForks();
+        return grabbed;
+    }
+}
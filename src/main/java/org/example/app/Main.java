@@ -2,10 +2,17 @@ package org.example.app;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.example.dinner.*;
+import org.example.stats.DinnerStats;
+import org.example.sweep.SweepResult;
+import org.example.sweep.SweepRunner;
 
 public class Main {
     public static void main(String[] args) throws InterruptedException, IOException {
@@ -13,18 +20,87 @@ public class Main {
         props.load(new FileInputStream("src/main/config.properties"));
 
         int iterations = Integer.parseInt(props.getProperty("iterations", "10"));
+        int warmupIterations = Integer.parseInt(props.getProperty("warmup_iterations", "0"));
         int fixedProgrammers = Integer.parseInt(props.getProperty("programmers_count", "-1"));
         int fixedFood = Integer.parseInt(props.getProperty("food_count", "-1"));
+        DinnerConfig config = DinnerConfig.fromProperties(props);
+        // Must happen before the first virtual thread is started
+        if (config.getExecutionMode() == ExecutionMode.VIRTUAL_BOUNDED) {
+            ExecutionMode.configureCarriers(config.getCarrierThreads());
+        }
+
+        if (Boolean.parseBoolean(props.getProperty("sweep", "false"))) {
+            runSweep(props);
+            return;
+        }
+
+        // Same table for every iteration, warm-up runs are served but not reported
+        List<DinnerStats> measured = new ArrayList<>();
+        try (DinnerRunner runner = DinnerRunner.open(config, fixedProgrammers)) {
+            for (int i = 0; i < warmupIterations + iterations; i++) {
+                boolean warmup = i < warmupIterations;
+                AtomicInteger foodCount = new AtomicInteger(fixedFood);
 
-        for (int i = 0; i < iterations; i++) {
-            AtomicInteger foodCount = new AtomicInteger(fixedFood);
+                System.out.println("--------------------------------------------------------------------");
+                if (warmup) {
+                    System.out.println("Warm-up " + (i + 1) + " of " + warmupIterations);
+                }
+                System.out.println("Programmers: " + fixedProgrammers);
+                System.out.println("Food: " + fixedFood);
+                if (config.isSimulate()) {
+                    System.out.println("Execution mode: simulated, seed " + config.getSimulationSeed());
+                } else if (config.getProcesses() > 1) {
+                    System.out.println("Execution mode: " + config.getExecutionMode() + " in "
+                            + config.getProcesses() + " processes");
+                } else {
+                    System.out.println("Execution mode: " + config.getExecutionMode());
+                }
+                System.out.println("Waiters: " + config.getWaitersCount());
+                System.out.println("Fork strategy: " + config.getForkStrategy() + ", wait: " + config.getForkWait());
+                System.out.println("Shards: " + config.getShards());
+                System.out.println("Fairness: " + config.getFairnessMode() + ", max spread " + config.getMaxSpread());
+                if (!config.getProfiles().isEmpty()) {
+                    System.out.println("Profiles: " + config.getProfiles());
+                }
 
-            System.out.println("--------------------------------------------------------------------");
-            System.out.println("Programmers: " + fixedProgrammers);
-            System.out.println("Food: " + fixedFood);
+                DinnerStats stats = runner.serve(foodCount);
+                if (!warmup) {
+                    measured.add(stats);
+                }
+            }
+        }
+        printSummary(measured);
+    }
+
+    // Every combination of the sweep_ lists, written as CSV and JSON for capacity planning
+    private static void runSweep(Properties props) throws InterruptedException, IOException {
+        SweepRunner sweep = SweepRunner.fromProperties(props);
+        String output = props.getProperty("sweep_output", "sweep-results");
+        System.out.println("Sweep: " + sweep.grid().size() + " points, " + sweep.getParallelism() + " at a time");
+        List<SweepResult> results = sweep.run();
+        SweepRunner.writeCsv(Path.of(output + ".csv"), results);
+        SweepRunner.writeJson(Path.of(output + ".json"), results);
+        System.out.println("Sweep results written to " + output + ".csv and " + output + ".json");
+    }
 
-            Dinner dinner = new Dinner();
-            dinner.serve(fixedProgrammers, foodCount);
+    private static void printSummary(List<DinnerStats> measured) {
+        if (measured.isEmpty()) return;
+        double totalThroughput = 0;
+        double minThroughput = Double.MAX_VALUE;
+        double maxThroughput = 0;
+        long totalElapsed = 0;
+        for (DinnerStats stats : measured) {
+            totalThroughput += stats.getThroughput();
+            minThroughput = Math.min(minThroughput, stats.getThroughput());
+            maxThroughput = Math.max(maxThroughput, stats.getThroughput());
+            totalElapsed += stats.getElapsedNanos();
         }
+        System.out.printf("Measured %d iterations: mean throughput=%.0f meals/s (min %.0f, max %.0f), "
+                        + "mean time=%d ms%n",
+                measured.size(),
+                totalThroughput / measured.size(),
+                minThroughput,
+                maxThroughput,
+                TimeUnit.NANOSECONDS.toMillis(totalElapsed / measured.size()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package org.example.app;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.example.stats.LatencyHistogram;
+import org.example.trace.EventLogReader;
+
+// Prints the per-programmer timelines and wait times of an event_log file,
+// or every event of one programmer with --programmer <id>
+public class ReadEventLog {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && !(args.length == 3 && args[1].equals("--programmer"))) {
+            System.err.println("Usage: ReadEventLog <event log> [--programmer <id>]");
+            System.exit(2);
+        }
+        EventLogReader reader = EventLogReader.open(Path.of(args[0]));
+        System.out.println("Programmers: " + reader.getProgrammersCount());
+        System.out.println("Events: " + reader.size() + ", dropped " + reader.getDropped());
+        if (args.length == 3) {
+            int id = Integer.parseInt(args[2]);
+            for (long i = 0; i < reader.size(); i++) {
+                if (reader.programmerAt(i) == id) {
+                    System.out.printf("%14d ns  %s%n", reader.timeAt(i), reader.opAt(i));
+                }
+            }
+            return;
+        }
+
+        LatencyHistogram forkWait = new LatencyHistogram();
+        LatencyHistogram holdTime = new LatencyHistogram();
+        for (EventLogReader.Timeline timeline : reader.timelines()) {
+            forkWait.merge(timeline.getForkWait());
+            holdTime.merge(timeline.getHoldTime());
+            System.out.printf("Programmer %d: %d meals, %d put back, active %d..%d ms, fork wait mean %d us, max %d us%n",
+                    timeline.getProgrammerId(),
+                    timeline.getMeals(),
+                    timeline.getPortionsPutBack(),
+                    Math.max(0, timeline.getFirstNanos()) / 1_000_000,
+                    timeline.getLastNanos() / 1_000_000,
+                    timeline.getForkWait().getMean() / 1_000,
+                    timeline.getForkWait().getMax() / 1_000);
+        }
+        System.out.println("Fork wait: " + forkWait.toPercentileString());
+        System.out.println("Fork hold: " + holdTime.toPercentileString());
+    }
+}
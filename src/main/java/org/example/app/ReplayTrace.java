@@ -0,0 +1,28 @@
+package org.example.app;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.example.stats.DinnerStats;
+import org.example.trace.InterleavingTrace;
+import org.example.trace.TraceReplay;
+
+// Replays a trace written by a dinner with trace_file set and prints what it
+// reproduced, or the first operation that could not have happened
+public class ReplayTrace {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ReplayTrace <trace file>");
+            System.exit(2);
+        }
+        InterleavingTrace trace = InterleavingTrace.read(Path.of(args[0]));
+        System.out.println("Programmers: " + trace.getProgrammersCount());
+        System.out.println("Food: " + trace.getFood());
+        System.out.println("Trace: " + trace);
+        DinnerStats stats = TraceReplay.replay(trace);
+        System.out.println(stats);
+        System.out.println("Fork wait: " + stats.getForkWait().toPercentileString());
+        System.out.println("Eat time: " + stats.getEatTime().toPercentileString());
+    }
+}
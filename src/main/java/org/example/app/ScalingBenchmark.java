@@ -0,0 +1,122 @@
+package org.example.app;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.dinner.*;
+
+// Compares execution modes at growing table sizes. Every run happens in its own
+// JVM so thread limits, carrier settings and heap state never leak between runs.
+// Next to the wall time it shows what setting the table up allocated per seat,
+// which is the heap the dinner's state needs, threads and stacks aside
+public class ScalingBenchmark {
+
+    private static final int[] DEFAULT_COUNTS = {10, 1_000, 100_000, 1_000_000};
+    private static final int PLATFORM_LIMIT = Integer.getInteger("benchmark.platform_limit", 100_000);
+    private static final int CARRIERS = Integer.getInteger("benchmark.carriers",
+            Runtime.getRuntime().availableProcessors());
+    private static final long RUN_TIMEOUT_MINUTES = Long.getLong("benchmark.timeout_minutes", 10);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("--single")) {
+            runSingle(ExecutionMode.parse(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        int[] counts = DEFAULT_COUNTS;
+        if (args.length > 0) {
+            counts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                counts[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        List<String> rows = new ArrayList<>();
+        for (int count : counts) {
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                String result;
+                if (mode == ExecutionMode.PLATFORM && count > PLATFORM_LIMIT) {
+                    result = "skipped (above benchmark.platform_limit)";
+                } else {
+                    result = fork(mode, count);
+                }
+                rows.add(String.format("%-16s %10d  %s", mode, count, result));
+            }
+        }
+
+        System.out.println("--------------------------------------------------------------------");
+        System.out.println(String.format("%-16s %10s  %s", "Mode", "Programmers", "Wall time, state per seat"));
+        for (String row : rows) {
+            System.out.println(row);
+        }
+    }
+
+    // Runs one dinner inside the current JVM and prints the wall time for the parent
+    private static void runSingle(ExecutionMode mode, int programmersCount) throws InterruptedException {
+        if (mode == ExecutionMode.VIRTUAL_BOUNDED) {
+            ExecutionMode.configureCarriers(CARRIERS);
+        }
+        DinnerConfig config = new DinnerConfig();
+        config.setExecutionMode(mode);
+        config.setCarrierThreads(CARRIERS);
+        // Keeps a million programmers from carrying three histograms each
+        config.setLatencyHistograms(false);
+        // One portion each, so the run measures thread handling rather than eating
+        AtomicInteger food = new AtomicInteger(programmersCount);
+        long allocated = allocatedBytes();
+        try (DinnerRunner runner = DinnerRunner.open(config, programmersCount)) {
+            long perSeat = (allocatedBytes() - allocated) / programmersCount;
+            long start = System.nanoTime();
+            runner.serve(food);
+            long elapsed = System.nanoTime() - start;
+            System.out.println("RESULT " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms, " + perSeat + " B");
+        }
+    }
+
+    // Bytes this thread allocated so far, setting a table up happens on one thread
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static String fork(ExecutionMode mode, int programmersCount) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + "/bin/java";
+        ProcessBuilder builder = new ProcessBuilder(
+                java,
+                "-Dbenchmark.carriers=" + CARRIERS,
+                "-cp", System.getProperty("java.class.path"),
+                ScalingBenchmark.class.getName(),
+                "--single", mode.name(), String.valueOf(programmersCount));
+        builder.redirectErrorStream(true);
+        // Output goes to a file so a hung child can still be timed out
+        Path output = Files.createTempFile("scaling-benchmark", ".log");
+        builder.redirectOutput(output.toFile());
+        Process process = builder.start();
+
+        try {
+            if (!process.waitFor(RUN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                return "timed out";
+            }
+            String result = null;
+            String lastLine = null;
+            for (String line : Files.readAllLines(output)) {
+                if (line.startsWith("RESULT ")) {
+                    result = line.substring("RESULT ".length());
+                } else if (!line.isBlank()) {
+                    lastLine = line;
+                }
+            }
+            if (process.exitValue() != 0 || result == null) {
+                return "failed (exit " + process.exitValue() + "): " + lastLine;
+            }
+            return result;
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.app;
+
+import org.example.dinner.DinnerConfig;
+import org.example.dinner.ExecutionMode;
+import org.example.dinner.SharedDinner;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// One process of a shared dinner, started by SharedDinner:
+//   SharedDinnerWorker <table file> <config file> <process index>
+public class SharedDinnerWorker {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 3) {
+            System.err.println("Usage: SharedDinnerWorker <table file> <config file> <process index>");
+            System.exit(2);
+        }
+        Properties props = new Properties();
+        try (FileInputStream in = new FileInputStream(args[1])) {
+            props.load(in);
+        }
+        DinnerConfig config = DinnerConfig.fromProperties(props);
+        // Must happen before the first virtual thread is started
+        if (config.getExecutionMode() == ExecutionMode.VIRTUAL_BOUNDED) {
+            ExecutionMode.configureCarriers(config.getCarrierThreads());
+        }
+        SharedDinner.work(Path.of(args[0]), config, Integer.parseInt(args[2]));
+    }
+}
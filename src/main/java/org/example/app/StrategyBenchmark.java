@@ -0,0 +1,61 @@
+package org.example.app;
+
+import com.sun.management.OperatingSystemMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.dinner.*;
+import org.example.fork.ForkStrategy;
+import org.example.fork.WaitMode;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
+
+// Runs every fork acquisition strategy (and every wait mode of ordered) through
+// the same dinner and prints throughput, p99 fork wait, CPU per meal and
+// fairness spread side by side.
+// Arguments: programmers, food, eat model, eat nanos (defaults 50, 10000, zero, 0)
+public class StrategyBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int programmers = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int food = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        WorkModelType eatModel = args.length > 2 ? WorkModelType.parse(args[2]) : WorkModelType.ZERO;
+        long eatNanos = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        List<String> rows = new ArrayList<>();
+        for (ForkStrategy strategy : ForkStrategy.values()) {
+            // Only ordered waits through the wait policy, the others have their own
+            WaitMode[] waits = strategy == ForkStrategy.ORDERED ? WaitMode.values() : new WaitMode[]{null};
+            for (WaitMode wait : waits) {
+                DinnerConfig config = new DinnerConfig();
+                config.setForkStrategy(strategy);
+                if (wait != null) config.setForkWait(wait);
+                config.setEatModel(eatModel);
+                config.setEatNanos(eatNanos);
+                long cpuBefore = os.getProcessCpuTime();
+                DinnerStats stats = new Dinner(config).serve(programmers, new AtomicInteger(food));
+                long cpu = os.getProcessCpuTime() - cpuBefore;
+                rows.add(String.format("%-14s %-16s %14.0f %14d %14d %8d",
+                        stats.getStrategy(),
+                        wait == null ? "-" : wait.name(),
+                        stats.getThroughput(),
+                        stats.getForkWait().percentile(99) / 1_000,
+                        cpu / Math.max(stats.getMealsEaten(), 1),
+                        stats.getSpread()));
+            }
+        }
+
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors()
+                + ", programmers: " + programmers + ", food: " + food
+                + ", eat: " + eatModel + " " + eatNanos + " ns");
+        System.out.println(String.format("%-14s %-16s %14s %14s %14s %8s",
+                "Strategy", "Wait", "Meals/s", "Wait p99 us", "CPU ns/meal", "Spread"));
+        for (String row : rows) {
+            System.out.println(row);
+        }
+    }
+}
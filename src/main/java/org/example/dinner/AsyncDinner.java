@@ -0,0 +1,427 @@
+package org.example.dinner;
+
+import org.example.fairness.FairnessPolicy;
+import org.example.food.FoodDispenser;
+import org.example.food.PortionBatches;
+import org.example.fork.ForkStrategy;
+import org.example.fork.ForkTable;
+import org.example.fork.WaitMode;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+import org.example.stats.PortionStats;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Programmers as chains of continuations instead of threads. Eating and
+// thinking are timers, and a released fork is handed straight to the next
+// waiter, which then continues on the pool, so no thread ever waits and
+// carrier_threads pool threads drive any number of programmers. Forks are
+// taken lower id first, as in the ordered strategy, and portions come straight
+// from the dispenser: waiters block on queues, so they are not used here.
+// A seat is only an index: its state lives in primitive arrays, a few dozen
+// bytes per seat, so a million of them fit in a small heap
+public class AsyncDinner implements DinnerRunner {
+
+    private static final int NONE = -1;
+    // Fork wait lists share this many monitors, picked by fork id
+    private static final int MAX_STRIPES = 1024;
+
+    private final DinnerVerifier verifier = new DinnerVerifier();
+    private final DinnerConfig config;
+    private final int programmersCount;
+    private final ExecutorService pool;
+    private final AtomicInteger supply = new AtomicInteger();
+    private final FairnessPolicy fairness;
+    private final ForkTable forks;
+    // Seats waiting for a fork, oldest first: a list per fork linked through
+    // nextWaiter. A seat waits for one fork at a time, so one link is enough
+    private final int[] waitHead;
+    private final int[] waitTail;
+    private final int[] nextWaiter;
+    private final Object[] stripes;
+    private final PortionBatches food;
+    // Only touched by the seat's own chain, one step at a time
+    private final int[] eaten;
+    private final long[] since;
+    // Seats over the fairness bound, linked both ways through heldPrev and
+    // heldNext so any of them leaves the list at once. Whenever somebody eats
+    // or leaves, only the seats the new floor lets eat are continued
+    private final Object heldLock = new Object();
+    private final int[] heldPrev;
+    private final int[] heldNext;
+    private final boolean[] held;
+    private int heldHead = NONE;
+    // A step runs on one pool thread from start to end, so histograms are
+    // kept per pool thread and merged at the end rather than kept per seat
+    private final ConcurrentLinkedQueue<Histograms> histograms = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Histograms> localHistograms;
+    private final AtomicInteger seated = new AtomicInteger();
+    private volatile CompletableFuture<DinnerStats> dinner;
+    private AtomicInteger foodCount;
+    private long start;
+
+    public AsyncDinner(DinnerConfig config, int programmersCount) {
+        if (programmersCount <= 0) {
+            throw new IllegalArgumentException("Amount can't be negative");
+        }
+        // None of these is wired into the continuations, so they would silently do nothing.
+        // The watchdog is on by default and only reports, so its window is simply
+        // not watched here; asking it to abort is a mistake though
+        if (config.isMetrics() || config.getWaitersCount() > 0 || config.isWatchdogAbort()
+                || !config.getTraceFile().isEmpty() || !config.getEventLog().isEmpty()) {
+            throw new IllegalArgumentException("Async dinners have no metrics, waiters, watchdog abort, trace "
+                    + "or event log, turn them off");
+        }
+        // Forks are always taken in order and a waiting seat is a queue entry, never a thread
+        if (config.getForkStrategy() != ForkStrategy.ORDERED || config.getForkWait() != WaitMode.SPIN_YIELD_PARK) {
+            throw new IllegalArgumentException("Async dinners take forks in order without waiting threads, "
+                    + "leave fork_strategy and fork_wait at their defaults");
+        }
+        this.config = config;
+        this.programmersCount = programmersCount;
+        this.fairness = config.getFairnessMode().create(programmersCount, config.getMaxSpread(),
+                config.getProfiles().getWeights());
+        this.forks = new ForkTable(programmersCount);
+        this.waitHead = new int[programmersCount];
+        this.waitTail = new int[programmersCount];
+        this.nextWaiter = new int[programmersCount];
+        this.stripes = new Object[Integer.highestOneBit(Math.min(programmersCount, MAX_STRIPES))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+        this.food = new PortionBatches(new FoodDispenser(supply, programmersCount), programmersCount);
+        this.eaten = new int[programmersCount];
+        this.since = new long[programmersCount];
+        this.heldPrev = new int[programmersCount];
+        this.heldNext = new int[programmersCount];
+        this.held = new boolean[programmersCount];
+        boolean enabled = config.isLatencyHistograms();
+        this.localHistograms = ThreadLocal.withInitial(() -> {
+            Histograms own = new Histograms(enabled);
+            histograms.add(own);
+            return own;
+        });
+        pool = Executors.newFixedThreadPool(config.getCarrierThreads());
+    }
+
+    // Starts serving the food in foodCount and returns at once. The future
+    // completes with the stats once everybody left, foodCount then holds what is left
+    public CompletableFuture<DinnerStats> serveAsync(AtomicInteger foodCount) {
+        verifier.execute(programmersCount, foodCount);
+        if (dinner != null && !dinner.isDone()) {
+            throw new IllegalStateException("A dinner is already being served");
+        }
+        this.foodCount = foodCount;
+        supply.set(foodCount.get());
+        fairness.reset();
+        heldHead = NONE;
+        Arrays.fill(held, false);
+        Arrays.fill(waitHead, NONE);
+        Arrays.fill(eaten, 0);
+        food.reset();
+        for (Histograms own : histograms) {
+            own.reset();
+        }
+        seated.set(programmersCount);
+        CompletableFuture<DinnerStats> served = new CompletableFuture<>();
+        dinner = served;
+        start = System.nanoTime();
+        for (int seat = 0; seat < programmersCount; seat++) {
+            int id = seat;
+            submit(() -> next(id));
+        }
+        return served;
+    }
+
+    @Override
+    public DinnerStats serve(AtomicInteger foodCount) throws InterruptedException {
+        DinnerStats stats;
+        try {
+            stats = serveAsync(foodCount).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dinner failed", e.getCause());
+        }
+        System.out.println("Dinner is over!");
+        System.out.println("Food amount is " + foodCount);
+        System.out.println("Portions: " + stats.getPortions());
+        System.out.println(stats);
+        DinnerReport.printClasses(stats);
+        if (config.isLatencyHistograms()) {
+            System.out.println("Fork wait: " + stats.getForkWait().toPercentileString());
+            System.out.println("Eat time: " + stats.getEatTime().toPercentileString());
+            System.out.println("Food wait: " + stats.getFoodWait().toPercentileString());
+        }
+        System.out.println("--------------------------------------------------------------------");
+        return stats;
+    }
+
+    public int getProgrammersCount() { return programmersCount; }
+
+    // Portions the seat ate in the last dinner, only exact once it is over
+    public int getPortionsEaten(int seat) { return eaten[seat]; }
+
+    // Waits for the pool threads, never call it from a continuation
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    // Lets the pool threads end once they are idle, without waiting for them
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void next(int seat) {
+        if (!fairness.mayEat(seat, eaten[seat]) && !holdBack(seat)) return;
+        Histograms own = localHistograms.get();
+        long waitStart = System.nanoTime();
+        boolean taken = food.takeOne(seat);
+        own.foodWait.record(System.nanoTime() - waitStart);
+        if (!taken) {
+            leave(seat);
+            return;
+        }
+        since[seat] = System.nanoTime();
+        int first = firstFork(seat);
+        if (acquire(first, seat)) {
+            granted(seat, first);
+        }
+    }
+
+    // True when the turn came after all, otherwise the seat stays held back.
+    // A count published before the seat joined the list is seen by tryTurn,
+    // a later one by the wakeHeldBack of whoever published it
+    private boolean holdBack(int seat) {
+        // Reserved portions go back so the hungrier ones can have them meanwhile
+        food.giveBack(seat);
+        synchronized (heldLock) {
+            held[seat] = true;
+            heldPrev[seat] = NONE;
+            heldNext[seat] = heldHead;
+            if (heldHead != NONE) heldPrev[heldHead] = seat;
+            heldHead = seat;
+        }
+        if (!fairness.tryTurn(seat, eaten[seat])) return false;
+        // Whoever unlinks the seat continues it
+        synchronized (heldLock) {
+            if (!held[seat]) return false;
+            unlinkHeld(seat);
+            return true;
+        }
+    }
+
+    // Guarded by heldLock
+    private void unlinkHeld(int seat) {
+        held[seat] = false;
+        int prev = heldPrev[seat];
+        int next = heldNext[seat];
+        if (prev == NONE) {
+            heldHead = next;
+        } else {
+            heldNext[prev] = next;
+        }
+        if (next != NONE) heldPrev[next] = prev;
+    }
+
+    // The seat now holds fork: on to the second one, or to eating
+    private void granted(int seat, int fork) {
+        int second = secondFork(seat);
+        if (fork != second && second != NONE && !acquire(second, seat)) return;
+        eat(seat);
+    }
+
+    private void eat(int seat) {
+        long now = System.nanoTime();
+        localHistograms.get().forkWait.record(now - since[seat]);
+        since[seat] = now;
+        eaten[seat]++;
+        WorkModelType eatModel = config.eatModelOf(seat);
+        after(eatModel, eatModel.sample(config.eatNanosOf(seat), ThreadLocalRandom.current()),
+                () -> doneEating(seat));
+    }
+
+    private void doneEating(int seat) {
+        localHistograms.get().eatTime.record(System.nanoTime() - since[seat]);
+        int second = secondFork(seat);
+        if (second != NONE) release(second, seat);
+        release(firstFork(seat), seat);
+        fairness.ate(seat, eaten[seat]);
+        wakeHeldBack();
+        after(config.getThinkModel(),
+                config.getThinkModel().sample(config.getThinkNanos(), ThreadLocalRandom.current()),
+                () -> next(seat));
+    }
+
+    private void leave(int seat) {
+        food.giveBack(seat);
+        fairness.leave(seat);
+        wakeHeldBack();
+        if (seated.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    // Lower id first: the left fork, except at the last seat where the right one is fork 0
+    private int firstFork(int seat) {
+        return Math.min(forks.leftIdOf(seat), forks.rightIdOf(seat));
+    }
+
+    // NONE on a one seat table, where both sides are the same fork
+    private int secondFork(int seat) {
+        int left = forks.leftIdOf(seat);
+        int right = forks.rightIdOf(seat);
+        return left == right ? NONE : Math.max(left, right);
+    }
+
+    // True when the fork was free and nobody was queued for it, otherwise the
+    // seat joins the fork's list and release continues it later
+    private boolean acquire(int fork, int seat) {
+        synchronized (stripeOf(fork)) {
+            if (waitHead[fork] == NONE && forks.tryAcquire(fork, seat)) {
+                return true;
+            }
+            nextWaiter[seat] = NONE;
+            if (waitHead[fork] == NONE) {
+                waitHead[fork] = seat;
+            } else {
+                nextWaiter[waitTail[fork]] = seat;
+            }
+            waitTail[fork] = seat;
+            return false;
+        }
+    }
+
+    // Hands the fork to the oldest waiter before anybody else can take it
+    private void release(int fork, int seat) {
+        int next;
+        synchronized (stripeOf(fork)) {
+            forks.release(fork, seat);
+            next = waitHead[fork];
+            if (next != NONE) {
+                waitHead[fork] = nextWaiter[next];
+                if (!forks.tryAcquire(fork, next)) {
+                    throw new IllegalStateException("Fork " + fork + " taken outside of its queue");
+                }
+            }
+        }
+        // Outside the lock: whatever the waiter does next must not run under it
+        if (next != NONE) {
+            submit(() -> granted(next, fork));
+        }
+    }
+
+    private Object stripeOf(int fork) {
+        return stripes[fork & (stripes.length - 1)];
+    }
+
+    // The last one to leave adds everybody up
+    private void finish() {
+        long elapsed = System.nanoTime() - start;
+        PortionStats portions = PortionStats.of(eaten);
+        LatencyHistogram forkWait = new LatencyHistogram();
+        LatencyHistogram eatTime = new LatencyHistogram();
+        LatencyHistogram foodWait = new LatencyHistogram();
+        for (Histograms own : histograms) {
+            forkWait.merge(own.forkWait);
+            eatTime.merge(own.eatTime);
+            foodWait.merge(own.foodWait);
+        }
+        foodCount.set(supply.get());
+        dinner.complete(new DinnerStats("ASYNC", config.getFairnessMode().name(), programmersCount,
+                portions.getMeals(), elapsed, portions, forkWait, eatTime, foodWait,
+                config.getProfiles().classStats(eaten, 0, elapsed)));
+    }
+
+    private void fail(Throwable e) {
+        dinner.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    }
+
+    private void submit(Runnable step) {
+        pool.execute(() -> guarded(step));
+    }
+
+    private void guarded(Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+
+    // Runs the step once the work is done: spinning burns this pool thread,
+    // anything sleeping becomes a timer
+    private void after(WorkModelType model, long nanos, Runnable step) {
+        if (model == WorkModelType.SPIN) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            submit(step);
+        } else if (nanos > 0) {
+            CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, pool).execute(() -> guarded(step));
+        } else {
+            submit(step);
+        }
+    }
+
+    // The seats the new floor lets eat leave the list, chained through heldNext
+    // while the lock is held and continued once it is not
+    private void wakeHeldBack() {
+        int first;
+        int firstEaten;
+        synchronized (heldLock) {
+            first = heldHead;
+            if (first == NONE) return;
+            firstEaten = eaten[first];
+        }
+        // One scan raises the floor for every seat, the rest only reads it
+        fairness.tryTurn(first, firstEaten);
+        int woken = NONE;
+        synchronized (heldLock) {
+            int seat = heldHead;
+            while (seat != NONE) {
+                int next = heldNext[seat];
+                if (fairness.mayEat(seat, eaten[seat])) {
+                    unlinkHeld(seat);
+                    heldNext[seat] = woken;
+                    woken = seat;
+                }
+                seat = next;
+            }
+        }
+        while (woken != NONE) {
+            int id = woken;
+            woken = heldNext[id];
+            submit(() -> next(id));
+        }
+    }
+
+    // What one pool thread recorded
+    private static final class Histograms {
+        final LatencyHistogram forkWait;
+        final LatencyHistogram eatTime;
+        final LatencyHistogram foodWait;
+
+        Histograms(boolean enabled) {
+            forkWait = enabled ? new LatencyHistogram() : LatencyHistogram.disabled();
+            eatTime = enabled ? new LatencyHistogram() : LatencyHistogram.disabled();
+            foodWait = enabled ? new LatencyHistogram() : LatencyHistogram.disabled();
+        }
+
+        void reset() {
+            forkWait.reset();
+            eatTime.reset();
+            foodWait.reset();
+        }
+    }
+}
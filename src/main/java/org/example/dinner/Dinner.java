@@ -1,48 +1,46 @@
 package org.example.dinner;
 
-import org.example.programmer.Programmer;
-import org.example.fork.Fork;
+import org.example.stats.DinnerStats;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
+// A single dinner on a freshly set table. Use DinnerRunner.open to run
+// several dinners on the same threads and resources
 public class Dinner {
 
     // Dependencies
     private final DinnerVerifier verifier = new DinnerVerifier();
-    private final ResourceGenerator resourceGenerator = new ResourceGenerator();
-    private final ArrayList<Programmer> programmers = new ArrayList<>();
-    private final BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-    private HashMap<Integer, Integer> counts = new HashMap<>();
+    private final DinnerConfig config;
 
-    public void serve(int programmersCount, AtomicInteger foodCount) throws InterruptedException {
+    public Dinner() {
+        this(new DinnerConfig());
+    }
+
+    public Dinner(DinnerConfig config) {
+        this.config = config;
+    }
+
+    public DinnerStats serve(int programmersCount, AtomicInteger foodCount) throws InterruptedException {
         // Verifying the values to not run with garbage ones
         verifier.execute(programmersCount, foodCount);
-        // Generating resources
-        resourceGenerator.generate(programmers, forks, programmersCount, foodCount);
-        // Starting dinner
-        ExecutorService pool = Executors.newFixedThreadPool(programmersCount);
-        for (Programmer p : programmers) {
-            pool.submit(p);
+        try (DinnerRunner runner = DinnerRunner.open(config, programmersCount)) {
+            return runner.serve(foodCount);
         }
-        pool.shutdown();
-        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-        System.out.println("Dinner is over!");
-        System.out.println("Food amount is " + foodCount);
-        // Counting stats to display
-        for (Programmer programmer : programmers) {
-            int count = counts.getOrDefault(programmer.getPortionsEaten(), 0);
-            counts.put(programmer.getPortionsEaten(), count + 1);
-        }
-        // Displaying stats
-        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
-            int portionsEaten = entry.getKey();
-            int count = entry.getValue();
-            System.out.println("Portions eaten: " + portionsEaten + ", Count: " + count);
+    }
+
+    // Returns at once, no thread waits for the dinner. The future completes
+    // with the stats, foodCount then holds what is left
+    public CompletableFuture<DinnerStats> serveAsync(int programmersCount, AtomicInteger foodCount) {
+        verifier.execute(programmersCount, foodCount);
+        AsyncDinner dinner = new AsyncDinner(config, programmersCount);
+        CompletableFuture<DinnerStats> served;
+        try {
+            served = dinner.serveAsync(foodCount);
+        } catch (RuntimeException e) {
+            dinner.shutdown();
+            throw e;
         }
-        System.out.println("--------------------------------------------------------------------");
+        return served.whenComplete((stats, e) -> dinner.shutdown());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,244 @@
+package org.example.dinner;
+
+import org.example.fairness.FairnessMode;
+import org.example.fork.ForkStrategy;
+import org.example.fork.WaitMode;
+import org.example.programmer.ProgrammerProfile;
+import org.example.programmer.ProgrammerProfiles;
+import org.example.programmer.WorkModelType;
+
+import java.util.Properties;
+
+// Tunables of a dinner, usually loaded from config.properties
+public class DinnerConfig {
+
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    private int carrierThreads = Runtime.getRuntime().availableProcessors();
+    // 0 waiters means programmers take food from the dispenser themselves
+    private int waitersCount = 0;
+    private int waiterQueueDepth = 64;
+    private int waiterBatchSize = 16;
+    // Eating defaults to the original 10 ms sleep, thinking to nothing
+    private WorkModelType eatModel = WorkModelType.FIXED;
+    private long eatNanos = 10_000_000;
+    private WorkModelType thinkModel = WorkModelType.ZERO;
+    private long thinkNanos = 0;
+    // Priority classes with their own weight and eating, none seats everybody alike
+    private ProgrammerProfiles profiles = ProgrammerProfiles.none();
+    private ForkStrategy forkStrategy = ForkStrategy.ORDERED;
+    private WaitMode forkWait = WaitMode.SPIN_YIELD_PARK;
+    private boolean latencyHistograms = true;
+    private FairnessMode fairnessMode = FairnessMode.NONE;
+    private int maxSpread = 2;
+    // Independent tables the programmers are split into
+    private int shards = 1;
+    // 0 turns the watchdog off, starvation 0 only watches for stalls
+    private long watchdogWindowMillis = 10_000;
+    private long starvationWindowMillis = 30_000;
+    private boolean watchdogAbort = false;
+    // Live metrics over JMX, plus a Prometheus endpoint when the port is not negative
+    private boolean metrics = false;
+    private int metricsPort = -1;
+    // Single-threaded discrete-event run on a virtual clock instead of real threads
+    private boolean simulate = false;
+    private long simulationSeed = 42;
+    // Empty records nothing, otherwise every dinner overwrites this file
+    private String traceFile = "";
+    private int traceCapacity = 1 << 20;
+    // Binary log of every operation of every dinner an engine serves, empty logs nothing
+    private String eventLog = "";
+    private int eventLogRing = 4096;
+    // Worker JVMs sharing one memory-mapped table, 1 serves the dinner in this JVM
+    private int processes = 1;
+    // Empty maps a temporary file
+    private String sharedFile = "";
+
+    public static DinnerConfig fromProperties(Properties props) {
+        DinnerConfig config = new DinnerConfig();
+        config.setExecutionMode(ExecutionMode.parse(props.getProperty("execution_mode", "platform")));
+        config.setCarrierThreads(Integer.parseInt(
+                props.getProperty("carrier_threads", String.valueOf(config.getCarrierThreads()))));
+        config.setWaitersCount(Integer.parseInt(
+                props.getProperty("waiters_count", String.valueOf(config.getWaitersCount()))));
+        config.setWaiterQueueDepth(Integer.parseInt(
+                props.getProperty("waiter_queue_depth", String.valueOf(config.getWaiterQueueDepth()))));
+        config.setWaiterBatchSize(Integer.parseInt(
+                props.getProperty("waiter_batch_size", String.valueOf(config.getWaiterBatchSize()))));
+        config.setEatModel(WorkModelType.parse(props.getProperty("eat_model", "fixed")));
+        config.setEatNanos(Long.parseLong(
+                props.getProperty("eat_nanos", String.valueOf(config.getEatNanos()))));
+        config.setThinkModel(WorkModelType.parse(props.getProperty("think_model", "zero")));
+        config.setThinkNanos(Long.parseLong(
+                props.getProperty("think_nanos", String.valueOf(config.getThinkNanos()))));
+        // After the eat settings, profiles fall back on them
+        config.setProfiles(ProgrammerProfiles.fromProperties(props, config.getEatModel(), config.getEatNanos()));
+        config.setForkStrategy(ForkStrategy.parse(props.getProperty("fork_strategy", "ordered")));
+        config.setForkWait(WaitMode.parse(props.getProperty("fork_wait", "spin_yield_park")));
+        config.setLatencyHistograms(Boolean.parseBoolean(
+                props.getProperty("latency_histograms", String.valueOf(config.isLatencyHistograms()))));
+        config.setFairnessMode(FairnessMode.parse(props.getProperty("fairness_mode", "none")));
+        config.setMaxSpread(Integer.parseInt(
+                props.getProperty("max_spread", String.valueOf(config.getMaxSpread()))));
+        config.setShards(Integer.parseInt(
+                props.getProperty("shards", String.valueOf(config.getShards()))));
+        config.setWatchdogWindowMillis(Long.parseLong(
+                props.getProperty("watchdog_window_ms", String.valueOf(config.getWatchdogWindowMillis()))));
+        config.setStarvationWindowMillis(Long.parseLong(
+                props.getProperty("starvation_window_ms", String.valueOf(config.getStarvationWindowMillis()))));
+        config.setWatchdogAbort(Boolean.parseBoolean(
+                props.getProperty("watchdog_abort", String.valueOf(config.isWatchdogAbort()))));
+        config.setMetrics(Boolean.parseBoolean(
+                props.getProperty("metrics", String.valueOf(config.isMetrics()))));
+        config.setMetricsPort(Integer.parseInt(
+                props.getProperty("metrics_port", String.valueOf(config.getMetricsPort()))));
+        config.setSimulate(Boolean.parseBoolean(
+                props.getProperty("simulate", String.valueOf(config.isSimulate()))));
+        config.setSimulationSeed(Long.parseLong(
+                props.getProperty("simulation_seed", String.valueOf(config.getSimulationSeed()))));
+        config.setTraceFile(props.getProperty("trace_file", config.getTraceFile()).trim());
+        config.setTraceCapacity(Integer.parseInt(
+                props.getProperty("trace_capacity", String.valueOf(config.getTraceCapacity()))));
+        config.setEventLog(props.getProperty("event_log", config.getEventLog()).trim());
+        config.setEventLogRing(Integer.parseInt(
+                props.getProperty("event_log_ring", String.valueOf(config.getEventLogRing()))));
+        config.setProcesses(Integer.parseInt(
+                props.getProperty("processes", String.valueOf(config.getProcesses()))));
+        config.setSharedFile(props.getProperty("shared_file", config.getSharedFile()).trim());
+        return config;
+    }
+
+    // The keys fromProperties reads, e.g. to hand this config to another process
+    public Properties toProperties() {
+        Properties props = new Properties();
+        props.setProperty("execution_mode", executionMode.name());
+        props.setProperty("carrier_threads", String.valueOf(carrierThreads));
+        props.setProperty("waiters_count", String.valueOf(waitersCount));
+        props.setProperty("waiter_queue_depth", String.valueOf(waiterQueueDepth));
+        props.setProperty("waiter_batch_size", String.valueOf(waiterBatchSize));
+        props.setProperty("eat_model", eatModel.name());
+        props.setProperty("eat_nanos", String.valueOf(eatNanos));
+        props.setProperty("think_model", thinkModel.name());
+        props.setProperty("think_nanos", String.valueOf(thinkNanos));
+        profiles.writeTo(props);
+        props.setProperty("fork_strategy", forkStrategy.name());
+        props.setProperty("fork_wait", forkWait.name());
+        props.setProperty("latency_histograms", String.valueOf(latencyHistograms));
+        props.setProperty("fairness_mode", fairnessMode.name());
+        props.setProperty("max_spread", String.valueOf(maxSpread));
+        props.setProperty("shards", String.valueOf(shards));
+        props.setProperty("watchdog_window_ms", String.valueOf(watchdogWindowMillis));
+        props.setProperty("starvation_window_ms", String.valueOf(starvationWindowMillis));
+        props.setProperty("watchdog_abort", String.valueOf(watchdogAbort));
+        props.setProperty("metrics", String.valueOf(metrics));
+        props.setProperty("metrics_port", String.valueOf(metricsPort));
+        props.setProperty("simulate", String.valueOf(simulate));
+        props.setProperty("simulation_seed", String.valueOf(simulationSeed));
+        props.setProperty("trace_file", traceFile);
+        props.setProperty("trace_capacity", String.valueOf(traceCapacity));
+        props.setProperty("event_log", eventLog);
+        props.setProperty("event_log_ring", String.valueOf(eventLogRing));
+        props.setProperty("processes", String.valueOf(processes));
+        props.setProperty("shared_file", sharedFile);
+        return props;
+    }
+
+    public ExecutionMode getExecutionMode() { return executionMode; }
+    public void setExecutionMode(ExecutionMode executionMode) { this.executionMode = executionMode; }
+
+    public int getCarrierThreads() { return carrierThreads; }
+    public void setCarrierThreads(int carrierThreads) { this.carrierThreads = carrierThreads; }
+
+    public int getWaitersCount() { return waitersCount; }
+    public void setWaitersCount(int waitersCount) { this.waitersCount = waitersCount; }
+
+    public int getWaiterQueueDepth() { return waiterQueueDepth; }
+    public void setWaiterQueueDepth(int waiterQueueDepth) { this.waiterQueueDepth = waiterQueueDepth; }
+
+    public int getWaiterBatchSize() { return waiterBatchSize; }
+    public void setWaiterBatchSize(int waiterBatchSize) { this.waiterBatchSize = waiterBatchSize; }
+
+    public WorkModelType getEatModel() { return eatModel; }
+    public void setEatModel(WorkModelType eatModel) { this.eatModel = eatModel; }
+
+    public long getEatNanos() { return eatNanos; }
+    public void setEatNanos(long eatNanos) { this.eatNanos = eatNanos; }
+
+    public WorkModelType getThinkModel() { return thinkModel; }
+    public void setThinkModel(WorkModelType thinkModel) { this.thinkModel = thinkModel; }
+
+    public long getThinkNanos() { return thinkNanos; }
+    public void setThinkNanos(long thinkNanos) { this.thinkNanos = thinkNanos; }
+
+    public ProgrammerProfiles getProfiles() { return profiles; }
+    public void setProfiles(ProgrammerProfiles profiles) { this.profiles = profiles; }
+
+    // The programmer's profile when there are any, the table's settings otherwise
+    public WorkModelType eatModelOf(int programmerId) {
+        return profiles.isEmpty() ? eatModel : profileOf(programmerId).getEatModel();
+    }
+
+    public long eatNanosOf(int programmerId) {
+        return profiles.isEmpty() ? eatNanos : profileOf(programmerId).getEatNanos();
+    }
+
+    private ProgrammerProfile profileOf(int programmerId) {
+        return profiles.get(profiles.indexOf(programmerId));
+    }
+
+    public ForkStrategy getForkStrategy() { return forkStrategy; }
+    public void setForkStrategy(ForkStrategy forkStrategy) { this.forkStrategy = forkStrategy; }
+
+    public WaitMode getForkWait() { return forkWait; }
+    public void setForkWait(WaitMode forkWait) { this.forkWait = forkWait; }
+
+    public boolean isLatencyHistograms() { return latencyHistograms; }
+    public void setLatencyHistograms(boolean latencyHistograms) { this.latencyHistograms = latencyHistograms; }
+
+    public FairnessMode getFairnessMode() { return fairnessMode; }
+    public void setFairnessMode(FairnessMode fairnessMode) { this.fairnessMode = fairnessMode; }
+
+    public int getMaxSpread() { return maxSpread; }
+    public void setMaxSpread(int maxSpread) { this.maxSpread = maxSpread; }
+
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+
+    public long getWatchdogWindowMillis() { return watchdogWindowMillis; }
+    public void setWatchdogWindowMillis(long watchdogWindowMillis) { this.watchdogWindowMillis = watchdogWindowMillis; }
+
+    public long getStarvationWindowMillis() { return starvationWindowMillis; }
+    public void setStarvationWindowMillis(long starvationWindowMillis) { this.starvationWindowMillis = starvationWindowMillis; }
+
+    public boolean isWatchdogAbort() { return watchdogAbort; }
+    public void setWatchdogAbort(boolean watchdogAbort) { this.watchdogAbort = watchdogAbort; }
+
+    public boolean isMetrics() { return metrics; }
+    public void setMetrics(boolean metrics) { this.metrics = metrics; }
+
+    public int getMetricsPort() { return metricsPort; }
+    public void setMetricsPort(int metricsPort) { this.metricsPort = metricsPort; }
+
+    public boolean isSimulate() { return simulate; }
+    public void setSimulate(boolean simulate) { this.simulate = simulate; }
+
+    public long getSimulationSeed() { return simulationSeed; }
+    public void setSimulationSeed(long simulationSeed) { this.simulationSeed = simulationSeed; }
+
+    public String getTraceFile() { return traceFile; }
+    public void setTraceFile(String traceFile) { this.traceFile = traceFile; }
+
+    public int getTraceCapacity() { return traceCapacity; }
+    public void setTraceCapacity(int traceCapacity) { this.traceCapacity = traceCapacity; }
+
+    public String getEventLog() { return eventLog; }
+    public void setEventLog(String eventLog) { this.eventLog = eventLog; }
+
+    public int getEventLogRing() { return eventLogRing; }
+    public void setEventLogRing(int eventLogRing) { this.eventLogRing = eventLogRing; }
+
+    public int getProcesses() { return processes; }
+    public void setProcesses(int processes) { this.processes = processes; }
+
+    public String getSharedFile() { return sharedFile; }
+    public void setSharedFile(String sharedFile) { this.sharedFile = sharedFile; }
+}
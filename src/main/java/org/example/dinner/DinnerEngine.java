@@ -0,0 +1,313 @@
+package org.example.dinner;
+
+import org.example.fairness.FairnessPolicy;
+import org.example.food.FoodDispenser;
+import org.example.fork.ForkTable;
+import org.example.metrics.DinnerMetrics;
+import org.example.metrics.MetricsExporter;
+import org.example.programmer.Programmer;
+import org.example.stats.DinnerStats;
+import org.example.trace.EventLog;
+import org.example.trace.InterleavingTrace;
+import org.example.trace.TraceSink;
+import org.example.waiter.WaiterPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// A table that stays set between dinners: the executor, the waiters, the forks
+// and the programmers are created once and only reset before every serve, so
+// repeated runs measure the dinner and not the thread and object creation
+public class DinnerEngine implements DinnerRunner {
+
+    // Dependencies
+    private final DinnerVerifier verifier = new DinnerVerifier();
+    private final DinnerConfig config;
+    private final int programmersCount;
+    private final ArrayList<Programmer> programmers = new ArrayList<>();
+    private final List<Callable<Object>> tasks = new ArrayList<>();
+    private final List<Future<Object>> running = new ArrayList<>();
+    private final DinnerReport report;
+    private final ForkTable forks;
+    private final FairnessPolicy fairness;
+    private final WaiterPool waiters;
+    private final ExecutorService pool;
+    // Refilled from the caller's counter before every dinner
+    private final AtomicInteger supply;
+    // The thread each programmer runs on, so a stalled dinner can be interrupted
+    private final AtomicReferenceArray<Thread> seated;
+    // Both hold on to this engine, so they are only made by the first start
+    private DinnerWatchdog watchdog;
+    private volatile String abortReason;
+    private final DinnerMetrics metrics;
+    // Only set when this engine owns its metrics
+    private MetricsExporter exporter;
+    // Only recorded by an engine running on its own, shard ids would clash
+    private InterleavingTrace trace;
+    private EventLog eventLog;
+
+    public DinnerEngine(DinnerConfig config, int programmersCount) {
+        this(config, programmersCount, new AtomicInteger(), null,
+                config.isMetrics() ? new DinnerMetrics() : DinnerMetrics.disabled());
+        try {
+            if (metrics.isEnabled()) {
+                metrics.setFoodSource(supply::get);
+                exporter = export(metrics, config);
+            }
+            TraceSink sink = TraceSink.NONE;
+            if (!config.getTraceFile().isEmpty()) {
+                trace = new InterleavingTrace(config.getTraceCapacity());
+                sink = trace;
+            }
+            if (!config.getEventLog().isEmpty()) {
+                eventLog = new EventLog(Path.of(config.getEventLog()), programmersCount, config.getEventLogRing());
+                sink = sink.andThen(eventLog);
+            }
+            for (Programmer programmer : programmers) {
+                programmer.setTrace(sink);
+            }
+        } catch (RuntimeException | Error e) {
+            // The waiters and the pool already run, and nobody gets an engine to close
+            release();
+            throw e;
+        }
+    }
+
+    // A table eating from a shared supply, which hands out its counter, dispenser and metrics
+    DinnerEngine(DinnerConfig config, int programmersCount, AtomicInteger supply, FoodDispenser dispenser,
+                 DinnerMetrics metrics) {
+        this(config, null, 0, programmersCount, supply, dispenser, metrics);
+    }
+
+    // Seats first..first + programmersCount - 1 of a table whose other seats
+    // are served elsewhere, or a table of its own when table is null
+    DinnerEngine(DinnerConfig config, ForkTable table, int first, int programmersCount, AtomicInteger supply,
+                 FoodDispenser dispenser, DinnerMetrics metrics) {
+        if (programmersCount <= 0) {
+            throw new IllegalArgumentException("Amount can't be negative");
+        }
+        this.config = config;
+        this.report = new DinnerReport(config.getProfiles());
+        this.programmersCount = programmersCount;
+        this.supply = supply;
+        this.metrics = metrics;
+        if (dispenser == null) {
+            dispenser = new FoodDispenser(supply, programmersCount);
+        }
+        if (config.getWaitersCount() > 0) {
+            waiters = new WaiterPool(config.getWaitersCount(), config.getWaiterQueueDepth(),
+                    config.getWaiterBatchSize(), dispenser);
+            waiters.start();
+        } else {
+            waiters = null;
+        }
+        fairness = config.getFairnessMode().create(programmersCount, config.getMaxSpread(),
+                config.getProfiles().getWeights());
+        if (table == null) {
+            forks = new ResourceGenerator(config).generate(programmers, programmersCount, dispenser, waiters, fairness);
+        } else {
+            forks = table;
+            new ResourceGenerator(config).generate(programmers, table, first, programmersCount, dispenser, waiters,
+                    fairness);
+        }
+        for (Programmer programmer : programmers) {
+            programmer.setMetrics(metrics);
+        }
+        metrics.addTable(programmers);
+        seated = new AtomicReferenceArray<>(programmersCount);
+        // A fixed pool keeps its platform threads between dinners
+        pool = config.getExecutionMode().newExecutor(programmersCount);
+    }
+
+    // Serves the food in foodCount and leaves what is left in it
+    @Override
+    public DinnerStats serve(AtomicInteger foodCount) throws InterruptedException {
+        // Verifying the values to not run with garbage ones
+        verifier.execute(programmersCount, foodCount);
+        supply.set(foodCount.get());
+        reset();
+        if (trace != null) trace.start(programmersCount, foodCount.get());
+        metrics.startDinner();
+        // Starting dinner
+        long start = System.nanoTime();
+        start();
+        await();
+        long elapsed = System.nanoTime() - start;
+        if (trace != null) {
+            trace.save(config.getTraceFile());
+            System.out.println("Trace: " + trace + " in " + config.getTraceFile());
+        }
+        foodCount.set(supply.get());
+        System.out.println("Dinner is over!");
+        System.out.println("Food amount is " + foodCount);
+        // Counting stats to display
+        report.reset();
+        report.add(programmers);
+        DinnerStats stats = report.toStats(config, elapsed);
+        // Displaying stats
+        report.printCounts();
+        printWaiters();
+        System.out.println(stats);
+        DinnerReport.printClasses(stats);
+        if (config.isLatencyHistograms()) {
+            report.printHistograms();
+        }
+        System.out.println("--------------------------------------------------------------------");
+        return stats;
+    }
+
+    public int getProgrammersCount() { return programmersCount; }
+
+    // Portions the programmer ate in the last dinner, only exact once it is over
+    public int getPortionsEaten(int id) { return programmers.get(id).getPortionsEaten(); }
+    public ForkTable getForks() { return forks; }
+    public DinnerMetrics getMetrics() { return metrics; }
+
+    // Waits for the pool and the waiters to stop
+    @Override
+    public void close() {
+        release();
+    }
+
+    private void release() {
+        if (exporter != null) {
+            exporter.close();
+        }
+        pool.close();
+        if (waiters != null) {
+            try {
+                waiters.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (eventLog != null) {
+            eventLog.close();
+            System.out.println("Event log: " + eventLog.getEvents() + " events, " + eventLog.getDropped()
+                    + " dropped, in " + eventLog.getPath());
+        }
+    }
+
+    static MetricsExporter export(DinnerMetrics metrics, DinnerConfig config) {
+        MetricsExporter exporter = new MetricsExporter(metrics, config.getMetricsPort());
+        try {
+            exporter.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serve metrics on port " + config.getMetricsPort(), e);
+        }
+        return exporter;
+    }
+
+    // Nothing is running here, every programmer finished the previous dinner
+    void reset() {
+        abortReason = null;
+        fairness.reset();
+        if (waiters != null) {
+            waiters.resetStats();
+        }
+        for (Programmer programmer : programmers) {
+            programmer.reset();
+        }
+    }
+
+    // Puts every programmer on the pool without waiting for them
+    void start() {
+        if (tasks.isEmpty()) {
+            wire();
+        }
+        for (Callable<Object> task : tasks) {
+            running.add(pool.submit(task));
+        }
+        if (watchdog != null) {
+            watchdog.start();
+        }
+    }
+
+    // Throws IllegalStateException when the watchdog aborted the dinner
+    void await() throws InterruptedException {
+        try {
+            for (Future<Object> future : running) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Programmer failed", e.getCause());
+                }
+            }
+        } finally {
+            running.clear();
+            if (watchdog != null) {
+                watchdog.stop();
+            }
+        }
+        if (waiters != null) {
+            waiters.endDinner();
+        }
+        if (abortReason != null) {
+            throw new IllegalStateException("Dinner aborted, " + abortReason);
+        }
+    }
+
+    // Hands the engine to the seats and the watchdog, only once it is fully built
+    private void wire() {
+        for (int i = 0; i < programmersCount; i++) {
+            tasks.add(seat(i, programmers.get(i)));
+        }
+        if (config.getWatchdogWindowMillis() > 0) {
+            watchdog = new DinnerWatchdog(programmers, forks,
+                    TimeUnit.MILLISECONDS.toNanos(config.getWatchdogWindowMillis()),
+                    TimeUnit.MILLISECONDS.toNanos(config.getStarvationWindowMillis()),
+                    this::onWatchdog);
+        }
+    }
+
+    // Interrupts every programmer still at the table, the ones not seated yet skip their turn
+    void abort(String reason) {
+        if (abortReason != null) return;
+        abortReason = reason;
+        for (int i = 0; i < seated.length(); i++) {
+            Thread thread = seated.get(i);
+            if (thread != null) thread.interrupt();
+        }
+    }
+
+    private void onWatchdog(String report) {
+        System.out.print(report);
+        if (config.isWatchdogAbort()) {
+            // The first line says why
+            abort(report.substring("Watchdog: ".length(), report.indexOf('\n')));
+        }
+    }
+
+    // Either abort sees the thread here or the programmer sees the abort, never neither
+    private Callable<Object> seat(int index, Programmer programmer) {
+        return () -> {
+            seated.set(index, Thread.currentThread());
+            try {
+                if (abortReason == null) {
+                    programmer.run();
+                }
+            } finally {
+                seated.set(index, null);
+            }
+            return null;
+        };
+    }
+
+    void printWaiters() {
+        if (waiters != null) {
+            waiters.printReport();
+        }
+    }
+
+    ArrayList<Programmer> getProgrammers() { return programmers; }
+}
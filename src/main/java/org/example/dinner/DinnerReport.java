@@ -0,0 +1,165 @@
+package org.example.dinner;
+
+import org.example.programmer.Programmer;
+import org.example.programmer.ProgrammerProfiles;
+import org.example.stats.ClassStats;
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+import org.example.stats.PortionStats;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Adds up the programmers of one or more tables once a dinner is over.
+// Every programmer already folds its meals into its own counter and
+// histograms while eating, so this only merges them: large tables are split
+// into ranges summed on the common fork-join pool, with no boxing anywhere
+class DinnerReport {
+    // Ranges of at most this many programmers are summed on one thread
+    static final int LEAF_SIZE = 4_096;
+
+    private final ProgrammerProfiles profiles;
+    private PortionStats portions;
+    // Portions split by the programmers' profiles
+    private PortionStats[] classes;
+    // Portions of every programmer, sorted to print the distribution
+    private int[] eaten = new int[0];
+    private int size;
+    private LatencyHistogram forkWait;
+    private LatencyHistogram eatTime;
+    private LatencyHistogram foodWait;
+
+    DinnerReport(ProgrammerProfiles profiles) {
+        this.profiles = profiles;
+        reset();
+    }
+
+    // The histograms end up in the stats of the last dinner, so they are new every time
+    void reset() {
+        portions = new PortionStats();
+        classes = profiles.newClassPortions();
+        size = 0;
+        forkWait = new LatencyHistogram();
+        eatTime = new LatencyHistogram();
+        foodWait = new LatencyHistogram();
+    }
+
+    void add(List<Programmer> table) {
+        if (eaten.length < size + table.size()) {
+            eaten = Arrays.copyOf(eaten, size + table.size());
+        }
+        Summary summary = new Summary(table, 0, table.size(), eaten, size, profiles);
+        Summary total = table.size() <= LEAF_SIZE ? summary.compute() : ForkJoinPool.commonPool().invoke(summary);
+        size += table.size();
+        portions.merge(total.portions);
+        for (int i = 0; i < classes.length; i++) {
+            classes[i].merge(total.classes[i]);
+        }
+        forkWait.merge(total.forkWait);
+        eatTime.merge(total.eatTime);
+        foodWait.merge(total.foodWait);
+    }
+
+    PortionStats getPortions() { return portions; }
+
+    DinnerStats toStats(DinnerConfig config, long elapsed) {
+        return new DinnerStats(config.getForkStrategy().name(), config.getFairnessMode().name(),
+                (int) portions.getProgrammers(),
+                portions.getMeals(), elapsed, portions, forkWait, eatTime, foodWait,
+                profiles.classStats(classes, elapsed));
+    }
+
+    // Programmers per amount of portions, least fed first
+    void printCounts() {
+        Arrays.parallelSort(eaten, 0, size);
+        int i = 0;
+        while (i < size) {
+            int portionsEaten = eaten[i];
+            int count = 0;
+            while (i < size && eaten[i] == portionsEaten) {
+                count++;
+                i++;
+            }
+            System.out.println("Portions eaten: " + portionsEaten + ", Count: " + count);
+        }
+        System.out.println("Portions: " + portions);
+    }
+
+    // Throughput and fairness of every priority class, nothing without profiles
+    static void printClasses(DinnerStats stats) {
+        for (ClassStats group : stats.getClasses()) {
+            System.out.println(group);
+        }
+    }
+
+    void printHistograms() {
+        System.out.println("Fork wait: " + forkWait.toPercentileString());
+        System.out.println("Eat time: " + eatTime.toPercentileString());
+        System.out.println("Food wait: " + foodWait.toPercentileString());
+    }
+
+    // Sums programmers [from, to) of a table and copies their portions to eaten[offset..].
+    // Never serialized, RecursiveTask only happens to be Serializable
+    @SuppressWarnings("serial")
+    private static final class Summary extends RecursiveTask<Summary> {
+        private final List<Programmer> table;
+        private final int from;
+        private final int to;
+        private final int[] eaten;
+        private final int offset;
+        private final ProgrammerProfiles profiles;
+        private final PortionStats portions = new PortionStats();
+        private final PortionStats[] classes;
+        private final LatencyHistogram forkWait = new LatencyHistogram();
+        private final LatencyHistogram eatTime = new LatencyHistogram();
+        private final LatencyHistogram foodWait = new LatencyHistogram();
+
+        Summary(List<Programmer> table, int from, int to, int[] eaten, int offset, ProgrammerProfiles profiles) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.eaten = eaten;
+            this.offset = offset;
+            this.profiles = profiles;
+            this.classes = profiles.newClassPortions();
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                Summary left = new Summary(table, from, middle, eaten, offset, profiles);
+                Summary right = new Summary(table, middle, to, eaten, offset + middle - from, profiles);
+                left.fork();
+                right.compute();
+                left.join();
+                merge(left);
+                merge(right);
+                return this;
+            }
+            for (int i = from; i < to; i++) {
+                Programmer programmer = table.get(i);
+                int portionsEaten = programmer.getPortionsEaten();
+                eaten[offset + i - from] = portionsEaten;
+                portions.add(portionsEaten);
+                classes[profiles.indexOf(programmer.getProgId())].add(portionsEaten);
+                forkWait.merge(programmer.getForkWait());
+                eatTime.merge(programmer.getEatTime());
+                foodWait.merge(programmer.getFoodWait());
+            }
+            return this;
+        }
+
+        private void merge(Summary other) {
+            portions.merge(other.portions);
+            for (int i = 0; i < classes.length; i++) {
+                classes[i].merge(other.classes[i]);
+            }
+            forkWait.merge(other.forkWait);
+            eatTime.merge(other.eatTime);
+            foodWait.merge(other.foodWait);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.dinner;
+
+import org.example.sim.DinnerSimulation;
+import org.example.stats.DinnerStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Serves dinner after dinner to the same programmers
+public interface DinnerRunner extends AutoCloseable {
+
+    // Serves the food in foodCount and leaves what is left in it
+    DinnerStats serve(AtomicInteger foodCount) throws InterruptedException;
+
+    @Override
+    void close();
+
+    static DinnerRunner open(DinnerConfig config, int programmersCount) {
+        if (config.isSimulate()) {
+            return new DinnerSimulation(config, programmersCount, config.getSimulationSeed());
+        }
+        if (config.getExecutionMode() == ExecutionMode.ASYNC) {
+            if (config.getShards() > 1 || config.getProcesses() > 1) {
+                throw new IllegalArgumentException("Async dinners are served on one table");
+            }
+            return new AsyncDinner(config, programmersCount);
+        }
+        if (config.getProcesses() > 1) {
+            if (config.getShards() > 1) {
+                throw new IllegalArgumentException("Shared dinners are served on one table");
+            }
+            return new SharedDinner(config, programmersCount);
+        }
+        if (config.getShards() > 1) {
+            return new ShardedDinner(config, programmersCount);
+        }
+        return new DinnerEngine(config, programmersCount);
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.dinner;
+
+import org.example.fork.Fork;
+import org.example.fork.ForkTable;
+import org.example.programmer.Activity;
+import org.example.programmer.Programmer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Samples the progress of every programmer from its own thread while a dinner
+// runs. Fires when no meal was finished within the stall window or when a
+// programmer has not eaten within the starvation window, handing a dump of
+// the table to the listener. Only reads opaque counters, never locks anything
+public class DinnerWatchdog implements Runnable {
+    // Keeps a dump of a million seats readable
+    private static final int MAX_LINES = 32;
+
+    private final List<Programmer> programmers;
+    private final ForkTable forks;
+    private final long stallNanos;
+    private final long starvationNanos;
+    private final Consumer<String> listener;
+    // Last count seen per programmer and when it last changed
+    private final int[] lastEaten;
+    private final long[] lastProgressAt;
+    private final int[] starving = new int[MAX_LINES];
+
+    private volatile boolean stopped;
+    private Thread thread;
+
+    public DinnerWatchdog(List<Programmer> programmers, ForkTable forks,
+                          long stallNanos, long starvationNanos, Consumer<String> listener) {
+        if (stallNanos <= 0) {
+            throw new IllegalArgumentException("Stall window must be positive");
+        }
+        this.programmers = programmers;
+        this.forks = forks;
+        this.stallNanos = stallNanos;
+        this.starvationNanos = starvationNanos;
+        this.listener = listener;
+        this.lastEaten = new int[programmers.size()];
+        this.lastProgressAt = new long[programmers.size()];
+    }
+
+    public void start() {
+        stopped = false;
+        thread = new Thread(this, "dinner-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        stopped = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long window = starvationNanos > 0 ? Math.min(stallNanos, starvationNanos) : stallNanos;
+        long sampleNanos = Math.max(window / 4, TimeUnit.MILLISECONDS.toNanos(1));
+        long now = System.nanoTime();
+        for (int i = 0; i < lastEaten.length; i++) {
+            lastEaten[i] = programmers.get(i).getPortionsEaten();
+            lastProgressAt[i] = now;
+        }
+        long lastTotal = -1;
+        long lastTotalAt = now;
+        while (!stopped) {
+            LockSupport.parkNanos(this, sampleNanos);
+            if (stopped) break;
+            now = System.nanoTime();
+            long total = 0;
+            int active = 0;
+            int starvingCount = 0;
+            for (int i = 0; i < lastEaten.length; i++) {
+                Programmer programmer = programmers.get(i);
+                int eaten = programmer.getPortionsEaten();
+                total += eaten;
+                if (programmer.getActivity() == Activity.DONE) continue;
+                active++;
+                if (eaten != lastEaten[i]) {
+                    lastEaten[i] = eaten;
+                    lastProgressAt[i] = now;
+                } else if (starvationNanos > 0 && now - lastProgressAt[i] >= starvationNanos) {
+                    if (starvingCount < starving.length) starving[starvingCount] = i;
+                    starvingCount++;
+                    // Reported once per window, not on every sample
+                    lastProgressAt[i] = now;
+                }
+            }
+            if (active == 0) continue;
+            if (total != lastTotal) {
+                lastTotal = total;
+                lastTotalAt = now;
+            } else if (now - lastTotalAt >= stallNanos) {
+                lastTotalAt = now;
+                listener.accept(dump("no meal finished in " + TimeUnit.NANOSECONDS.toMillis(stallNanos) + " ms",
+                        total, active, 0));
+                continue;
+            }
+            if (starvingCount > 0) {
+                listener.accept(dump(starvingCount + " programmer(s) did not eat in "
+                                + TimeUnit.NANOSECONDS.toMillis(starvationNanos) + " ms",
+                        total, active, starvingCount));
+            }
+        }
+    }
+
+    // First line is the reason, then who holds which fork and who is starving
+    String dump(String reason, long total, int active, int starvingCount) {
+        StringBuilder out = new StringBuilder();
+        out.append("Watchdog: ").append(reason).append('\n');
+        out.append("Meals so far: ").append(total)
+                .append(", programmers still at the table: ").append(active)
+                .append(", free forks: ").append(forks.freeCount()).append(" of ").append(forks.size())
+                .append('\n');
+        int lines = 0;
+        int held = 0;
+        for (int i = 0; i < forks.size(); i++) {
+            int owner = forks.ownerOf(i);
+            if (owner == Fork.FREE) continue;
+            held++;
+            if (lines++ < MAX_LINES) {
+                out.append("  Fork ").append(i).append(" held by programmer ").append(owner);
+                // Ids start at the first programmer's, the table may be shared with other processes
+                int index = owner - programmers.get(0).getProgId();
+                if (index >= 0 && index < programmers.size()) {
+                    out.append(" (").append(programmers.get(index).getActivity()).append(')');
+                }
+                out.append('\n');
+            }
+        }
+        if (held > MAX_LINES) {
+            out.append("  ... and ").append(held - MAX_LINES).append(" more held forks\n");
+        }
+        for (int i = 0; i < Math.min(starvingCount, starving.length); i++) {
+            Programmer programmer = programmers.get(starving[i]);
+            out.append("  Programmer ").append(programmer.getProgId())
+                    .append(" starving: ").append(programmer.getActivity())
+                    .append(", eaten ").append(programmer.getPortionsEaten()).append('\n');
+        }
+        if (starvingCount > starving.length) {
+            out.append("  ... and ").append(starvingCount - starving.length).append(" more starving\n");
+        }
+        return out.toString();
+    }
+}
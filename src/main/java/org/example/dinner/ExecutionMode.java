@@ -0,0 +1,42 @@
+package org.example.dinner;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// How programmer threads are created for a dinner
+public enum ExecutionMode {
+    // One platform thread per programmer (the original behaviour)
+    PLATFORM,
+    // One virtual thread per programmer on the default carrier pool
+    VIRTUAL,
+    // One virtual thread per programmer, carriers limited by configureCarriers
+    VIRTUAL_BOUNDED,
+    // No thread per programmer: continuations on carrier_threads pool threads, see AsyncDinner
+    ASYNC;
+
+    public ExecutorService newExecutor(int programmersCount) {
+        if (this == ASYNC) {
+            throw new IllegalStateException("Async dinners drive their programmers on their own pool");
+        }
+        if (this == PLATFORM) {
+            return Executors.newFixedThreadPool(programmersCount);
+        }
+        // Both virtual modes use the same factory, the carrier limit is JVM-wide
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("programmer-", 0).factory());
+    }
+
+    // The virtual thread scheduler reads these properties once, when the first
+    // virtual thread is started, so this must be called before any dinner runs
+    public static void configureCarriers(int carrierThreads) {
+        if (carrierThreads <= 0) {
+            throw new IllegalArgumentException("Carrier threads amount must be positive");
+        }
+        System.setProperty("jdk.virtualThreadScheduler.parallelism", String.valueOf(carrierThreads));
+        System.setProperty("jdk.virtualThreadScheduler.maxPoolSize", String.valueOf(carrierThreads));
+    }
+
+    public static ExecutionMode parse(String value) {
+        return ExecutionMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
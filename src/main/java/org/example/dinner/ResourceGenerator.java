@@ -1,29 +1,96 @@
 package org.example.dinner;
 
+import org.example.fairness.FairnessPolicy;
+import org.example.food.FoodDispenser;
+import org.example.food.FoodSource;
 import org.example.programmer.Programmer;
-import org.example.fork.Fork;
+import org.example.programmer.ProgrammerProfiles;
+import org.example.programmer.WorkModel;
+import org.example.fork.ForkAcquisitionStrategy;
+import org.example.fork.ForkTable;
+import org.example.waiter.WaiterPool;
 
 import java.util.ArrayList;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ResourceGenerator {
-    public void generate(
+    private final DinnerConfig config;
+
+    public ResourceGenerator() {
+        this(new DinnerConfig());
+    }
+
+    public ResourceGenerator(DinnerConfig config) {
+        this.config = config;
+    }
+
+    public ForkTable generate(
             ArrayList<Programmer> programmers,
-            BlockingQueue<Fork> forks,
             int amount,
             AtomicInteger foodAmount
     ) {
-        Semaphore availableForks = new Semaphore(amount, true);
-        // Generating the N amount of forks
-        for (int i = 0; i < amount; i++) {
-            forks.add(new Fork(i));
+        // One supply for everybody, handed out in batches
+        return generate(programmers, amount, new FoodDispenser(foodAmount, amount), null);
+    }
+
+    // Without waiters programmers serve themselves from the dispenser
+    public ForkTable generate(
+            ArrayList<Programmer> programmers,
+            int amount,
+            FoodDispenser dispenser,
+            WaiterPool waiters
+    ) {
+        FairnessPolicy fairness = config.getFairnessMode().create(amount, config.getMaxSpread(),
+                config.getProfiles().getWeights());
+        return generate(programmers, amount, dispenser, waiters, fairness);
+    }
+
+    // The caller keeps the fairness policy, e.g. to reset it between dinners
+    public ForkTable generate(
+            ArrayList<Programmer> programmers,
+            int amount,
+            FoodDispenser dispenser,
+            WaiterPool waiters,
+            FairnessPolicy fairness
+    ) {
+        // Generating the N amount of forks, one between each pair of seats
+        ForkTable forks = new ForkTable(amount);
+        generate(programmers, forks, 0, amount, dispenser, waiters, fairness);
+        return forks;
+    }
+
+    // Programmers first..first + amount - 1 of a table that may be larger,
+    // the rest of it being seated somewhere else, e.g. in another process
+    public void generate(
+            ArrayList<Programmer> programmers,
+            ForkTable forks,
+            int first,
+            int amount,
+            FoodDispenser dispenser,
+            WaiterPool waiters,
+            FairnessPolicy fairness
+    ) {
+        // Everybody at the table follows the same rules to take them
+        ForkAcquisitionStrategy strategy = config.getForkStrategy().create(forks, config.getForkWait().create());
+        // Work models keep no per-programmer state, so they are shared, one
+        // eat model per profile
+        ProgrammerProfiles profiles = config.getProfiles();
+        WorkModel[] eatModels = new WorkModel[Math.max(1, profiles.size())];
+        for (int i = 0; i < eatModels.length; i++) {
+            eatModels[i] = profiles.isEmpty()
+                    ? config.getEatModel().create(config.getEatNanos())
+                    : profiles.get(i).getEatModel().create(profiles.get(i).getEatNanos());
         }
+        WorkModel thinkModel = config.getThinkModel().create(config.getThinkNanos());
         // The same amount of programmers
         for (int i = 0; i < amount; i++) {
-            programmers.add(new Programmer(i, forks, foodAmount, availableForks));
+            FoodSource source = waiters == null ? dispenser : waiters.clientFor(first + i);
+            Programmer programmer = new Programmer(first + i, strategy, source);
+            programmer.setEatModel(eatModels[profiles.indexOf(first + i)]);
+            programmer.setThinkModel(thinkModel);
+            programmer.setFairness(fairness);
+            programmer.setLatencyHistograms(config.isLatencyHistograms());
+            programmers.add(programmer);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package org.example.dinner;
+
+import org.example.food.ShardedFood;
+import org.example.metrics.DinnerMetrics;
+import org.example.metrics.MetricsExporter;
+import org.example.stats.DinnerStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Programmers split into independent tables: every table has its own forks,
+// food counter, waiters and executor, so tables only meet when one runs out
+// of food and steals from another. Programmer ids restart at 0 on every table
+public class ShardedDinner implements DinnerRunner {
+
+    // Dependencies
+    private final DinnerVerifier verifier = new DinnerVerifier();
+    private final DinnerConfig config;
+    private final int programmersCount;
+    private final ShardedFood food;
+    private final DinnerEngine[] tables;
+    private final int[] tableSizes;
+    private final DinnerReport report;
+    // Every table counts into the same metrics
+    private final DinnerMetrics metrics;
+    private MetricsExporter exporter;
+
+    public ShardedDinner(DinnerConfig config, int programmersCount) {
+        int shards = config.getShards();
+        if (shards <= 0 || programmersCount < shards) {
+            throw new IllegalArgumentException("Every shard needs at least one programmer");
+        }
+        // Ids restart on every table, so their records would be mixed up
+        if (!config.getTraceFile().isEmpty()) {
+            throw new IllegalArgumentException("Traces are only recorded on a single table, not with shards");
+        }
+        if (!config.getEventLog().isEmpty()) {
+            throw new IllegalArgumentException("Event logs are only written on a single table, not with shards");
+        }
+        this.config = config;
+        this.report = new DinnerReport(config.getProfiles());
+        this.programmersCount = programmersCount;
+        this.food = new ShardedFood(shards);
+        this.tables = new DinnerEngine[shards];
+        this.tableSizes = new int[shards];
+        this.metrics = config.isMetrics() ? new DinnerMetrics() : DinnerMetrics.disabled();
+        for (int i = 0; i < shards; i++) {
+            // Sizes differ by one at most
+            tableSizes[i] = programmersCount / shards + (i < programmersCount % shards ? 1 : 0);
+            tables[i] = new DinnerEngine(config, tableSizes[i], food.supplyOf(i),
+                    food.dispenserFor(i, tableSizes[i]), metrics);
+        }
+        if (metrics.isEnabled()) {
+            metrics.setFoodSource(food::remaining);
+            exporter = DinnerEngine.export(metrics, config);
+        }
+    }
+
+    @Override
+    public DinnerStats serve(AtomicInteger foodCount) throws InterruptedException {
+        // Verifying the values to not run with garbage ones
+        verifier.execute(programmersCount, foodCount);
+        food.distribute(foodCount.get(), tableSizes);
+        for (DinnerEngine table : tables) {
+            table.reset();
+        }
+        metrics.startDinner();
+        // Starting dinner on every table at once
+        long start = System.nanoTime();
+        for (DinnerEngine table : tables) {
+            table.start();
+        }
+        // A table the watchdog gave up on takes the others down with it
+        IllegalStateException failure = null;
+        for (DinnerEngine table : tables) {
+            try {
+                table.await();
+            } catch (IllegalStateException e) {
+                if (failure == null) {
+                    failure = e;
+                    for (DinnerEngine other : tables) {
+                        other.abort(e.getMessage());
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        long elapsed = System.nanoTime() - start;
+        foodCount.set(food.remaining());
+        System.out.println("Dinner is over!");
+        System.out.println("Food amount is " + foodCount);
+        // Counting stats to display
+        report.reset();
+        for (DinnerEngine table : tables) {
+            report.add(table.getProgrammers());
+        }
+        DinnerStats stats = report.toStats(config, elapsed);
+        // Displaying stats
+        report.printCounts();
+        for (DinnerEngine table : tables) {
+            table.printWaiters();
+        }
+        System.out.printf("Shards: %d, steals=%d, stolen portions=%d%n",
+                tables.length, food.getSteals(), food.getStolenPortions());
+        System.out.println(stats);
+        DinnerReport.printClasses(stats);
+        if (config.isLatencyHistograms()) {
+            report.printHistograms();
+        }
+        System.out.println("--------------------------------------------------------------------");
+        return stats;
+    }
+
+    public int getShards() { return tables.length; }
+    public long getSteals() { return food.getSteals(); }
+
+    @Override
+    public void close() {
+        if (exporter != null) {
+            exporter.close();
+        }
+        for (DinnerEngine table : tables) {
+            table.close();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.dinner;
+
+import org.example.food.SharedSupply;
+import org.example.fork.ForkStrategy;
+import org.example.fork.WaitMode;
+import org.example.metrics.DinnerMetrics;
+import org.example.programmer.Programmer;
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+import org.example.stats.PortionStats;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One table served by several JVMs on this host. The forks and the food
+// counter live in a memory-mapped SharedTableFile; every dinner starts
+// `processes` worker JVMs, each seating its slice of the programmers on a
+// DinnerEngine over that shared table, and adds up what they wrote back once
+// they are all gone. Fairness, waiters and the watchdog only see the
+// programmers of their own process; metrics, traces and event logs are off
+// in the workers, their ids and ports would clash
+public class SharedDinner implements DinnerRunner {
+
+    // How long a worker waits for the others to get to the start line
+    static final long START_TIMEOUT_SECONDS = 60;
+
+    // Dependencies
+    private final DinnerVerifier verifier = new DinnerVerifier();
+    private final DinnerConfig config;
+    private final int programmersCount;
+    private final int processes;
+    private final Path file;
+    private final Path workerConfig;
+    private final boolean temporary;
+
+    public SharedDinner(DinnerConfig config, int programmersCount) {
+        processes = config.getProcesses();
+        if (processes <= 0 || programmersCount < processes) {
+            throw new IllegalArgumentException("Every process needs at least one programmer");
+        }
+        // Only the owner words are mapped: whatever else a strategy or a parking
+        // waiter coordinates through stays in one JVM and never sees the others
+        if (config.getForkStrategy() != ForkStrategy.ORDERED || config.getForkWait() == WaitMode.PARK) {
+            throw new IllegalArgumentException("Shared dinners take forks in order and never park without "
+                    + "a timeout, use fork_strategy=ordered and a fork_wait other than park");
+        }
+        this.config = config;
+        this.programmersCount = programmersCount;
+        DinnerConfig worker = DinnerConfig.fromProperties(config.toProperties());
+        worker.setProcesses(1);
+        worker.setMetrics(false);
+        worker.setTraceFile("");
+        worker.setEventLog("");
+        try {
+            temporary = config.getSharedFile().isEmpty();
+            file = temporary ? Files.createTempFile("shared-dinner", ".table") : Path.of(config.getSharedFile());
+            workerConfig = file.resolveSibling(file.getFileName() + ".properties");
+            try (OutputStream out = Files.newOutputStream(workerConfig)) {
+                worker.toProperties().store(out, "Worker config of the shared dinner in " + file.getFileName());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not set up the shared table", e);
+        }
+    }
+
+    @Override
+    public DinnerStats serve(AtomicInteger foodCount) throws InterruptedException {
+        // Verifying the values to not run with garbage ones
+        verifier.execute(programmersCount, foodCount);
+        SharedTableFile.create(file, programmersCount, processes, foodCount.get()).close();
+        List<Process> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < processes; i++) {
+                workers.add(launch(i));
+            }
+            awaitWorkers(workers);
+        } finally {
+            // Whoever is left would wait for the failed one forever
+            for (Process worker : workers) {
+                worker.destroyForcibly();
+            }
+        }
+
+        DinnerStats stats;
+        try (SharedTableFile table = SharedTableFile.open(file)) {
+            stats = collect(table);
+            foodCount.set(table.getFood().remaining());
+        }
+        System.out.println("Dinner is over!");
+        System.out.println("Food amount is " + foodCount);
+        System.out.println("Portions: " + stats.getPortions());
+        System.out.println("Processes: " + processes + ", worker logs in " + logOf(0).getParent());
+        System.out.println(stats);
+        DinnerReport.printClasses(stats);
+        if (config.isLatencyHistograms()) {
+            System.out.println("Fork wait: " + stats.getForkWait().toPercentileString());
+            System.out.println("Eat time: " + stats.getEatTime().toPercentileString());
+            System.out.println("Food wait: " + stats.getFoodWait().toPercentileString());
+        }
+        System.out.println("--------------------------------------------------------------------");
+        return stats;
+    }
+
+    public int getProcesses() { return processes; }
+    public Path getFile() { return file; }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(workerConfig);
+            if (temporary) {
+                Files.deleteIfExists(file);
+                for (int i = 0; i < processes; i++) {
+                    Files.deleteIfExists(logOf(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clean the shared table up", e);
+        }
+    }
+
+    // The slowest process sets the time, the rest is summed over all of them
+    private DinnerStats collect(SharedTableFile table) {
+        int[] eaten = table.readEaten();
+        PortionStats portions = PortionStats.of(eaten);
+        LatencyHistogram forkWait = new LatencyHistogram();
+        LatencyHistogram eatTime = new LatencyHistogram();
+        LatencyHistogram foodWait = new LatencyHistogram();
+        long elapsed = 0;
+        for (int i = 0; i < processes; i++) {
+            elapsed = Math.max(elapsed, table.readElapsed(i));
+            LatencyHistogram[] recorded = table.readHistograms(i);
+            forkWait.merge(recorded[0]);
+            eatTime.merge(recorded[1]);
+            foodWait.merge(recorded[2]);
+        }
+        return new DinnerStats(config.getForkStrategy().name(), config.getFairnessMode().name(), programmersCount,
+                portions.getMeals(), elapsed, portions, forkWait, eatTime, foodWait,
+                config.getProfiles().classStats(eaten, 0, elapsed));
+    }
+
+    // Fails as soon as any worker does, not only once the ones before it are done
+    private void awaitWorkers(List<Process> workers) throws InterruptedException {
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (int i = 0; i < workers.size(); i++) {
+                Process worker = workers.get(i);
+                if (worker.isAlive()) {
+                    running = true;
+                } else if (worker.exitValue() != 0) {
+                    throw new IllegalStateException("Worker " + i + " failed (exit " + worker.exitValue()
+                            + "), see " + logOf(i));
+                }
+            }
+            if (running) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private Process launch(int process) {
+        String java = System.getProperty("java.home") + "/bin/java";
+        ProcessBuilder builder = new ProcessBuilder(
+                java,
+                "-cp", System.getProperty("java.class.path"),
+                "org.example.app.SharedDinnerWorker",
+                file.toString(), workerConfig.toString(), String.valueOf(process));
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(logOf(process).toFile());
+        try {
+            return builder.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start worker " + process, e);
+        }
+    }
+
+    private Path logOf(int process) {
+        return file.resolveSibling(file.getFileName() + ".worker-" + process + ".log");
+    }
+
+    // Runs in a worker JVM: seats the process's slice of the table, eats until
+    // the shared food is over and leaves its counts and histograms in the file
+    public static void work(Path file, DinnerConfig config, int process) throws InterruptedException {
+        try (SharedTableFile table = SharedTableFile.open(file)) {
+            if (process < 0 || process >= table.getProcesses()) {
+                throw new IllegalArgumentException("No process " + process + " at this table");
+            }
+            int first = table.firstSeatOf(process);
+            int count = table.firstSeatOf(process + 1) - first;
+            SharedSupply food = table.getFood();
+            // This process's counter, refilled from the shared one when it runs dry
+            AtomicInteger local = new AtomicInteger();
+            DinnerEngine engine = new DinnerEngine(config, table.getForks(), first, count, local,
+                    food.dispenserFor(local, count), DinnerMetrics.disabled());
+            try {
+                engine.reset();
+                if (!table.arriveAndAwait(START_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Not every worker started within "
+                            + START_TIMEOUT_SECONDS + " s");
+                }
+                long start = System.nanoTime();
+                engine.start();
+                engine.await();
+                long elapsed = System.nanoTime() - start;
+                food.giveBack(local.getAndSet(0));
+
+                DinnerReport report = new DinnerReport(config.getProfiles());
+                report.add(engine.getProgrammers());
+                DinnerStats stats = report.toStats(config, elapsed);
+                for (Programmer programmer : engine.getProgrammers()) {
+                    table.writeEaten(programmer.getProgId(), programmer.getPortionsEaten());
+                }
+                table.writeResult(process, elapsed, stats.getForkWait(), stats.getEatTime(), stats.getFoodWait());
+                System.out.println("Worker " + process + ": programmers " + first + ".." + (first + count - 1));
+                report.printCounts();
+                engine.printWaiters();
+                System.out.println(stats);
+                DinnerReport.printClasses(stats);
+            } finally {
+                engine.close();
+            }
+        }
+    }
+}
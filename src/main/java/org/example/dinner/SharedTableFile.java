@@ -0,0 +1,184 @@
+package org.example.dinner;
+
+import org.example.food.SharedSupply;
+import org.example.fork.ForkTable;
+import org.example.stats.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// The state worker processes of one dinner share through a mapped file:
+//   header     magic, version, seats, processes, food served
+//   line 1     food left, the counter behind every process's SharedSupply
+//   line 2     processes at the start line
+//   forks      a ForkTable, one owner word per fork
+//   eaten      portions per seat, written by the seat's process once it is done
+//   results    per process: elapsed nanos and fork wait, eat time and food wait
+// Words written by several processes at once get a cache line of their own
+// and are only touched through atomic VarHandle operations
+final class SharedTableFile implements AutoCloseable {
+    static final int MAGIC = 0x53444E52;
+    static final int VERSION = 1;
+
+    private static final int LINE = 64;
+    private static final int FOOD_LEFT = LINE;
+    private static final int ARRIVED = 2 * LINE;
+    private static final int FORKS = 3 * LINE;
+    private static final int RESULT_BYTES = align(Long.BYTES + 3 * LatencyHistogram.BYTES);
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int seats;
+    private final int processes;
+    private final int eatenAt;
+    private final int resultsAt;
+    private final ForkTable forks;
+    private final SharedSupply food;
+
+    private SharedTableFile(FileChannel channel, MappedByteBuffer buffer, int seats, int processes) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.seats = seats;
+        this.processes = processes;
+        this.eatenAt = FORKS + align(ForkTable.bytesFor(seats));
+        this.resultsAt = eatenAt + align(seats * Integer.BYTES);
+        this.forks = new ForkTable(buffer, FORKS, seats);
+        this.food = new SharedSupply(buffer, FOOD_LEFT, processes);
+    }
+
+    // Overwrites whatever is at path with a table where all forks are free
+    static SharedTableFile create(Path path, int seats, int processes, int food) {
+        long size = sizeOf(seats, processes);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A shared table of " + seats + " seats does not fit one mapping");
+        }
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, seats).putInt(12, processes).putInt(16, food);
+            SharedTableFile table = new SharedTableFile(channel, buffer, seats, processes);
+            table.forks.reset();
+            table.food.set(food);
+            WORDS.setVolatile(buffer, ARRIVED, 0);
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create shared table " + path, e);
+        }
+    }
+
+    static SharedTableFile open(Path path) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            if (channel.size() < FORKS || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                channel.close();
+                throw new IllegalArgumentException(path + " is not a shared table");
+            }
+            int seats = buffer.getInt(8);
+            int processes = buffer.getInt(12);
+            if (channel.size() != sizeOf(seats, processes)) {
+                channel.close();
+                throw new IllegalArgumentException(path + " is cut short");
+            }
+            return new SharedTableFile(channel, buffer, seats, processes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open shared table " + path, e);
+        }
+    }
+
+    static long sizeOf(int seats, int processes) {
+        return FORKS + align(ForkTable.bytesFor(seats)) + align((long) seats * Integer.BYTES)
+                + (long) processes * RESULT_BYTES;
+    }
+
+    int getSeats() { return seats; }
+    int getProcesses() { return processes; }
+    int getFoodServed() { return buffer.getInt(16); }
+    ForkTable getForks() { return forks; }
+    SharedSupply getFood() { return food; }
+
+    // First seat of a process, the slices differ by one seat at most
+    int firstSeatOf(int process) {
+        return (int) ((long) seats * process / processes);
+    }
+
+    // Waits until every process got here, false if that took longer than timeout
+    boolean arriveAndAwait(long timeout, TimeUnit unit) {
+        WORDS.getAndAdd(buffer, ARRIVED, 1);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while ((int) WORDS.getVolatile(buffer, ARRIVED) < processes) {
+            if (System.nanoTime() - deadline > 0) return false;
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    void writeEaten(int seat, int portions) {
+        buffer.putInt(eatenAt + seat * Integer.BYTES, portions);
+    }
+
+    int[] readEaten() {
+        int[] eaten = new int[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            eaten[seat] = buffer.getInt(eatenAt + seat * Integer.BYTES);
+        }
+        return eaten;
+    }
+
+    void writeResult(int process, long elapsed, LatencyHistogram forkWait, LatencyHistogram eatTime,
+                     LatencyHistogram foodWait) {
+        ByteBuffer out = result(process);
+        out.putLong(elapsed);
+        forkWait.writeTo(out);
+        eatTime.writeTo(out);
+        foodWait.writeTo(out);
+    }
+
+    long readElapsed(int process) {
+        return result(process).getLong();
+    }
+
+    // Fork wait, eat time and food wait of the process
+    LatencyHistogram[] readHistograms(int process) {
+        ByteBuffer in = result(process);
+        in.getLong();
+        return new LatencyHistogram[] {
+                LatencyHistogram.readFrom(in), LatencyHistogram.readFrom(in), LatencyHistogram.readFrom(in)};
+    }
+
+    // The mapping itself goes with the buffer, once nothing refers to it
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the shared table", e);
+        }
+    }
+
+    private ByteBuffer result(int process) {
+        return buffer.slice(resultsAt + process * RESULT_BYTES, RESULT_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private static int align(int bytes) {
+        return (bytes + LINE - 1) / LINE * LINE;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + LINE - 1) / LINE * LINE;
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.fairness;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Nobody may get more than maxSpread meals ahead of the least fed programmer
+// still at the table. The fast path is one volatile read of a cached floor
+// and one release store into the programmer's own padded counter; the table
+// is only scanned by a programmer that hit the bound, one scanner at a time.
+// Once the food is over, leftovers reserved by others can add one meal more.
+// With weights it is a weighted-fair scheduler: a meal counts 1/weight, so
+// counts are kept in units of lcm(weights) and a programmer of weight w may
+// run maxSpread * w meals ahead, which divides the food in proportion to weight
+public class BoundedSpreadPolicy implements FairnessPolicy {
+    // Longs per 64 byte cache line, so neighbours never share one
+    private static final int PADDING = 8;
+    private static final long LEFT = Long.MAX_VALUE;
+    private static final long PARK_NANOS = 20_000;
+    // Keeps lcm(weights) * meals far from overflowing
+    static final long MAX_UNIT = 1 << 20;
+
+    private static final VarHandle FLOOR;
+
+    static {
+        try {
+            FLOOR = MethodHandles.lookup().findVarHandle(BoundedSpreadPolicy.class, "floor", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int programmers;
+    // In units, maxSpread meals of a weight 1 programmer
+    private final long spread;
+    // Units per meal, by programmer id around the table; null when unweighted
+    private final long[] units;
+    private final AtomicLongArray eaten;
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    // Never above the real minimum, only ever grows
+    private volatile long floor;
+
+    public BoundedSpreadPolicy(int programmers, int maxSpread) {
+        this(programmers, maxSpread, null);
+    }
+
+    // weights[i % weights.length] is the weight of programmer i, so a short
+    // pattern repeats around the table; null weighs everybody the same
+    public BoundedSpreadPolicy(int programmers, int maxSpread, int[] weights) {
+        if (programmers <= 0 || maxSpread <= 0) {
+            throw new IllegalArgumentException("Programmers and max spread must be positive");
+        }
+        this.programmers = programmers;
+        this.units = weights == null ? null : mealUnits(weights);
+        this.spread = units == null ? maxSpread : maxSpread * units[0] * weights[0];
+        this.eaten = new AtomicLongArray(programmers * PADDING);
+    }
+
+    // lcm(weights) / weight for every weight
+    public static long[] mealUnits(int[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("Need at least one weight");
+        }
+        long lcm = 1;
+        for (int weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weights must be positive");
+            }
+            lcm = lcm / gcd(lcm, weight) * weight;
+            if (lcm > MAX_UNIT) {
+                throw new IllegalArgumentException("Weights too far apart, their lcm is above " + MAX_UNIT);
+            }
+        }
+        long[] units = new long[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            units[i] = lcm / weights[i];
+        }
+        return units;
+    }
+
+    @Override
+    public boolean mayEat(int programmerId, int eaten) {
+        return units(programmerId, eaten) < floor + spread;
+    }
+
+    @Override
+    public void awaitTurn(int programmerId, int eaten) throws InterruptedException {
+        while (!mayEat(programmerId, eaten)) {
+            rescan();
+            if (mayEat(programmerId, eaten)) return;
+            LockSupport.parkNanos(this, PARK_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    // Always scans, even while somebody else does: a caller that gives up here
+    // relies on seeing every count published before it asked
+    @Override
+    public boolean tryTurn(int programmerId, int eaten) {
+        if (mayEat(programmerId, eaten)) return true;
+        raiseFloor(scan());
+        return mayEat(programmerId, eaten);
+    }
+
+    @Override
+    public void ate(int programmerId, int eaten) {
+        this.eaten.setRelease(slot(programmerId), units(programmerId, eaten));
+    }
+
+    @Override
+    public void leave(int programmerId) {
+        eaten.setRelease(slot(programmerId), LEFT);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < programmers; i++) {
+            eaten.set(i * PADDING, 0);
+        }
+        floor = 0;
+    }
+
+    // In meals when unweighted, in units of 1/lcm(weights) meals otherwise
+    public long getFloor() { return floor; }
+
+    private void rescan() {
+        if (!scanning.compareAndSet(false, true)) return;
+        try {
+            raiseFloor(scan());
+        } finally {
+            scanning.set(false);
+        }
+    }
+
+    private long scan() {
+        long min = LEFT;
+        for (int i = 0; i < programmers; i++) {
+            min = Math.min(min, eaten.getAcquire(i * PADDING));
+        }
+        return min;
+    }
+
+    // Scans may overlap, so a stale minimum must never lower the floor
+    private void raiseFloor(long min) {
+        long current;
+        while (min > (current = floor)) {
+            if (FLOOR.compareAndSet(this, current, min)) return;
+        }
+    }
+
+    private int slot(int programmerId) {
+        return Math.floorMod(programmerId, programmers) * PADDING;
+    }
+
+    private long units(int programmerId, int eaten) {
+        return units == null ? eaten : eaten * units[Math.floorMod(programmerId, units.length)];
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
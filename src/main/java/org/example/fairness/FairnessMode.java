@@ -0,0 +1,30 @@
+package org.example.fairness;
+
+import java.util.Locale;
+
+// The fairness policies that can be picked from config.properties
+public enum FairnessMode {
+    NONE,
+    BOUNDED_SPREAD,
+    // Bounded spread over meals divided by weight, see BoundedSpreadPolicy
+    WEIGHTED_FAIR;
+
+    public FairnessPolicy create(int programmers, int maxSpread) {
+        return create(programmers, maxSpread, null);
+    }
+
+    // Weights repeat around the table, only WEIGHTED_FAIR looks at them
+    public FairnessPolicy create(int programmers, int maxSpread, int[] weights) {
+        if (this == BOUNDED_SPREAD) {
+            return new BoundedSpreadPolicy(programmers, maxSpread);
+        }
+        if (this == WEIGHTED_FAIR) {
+            return new BoundedSpreadPolicy(programmers, maxSpread, weights);
+        }
+        return FairnessPolicy.NONE;
+    }
+
+    public static FairnessMode parse(String value) {
+        return FairnessMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
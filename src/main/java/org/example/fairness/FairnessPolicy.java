@@ -0,0 +1,39 @@
+package org.example.fairness;
+
+// Decides whether a programmer may start another meal yet. mayEat and ate
+// are on the hot path and must stay cheap, awaitTurn only runs when blocked
+public interface FairnessPolicy {
+    FairnessPolicy NONE = new FairnessPolicy() {
+        @Override
+        public boolean mayEat(int programmerId, int eaten) { return true; }
+
+        @Override
+        public void awaitTurn(int programmerId, int eaten) { }
+
+        @Override
+        public void ate(int programmerId, int eaten) { }
+
+        @Override
+        public void leave(int programmerId) { }
+    };
+
+    boolean mayEat(int programmerId, int eaten);
+
+    // Blocks until mayEat would return true
+    void awaitTurn(int programmerId, int eaten) throws InterruptedException;
+
+    // Non-blocking awaitTurn: looks at the table once more, for callers that
+    // must not wait and retry when somebody else eats or leaves
+    default boolean tryTurn(int programmerId, int eaten) {
+        return mayEat(programmerId, eaten);
+    }
+
+    // Publishes the programmer's new count after a meal
+    void ate(int programmerId, int eaten);
+
+    // The programmer is done and must no longer hold anybody back
+    void leave(int programmerId);
+
+    // Back to nobody having eaten, only while no programmer is running
+    default void reset() { }
+}
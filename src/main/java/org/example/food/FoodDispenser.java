@@ -0,0 +1,76 @@
+package org.example.food;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The shared food supply. Portions leave it in batches, so the counter is
+// touched once per batch instead of once per meal
+public class FoodDispenser implements FoodSource {
+    // Returned by tryReserve when another programmer changed the counter first
+    public static final int CONTENDED = -1;
+
+    private final AtomicInteger foodLeft;
+    private final int consumers;
+
+    public FoodDispenser(AtomicInteger foodLeft, int consumers) {
+        if (consumers <= 0) {
+            throw new IllegalArgumentException("Dispenser needs at least one consumer");
+        }
+        this.foodLeft = foodLeft;
+        this.consumers = consumers;
+    }
+
+    // Single CAS attempt: the amount granted, 0 if the food is over or CONTENDED
+    @Override
+    public int tryReserve(int want) {
+        return tryReserve(want, 1);
+    }
+
+    // Same, on behalf of several requesters at once, each capped at a fair share
+    public int tryReserve(int want, int requesters) {
+        int cur = foodLeft.get();
+        if (cur <= 0) {
+            // Out of food here, maybe some can be brought in from elsewhere
+            if (!restock()) return 0;
+            cur = foodLeft.get();
+            if (cur <= 0) return CONTENDED;
+        }
+        int granted = Math.min(Math.min(want, cur), fairShare(cur) * requesters);
+        if (foodLeft.compareAndSet(cur, cur - granted)) return granted;
+        return CONTENDED;
+    }
+
+    // Keeps retrying until something is granted or the food is over
+    public int reserve(int want) {
+        return reserve(want, 1);
+    }
+
+    public int reserve(int want, int requesters) {
+        int granted;
+        do {
+            granted = tryReserve(want, requesters);
+        } while (granted == CONTENDED);
+        return granted;
+    }
+
+    // Portions reserved but not eaten go back to the supply
+    @Override
+    public void giveBack(int portions) {
+        if (portions > 0) {
+            foodLeft.addAndGet(portions);
+        }
+    }
+
+    public int remaining() { return Math.max(foodLeft.get(), 0); }
+    public int getConsumers() { return consumers; }
+
+    // Called when the counter is empty, true if portions were added to it
+    protected boolean restock() {
+        return false;
+    }
+
+    // Nobody may take more than half of an equal split of what is left, so
+    // batches shrink to single portions as the dinner comes to an end
+    int fairShare(int remaining) {
+        return Math.max(1, remaining / (2 * consumers));
+    }
+}
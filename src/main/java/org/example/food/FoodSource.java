@@ -0,0 +1,10 @@
+package org.example.food;
+
+// Where a programmer's batch gets refilled from
+public interface FoodSource {
+    // Portions granted, 0 once the food is over, or FoodDispenser.CONTENDED
+    // when the caller lost a race and may retry with a bigger batch
+    int tryReserve(int want);
+
+    void giveBack(int portions);
+}
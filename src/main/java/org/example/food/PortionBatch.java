@@ -0,0 +1,59 @@
+package org.example.food;
+
+// Portions one programmer has reserved but not eaten yet. Owned by a single
+// thread, so nothing here is synchronized
+public class PortionBatch {
+    static final int MIN_BATCH = 1;
+    static final int MAX_BATCH = 64;
+
+    private final FoodSource source;
+    private int reserved;
+    private int batchSize = MIN_BATCH;
+
+    public PortionBatch(FoodSource source) {
+        this.source = source;
+    }
+
+    // False only when this batch is empty and the source has nothing left
+    public boolean takeOne() {
+        if (reserved == 0 && !refill()) return false;
+        reserved--;
+        return true;
+    }
+
+    // Undoes the last takeOne when that portion could not be eaten
+    public void putBack() {
+        reserved++;
+    }
+
+    // Hands unused portions back, e.g. when the programmer stops early
+    public void giveBack() {
+        source.giveBack(reserved);
+        reserved = 0;
+    }
+
+    // Forgets the portions and the learned batch size, for the next dinner
+    public void reset() {
+        reserved = 0;
+        batchSize = MIN_BATCH;
+    }
+
+    public int getReserved() { return reserved; }
+    public int getBatchSize() { return batchSize; }
+
+    private boolean refill() {
+        while (true) {
+            int granted = source.tryReserve(batchSize);
+            if (granted == FoodDispenser.CONTENDED) {
+                // Lost a race: ask for more next time to hit the counter less often
+                batchSize = Math.min(batchSize * 2, MAX_BATCH);
+                continue;
+            }
+            if (granted == 0) return false;
+            // Uncontended: drift back towards single portions
+            if (batchSize > MIN_BATCH) batchSize--;
+            reserved = granted;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.food;
+
+import java.util.Arrays;
+
+// PortionBatch for a whole table: reserved portions and learned batch sizes
+// sit in two arrays instead of one object per seat. A seat is only ever used
+// by one thread at a time, so nothing here is synchronized either
+public class PortionBatches {
+    private final FoodSource source;
+    private final int[] reserved;
+    // MAX_BATCH fits a byte
+    private final byte[] batchSize;
+
+    public PortionBatches(FoodSource source, int seats) {
+        this.source = source;
+        this.reserved = new int[seats];
+        this.batchSize = new byte[seats];
+        Arrays.fill(batchSize, (byte) PortionBatch.MIN_BATCH);
+    }
+
+    // False only when the seat's batch is empty and the source has nothing left
+    public boolean takeOne(int seat) {
+        if (reserved[seat] == 0 && !refill(seat)) return false;
+        reserved[seat]--;
+        return true;
+    }
+
+    public void giveBack(int seat) {
+        source.giveBack(reserved[seat]);
+        reserved[seat] = 0;
+    }
+
+    public void reset() {
+        Arrays.fill(reserved, 0);
+        Arrays.fill(batchSize, (byte) PortionBatch.MIN_BATCH);
+    }
+
+    public int getReserved(int seat) { return reserved[seat]; }
+    public int getBatchSize(int seat) { return batchSize[seat]; }
+
+    // Same learning as PortionBatch.refill
+    private boolean refill(int seat) {
+        int size = batchSize[seat];
+        while (true) {
+            int granted = source.tryReserve(size);
+            if (granted == FoodDispenser.CONTENDED) {
+                size = Math.min(size * 2, PortionBatch.MAX_BATCH);
+                continue;
+            }
+            if (granted > 0 && size > PortionBatch.MIN_BATCH) size--;
+            batchSize[seat] = (byte) size;
+            if (granted == 0) return false;
+            reserved[seat] = granted;
+            return true;
+        }
+    }
+}
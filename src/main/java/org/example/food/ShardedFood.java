@@ -0,0 +1,101 @@
+package org.example.food;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// One food supply split between several tables. Every table eats from its own
+// counter, so tables never touch each other's cache lines while they have
+// food; a table that runs out steals half of what another one still holds
+public class ShardedFood {
+
+    private final AtomicInteger[] supplies;
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder stolenPortions = new LongAdder();
+
+    public ShardedFood(int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shards amount must be positive");
+        }
+        supplies = new AtomicInteger[shards];
+        for (int i = 0; i < shards; i++) {
+            supplies[i] = new AtomicInteger();
+        }
+    }
+
+    // The counter of one table, handed out in the dispenser of that table
+    public AtomicInteger supplyOf(int shard) {
+        return supplies[shard];
+    }
+
+    public FoodDispenser dispenserFor(int shard, int consumers) {
+        return new StealingDispenser(shard, consumers);
+    }
+
+    // Spreads the food over the tables by their amount of programmers
+    public void distribute(int food, int[] programmers) {
+        if (programmers.length != supplies.length) {
+            throw new IllegalArgumentException("Need the programmers of every shard");
+        }
+        long total = 0;
+        for (int count : programmers) {
+            total += count;
+        }
+        int given = 0;
+        for (int i = 0; i < supplies.length; i++) {
+            int share = (int) (food * (long) programmers[i] / total);
+            supplies[i].set(share);
+            given += share;
+        }
+        // The rounding remainder goes round the tables one portion each
+        for (int i = 0; given < food; i = (i + 1) % supplies.length, given++) {
+            supplies[i].incrementAndGet();
+        }
+        steals.reset();
+        stolenPortions.reset();
+    }
+
+    public int remaining() {
+        int left = 0;
+        for (AtomicInteger supply : supplies) {
+            left += Math.max(supply.get(), 0);
+        }
+        return left;
+    }
+
+    public int getShards() { return supplies.length; }
+    public long getSteals() { return steals.sum(); }
+    public long getStolenPortions() { return stolenPortions.sum(); }
+
+    // Takes half of the first victim's food that has any, starting next door
+    // so the tables do not all pick on the same one
+    boolean steal(int thief) {
+        for (int i = 1; i < supplies.length; i++) {
+            AtomicInteger victim = supplies[(thief + i) % supplies.length];
+            int cur;
+            while ((cur = victim.get()) > 0) {
+                int taken = (cur + 1) / 2;
+                if (victim.compareAndSet(cur, cur - taken)) {
+                    supplies[thief].addAndGet(taken);
+                    steals.increment();
+                    stolenPortions.add(taken);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private final class StealingDispenser extends FoodDispenser {
+        private final int shard;
+
+        StealingDispenser(int shard, int consumers) {
+            super(supplies[shard], consumers);
+            this.shard = shard;
+        }
+
+        @Override
+        protected boolean restock() {
+            return steal(shard);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.food;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The food of a dinner spread over several processes: one int in a buffer
+// they all map. Like a shard of ShardedFood, every process eats from a local
+// counter and only comes here once that runs dry, so the mapped word is hit
+// once per chunk rather than once per batch
+public class SharedSupply {
+
+    private static final VarHandle FOOD_LEFT =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int processes;
+
+    public SharedSupply(ByteBuffer buffer, int offset, int processes) {
+        if (processes <= 0) {
+            throw new IllegalArgumentException("Processes amount must be positive");
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.processes = processes;
+    }
+
+    public void set(int food) {
+        FOOD_LEFT.setVolatile(buffer, offset, food);
+    }
+
+    public int remaining() {
+        return Math.max((int) FOOD_LEFT.getVolatile(buffer, offset), 0);
+    }
+
+    // Half of an equal split of what is left, so chunks shrink to single
+    // portions towards the end; 0 once the food is over
+    public int take() {
+        while (true) {
+            int cur = (int) FOOD_LEFT.getVolatile(buffer, offset);
+            if (cur <= 0) return 0;
+            int taken = Math.max(1, cur / (2 * processes));
+            if (FOOD_LEFT.compareAndSet(buffer, offset, cur, cur - taken)) return taken;
+        }
+    }
+
+    public void giveBack(int portions) {
+        if (portions > 0) {
+            FOOD_LEFT.getAndAdd(buffer, offset, portions);
+        }
+    }
+
+    // A dispenser over this process's counter, which it refills from here.
+    // Whatever is left in local at the end must be given back
+    public FoodDispenser dispenserFor(AtomicInteger local, int consumers) {
+        return new RestockingDispenser(local, consumers);
+    }
+
+    private final class RestockingDispenser extends FoodDispenser {
+        private final AtomicInteger local;
+
+        RestockingDispenser(AtomicInteger local, int consumers) {
+            super(local, consumers);
+            this.local = local;
+        }
+
+        @Override
+        protected boolean restock() {
+            int taken = take();
+            if (taken == 0) return false;
+            local.addAndGet(taken);
+            return true;
+        }
+    }
+}
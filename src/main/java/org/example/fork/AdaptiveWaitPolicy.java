@@ -0,0 +1,73 @@
+package org.example.fork;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Spins for about as long as forks are usually held, so a fork that comes
+// free within a few hundred nanoseconds is taken without a context switch,
+// and goes to parking early when holds are long. The hold time is a moving
+// average fed by every release at the table
+public class AdaptiveWaitPolicy implements WaitPolicy {
+    static final int MIN_SPINS = 16;
+    static final int MAX_SPINS = 1 << 14;
+    static final int YIELDS = 8;
+    // Holds longer than a park and wake-up are not worth spinning through
+    static final long SPIN_THRESHOLD_NANOS = 20_000;
+    static final long MIN_PARK_NANOS = 1_000;
+    static final long MAX_PARK_NANOS = 1_000_000;
+    // New samples weigh 1/8
+    private static final int EWMA_SHIFT = 3;
+
+    // Racy on purpose: a lost update only makes the average a little older
+    private volatile long holdNanos;
+    private volatile int spinLimit = MIN_SPINS;
+
+    @Override
+    public void pause(int attempt) {
+        int spins = spinLimit;
+        if (attempt < spins) {
+            Thread.onSpinWait();
+        } else if (attempt < spins + YIELDS) {
+            Thread.yield();
+        } else {
+            // Half a hold, most forks come free within it
+            LockSupport.parkNanos(Math.max(MIN_PARK_NANOS, Math.min(holdNanos / 2, MAX_PARK_NANOS)));
+        }
+    }
+
+    @Override
+    public boolean tracksHoldTimes() { return true; }
+
+    @Override
+    public void held(long nanos) {
+        long average = holdNanos;
+        average += (nanos - average) >> EWMA_SHIFT;
+        holdNanos = average;
+        int spins = average > SPIN_THRESHOLD_NANOS
+                ? MIN_SPINS
+                : (int) Math.max(MIN_SPINS, Math.min(average / Calibration.NANOS_PER_SPIN, MAX_SPINS));
+        // Only written when it changes, the programmers keep reading it
+        if (spins != spinLimit) spinLimit = spins;
+    }
+
+    public long getHoldNanos() { return holdNanos; }
+    public int getSpinLimit() { return spinLimit; }
+
+    // onSpinWait costs anything from a few to a hundred nanoseconds depending
+    // on the CPU, measured once per JVM
+    private static final class Calibration {
+        static final long NANOS_PER_SPIN = measure();
+
+        private static long measure() {
+            int probe = 100_000;
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < probe; i++) {
+                    Thread.onSpinWait();
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            return Math.max(1, best / probe);
+        }
+    }
+}
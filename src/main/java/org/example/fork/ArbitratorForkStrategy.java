@@ -0,0 +1,67 @@
+package org.example.fork;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A head waiter hands out both forks at once or none. Programmers queue on a
+// per-seat condition, and a release only wakes up the seats it concerns
+public class ArbitratorForkStrategy implements ForkAcquisitionStrategy {
+
+    private final ForkTable forks;
+    private final ReentrantLock arbitrator = new ReentrantLock();
+    private final Condition[] forksFreed;
+
+    public ArbitratorForkStrategy(ForkTable forks) {
+        this.forks = forks;
+        this.forksFreed = new Condition[forks.size()];
+        for (int i = 0; i < forksFreed.length; i++) {
+            forksFreed[i] = arbitrator.newCondition();
+        }
+    }
+
+    @Override
+    public ForkTable table() { return forks; }
+
+    @Override
+    public boolean acquire(int seat, int programmerId) {
+        Fork left = forks.leftOf(seat);
+        Fork right = forks.rightOf(seat);
+        try {
+            arbitrator.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            while (!left.isFree() || !right.isFree()) {
+                forksFreed[seat].await();
+            }
+            left.tryAcquire(programmerId);
+            if (right != left) right.tryAcquire(programmerId);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            arbitrator.unlock();
+        }
+    }
+
+    @Override
+    public void release(int seat, int programmerId) {
+        Fork left = forks.leftOf(seat);
+        Fork right = forks.rightOf(seat);
+        int size = forks.size();
+        arbitrator.lock();
+        try {
+            left.release(programmerId);
+            if (right != left) right.release(programmerId);
+            // Both neighbours share a fork with this seat, seat-mates share both
+            forksFreed[(seat + size - 1) % size].signalAll();
+            forksFreed[seat].signalAll();
+            forksFreed[(seat + 1) % size].signalAll();
+        } finally {
+            arbitrator.unlock();
+        }
+    }
+}
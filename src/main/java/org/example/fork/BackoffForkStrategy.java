@@ -0,0 +1,45 @@
+package org.example.fork;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Try both forks, put the first one back if the second is busy and wait a
+// random, growing while before the next try. Randomness breaks livelock
+public class BackoffForkStrategy implements ForkAcquisitionStrategy {
+
+    private static final long MIN_BACKOFF_NANOS = 1_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+    private final ForkTable forks;
+
+    public BackoffForkStrategy(ForkTable forks) {
+        this.forks = forks;
+    }
+
+    @Override
+    public ForkTable table() { return forks; }
+
+    @Override
+    public boolean acquire(int seat, int programmerId) {
+        Fork left = forks.leftOf(seat);
+        Fork right = forks.rightOf(seat);
+        long backoff = MIN_BACKOFF_NANOS;
+        while (true) {
+            if (left.tryAcquire(programmerId)) {
+                if (right == left || right.tryAcquire(programmerId)) return true;
+                left.release(programmerId);
+            }
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoff) + 1);
+            if (Thread.currentThread().isInterrupted()) return false;
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    @Override
+    public void release(int seat, int programmerId) {
+        Fork left = forks.leftOf(seat);
+        Fork right = forks.rightOf(seat);
+        left.release(programmerId);
+        if (right != left) right.release(programmerId);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.fork;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// One bit per resource, 64 to a word. The resources of a set that share a
+// word are taken together with one CAS, so a set inside one word never holds
+// part of itself while waiting. Words are taken in ascending order, which
+// keeps sets spanning several words deadlock free. Owners are not recorded,
+// a set must be released by the task that acquired it
+public class BitmapResourceAllocator implements ResourceAllocator {
+
+    private final int size;
+    private final AtomicLongArray words;
+    private final WaitPolicy waitPolicy;
+
+    public BitmapResourceAllocator(int size, WaitPolicy waitPolicy) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Allocator needs at least one resource");
+        }
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+        this.waitPolicy = waitPolicy;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    public boolean isTaken(int id) {
+        return (words.get(id >>> 6) & 1L << id) != 0;
+    }
+
+    @Override
+    public boolean acquire(ResourceSet set, int owner) {
+        checkRange(set);
+        int i = 0;
+        while (i < set.size()) {
+            int word = set.get(i) >>> 6;
+            int end = endOfWord(set, i, word);
+            long mask = mask(set, i, end);
+            int attempts = 0;
+            while (!tryTake(word, mask)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    release(set, 0, i);
+                    return false;
+                }
+                // Waiters on a word are woken by any release in it
+                waitPolicy.pause(word, attempts++);
+            }
+            i = end;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryAcquire(ResourceSet set, int owner) {
+        checkRange(set);
+        int i = 0;
+        while (i < set.size()) {
+            int word = set.get(i) >>> 6;
+            int end = endOfWord(set, i, word);
+            if (!tryTake(word, mask(set, i, end))) {
+                release(set, 0, i);
+                return false;
+            }
+            i = end;
+        }
+        return true;
+    }
+
+    @Override
+    public void release(ResourceSet set, int owner) {
+        checkRange(set);
+        release(set, 0, set.size());
+    }
+
+    // The last word has bits past size and later ids have no word at all, so a
+    // set beyond the table would take resources that do not exist or fail halfway
+    private void checkRange(ResourceSet set) {
+        if (set.max() >= size) {
+            throw new IllegalArgumentException("Resources " + set + " are not all below " + size);
+        }
+    }
+
+    // Releases set entries [from, to), which always start and end on word boundaries
+    private void release(ResourceSet set, int from, int to) {
+        int i = from;
+        while (i < to) {
+            int word = set.get(i) >>> 6;
+            int end = endOfWord(set, i, word);
+            long mask = mask(set, i, end);
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != mask) {
+                    throw new IllegalStateException("Resources " + set + " are not all taken");
+                }
+            } while (!words.compareAndSet(word, current, current & ~mask));
+            waitPolicy.released(word);
+            i = end;
+        }
+    }
+
+    // Only fails when part of the mask is taken, other bits changing just retry
+    private boolean tryTake(int word, long mask) {
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) return false;
+        } while (!words.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    private static int endOfWord(ResourceSet set, int from, int word) {
+        int end = from + 1;
+        while (end < set.size() && set.get(end) >>> 6 == word) end++;
+        return end;
+    }
+
+    private static long mask(ResourceSet set, int from, int to) {
+        long mask = 0;
+        for (int i = from; i < to; i++) {
+            mask |= 1L << set.get(i);
+        }
+        return mask;
+    }
+}
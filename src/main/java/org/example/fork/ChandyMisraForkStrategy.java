@@ -0,0 +1,155 @@
+package org.example.fork;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Chandy–Misra "hygienic" forks. Every fork always belongs to one of its two
+// seats and is either clean or dirty. Eating makes forks dirty. A hungry seat
+// asks for the forks it lacks: a dirty fork nobody eats with comes over at
+// once and arrives clean, any other request is recorded on the fork and the
+// holder hands it over, cleaned, as soon as it is done eating. A clean fork is
+// only given up by eating with it, so a hungry seat keeps what it was handed
+// and a neighbour it asked eats at most once more before it. Forks start dirty at
+// the lower seat, which keeps the precedence graph acyclic: no deadlock and
+// no starvation.
+//
+// Programmers are not message driven here: the one asking takes a dirty idle
+// fork over itself, and the one releasing hands a requested fork over, both
+// under the fork's lock
+public class ChandyMisraForkStrategy implements ForkAcquisitionStrategy {
+
+    private final ForkTable forks;
+    private final ReentrantLock[] locks;
+    private final Condition[] changed;
+    // Guarded by locks[i]
+    private final int[] holder;
+    private final boolean[] dirty;
+    // The seat not holding fork i is waiting for it
+    private final boolean[] requested;
+
+    public ChandyMisraForkStrategy(ForkTable forks) {
+        this.forks = forks;
+        int size = forks.size();
+        this.locks = new ReentrantLock[size];
+        this.changed = new Condition[size];
+        this.holder = new int[size];
+        this.dirty = new boolean[size];
+        this.requested = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            changed[i] = locks[i].newCondition();
+            // Fork i lies between seat i - 1 and seat i
+            holder[i] = Math.min(i, Math.floorMod(i - 1, size));
+            dirty[i] = true;
+        }
+    }
+
+    @Override
+    public ForkTable table() { return forks; }
+
+    @Override
+    public boolean acquire(int seat, int programmerId) {
+        int left = forks.leftIdOf(seat);
+        int right = forks.rightIdOf(seat);
+        int first = Math.min(left, right);
+        int second = Math.max(left, right);
+        try {
+            while (true) {
+                obtain(first, seat);
+                obtain(second, seat);
+                // Locks in id order so two seats never wait on each other here
+                locks[first].lockInterruptibly();
+                try {
+                    locks[second].lockInterruptibly();
+                    try {
+                        if (holder[first] == seat && holder[second] == seat) {
+                            forks.tryAcquire(first, programmerId);
+                            if (second != first) forks.tryAcquire(second, programmerId);
+                            return true;
+                        }
+                    } finally {
+                        locks[second].unlock();
+                    }
+                } finally {
+                    locks[first].unlock();
+                }
+                // A fork still dirty from our last meal was taken meanwhile,
+                // it comes back clean this time
+            }
+        } catch (InterruptedException e) {
+            // Nothing clean may stay with a seat that is not going to eat,
+            // or whoever asked for it would wait forever
+            giveUp(first, seat);
+            if (second != first) giveUp(second, seat);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Waits until the seat holds the fork. Only its holder eats with a fork,
+    // so a held one is never in use
+    private void obtain(int fork, int seat) throws InterruptedException {
+        locks[fork].lockInterruptibly();
+        try {
+            while (holder[fork] != seat) {
+                if (dirty[fork] && forks.ownerOf(fork) == Fork.FREE) {
+                    // The holder has eaten with it since getting it, so it must give it up
+                    holder[fork] = seat;
+                    dirty[fork] = false;
+                    requested[fork] = false;
+                    return;
+                }
+                requested[fork] = true;
+                changed[fork].await();
+            }
+        } finally {
+            locks[fork].unlock();
+        }
+    }
+
+    @Override
+    public void release(int seat, int programmerId) {
+        int left = forks.leftIdOf(seat);
+        int right = forks.rightIdOf(seat);
+        releaseOne(left, seat, programmerId);
+        if (right != left) releaseOne(right, seat, programmerId);
+    }
+
+    private void releaseOne(int fork, int seat, int programmerId) {
+        locks[fork].lock();
+        try {
+            forks.release(fork, programmerId);
+            if (requested[fork]) {
+                // Handed over before this seat can get hungry again
+                holder[fork] = neighbourAt(fork, seat);
+                dirty[fork] = false;
+                requested[fork] = false;
+            } else {
+                dirty[fork] = true;
+            }
+            changed[fork].signalAll();
+        } finally {
+            locks[fork].unlock();
+        }
+    }
+
+    private void giveUp(int fork, int seat) {
+        locks[fork].lock();
+        try {
+            if (holder[fork] == seat) {
+                dirty[fork] = true;
+                changed[fork].signalAll();
+            } else {
+                // Withdraws the request, nobody is waiting for an answer
+                requested[fork] = false;
+            }
+        } finally {
+            locks[fork].unlock();
+        }
+    }
+
+    // The other seat next to the fork
+    private int neighbourAt(int fork, int seat) {
+        return seat == fork ? Math.floorMod(fork - 1, forks.size()) : fork;
+    }
+}
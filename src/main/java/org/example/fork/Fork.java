@@ -1,16 +1,39 @@
 package org.example.fork;
 
-import java.util.concurrent.locks.ReentrantLock;
-
-// Just fork
+// Just fork, owned by at most one programmer at a time. Only a view of its
+// owner word, which lives in the ForkTable
 public class Fork implements Comparable<Fork> {
-    int id;
-    private final ReentrantLock lock = new ReentrantLock(true);
+    public static final int FREE = -1;
+
+    final int id;
+    private final ForkTable table;
+    private final int index;
 
+    // A fork on its own, outside of any table
     public Fork(int id) {
+        this(id, new ForkTable(1), 0);
+    }
+
+    Fork(int id, ForkTable table, int index) {
         this.id = id;
+        this.table = table;
+        this.index = index;
     }
+
     public int getId() { return id; }
+    public int getOwner() { return table.ownerOf(index); }
+    public boolean isFree() { return getOwner() == FREE; }
+
+    // Single CAS, never blocks
+    public boolean tryAcquire(int programmerId) {
+        return table.tryAcquire(index, programmerId);
+    }
+
+    public void release(int programmerId) {
+        if (!table.tryRelease(index, programmerId)) {
+            throw new IllegalStateException("Fork " + id + " is not held by programmer " + programmerId);
+        }
+    }
 
     @Override
     public int compareTo(Fork other) {
@@ -0,0 +1,14 @@
+package org.example.fork;
+
+// How a programmer gets hold of the two forks next to its seat. One instance
+// is shared by everybody at the table, so strategies may keep table-wide state
+public interface ForkAcquisitionStrategy {
+
+    ForkTable table();
+
+    // Blocks until both forks of the seat are owned by the programmer.
+    // False means the thread was interrupted and holds nothing
+    boolean acquire(int seat, int programmerId);
+
+    void release(int seat, int programmerId);
+}
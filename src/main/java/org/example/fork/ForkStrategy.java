@@ -0,0 +1,30 @@
+package org.example.fork;
+
+import java.util.Locale;
+
+// The fork acquisition strategies that can be picked from config.properties
+public enum ForkStrategy {
+    ORDERED,
+    CHANDY_MISRA,
+    ARBITRATOR,
+    BACKOFF;
+
+    public ForkAcquisitionStrategy create(ForkTable forks) {
+        return create(forks, new SpinYieldParkWaitPolicy());
+    }
+
+    // Only ORDERED waits through the policy: the arbitrator and Chandy-Misra
+    // sleep on conditions and backoff waits randomly by design
+    public ForkAcquisitionStrategy create(ForkTable forks, WaitPolicy waitPolicy) {
+        switch (this) {
+            case CHANDY_MISRA: return new ChandyMisraForkStrategy(forks);
+            case ARBITRATOR: return new ArbitratorForkStrategy(forks);
+            case BACKOFF: return new BackoffForkStrategy(forks);
+            default: return new OrderedForkStrategy(forks, waitPolicy);
+        }
+    }
+
+    public static ForkStrategy parse(String value) {
+        return ForkStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.fork;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Round table: fork i lies between seat i - 1 and seat i. Ownership is one
+// int per fork in a single array, so a million forks cost 4 MB rather than a
+// million objects. Fork objects are only made for strategies asking for them.
+// The words may also sit in a mapped buffer that other processes share
+public class ForkTable {
+    // Ints per 64 byte cache line. Small tables are fought over by every
+    // thread, so each fork gets a line of its own; large ones spread the
+    // threads out and padding would only multiply the footprint
+    static final int PADDING = 16;
+    static final int PADDED_LIMIT = 4096;
+
+    private static final VarHandle OWNERS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle MAPPED_OWNERS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle VIEWS = MethodHandles.arrayElementVarHandle(Fork[].class);
+
+    private final int size;
+    private final int stride;
+    // Exactly one of the two holds the owner words
+    private final int[] owners;
+    private final ByteBuffer mapped;
+    private final int offset;
+    // Made on first use, most tables never need them
+    private volatile Fork[] views;
+
+    public ForkTable(int size) {
+        this(size, null, 0);
+        Arrays.fill(owners, Fork.FREE);
+    }
+
+    // A table kept in bytesFor(size) bytes of buffer from offset on, a direct
+    // buffer if other processes are to see it. The words are left as they
+    // are, whoever sets the buffer up calls reset once
+    public ForkTable(ByteBuffer mapped, int offset, int size) {
+        this(size, Objects.requireNonNull(mapped), offset);
+        if (offset % Integer.BYTES != 0 || offset < 0 || mapped.capacity() - offset < bytesFor(size)) {
+            throw new IllegalArgumentException("Buffer can't hold " + size + " forks at " + offset);
+        }
+    }
+
+    private ForkTable(int size, ByteBuffer mapped, int offset) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Table needs at least one fork");
+        }
+        this.size = size;
+        this.stride = strideFor(size);
+        this.mapped = mapped;
+        this.offset = offset;
+        this.owners = mapped == null ? new int[size * stride] : null;
+    }
+
+    // What a table of that many forks takes in a buffer
+    public static int bytesFor(int size) {
+        return Math.multiplyExact(size, strideFor(size) * Integer.BYTES);
+    }
+
+    private static int strideFor(int size) {
+        return size <= PADDED_LIMIT ? PADDING : 1;
+    }
+
+    public int size() { return size; }
+
+    // Always the same object for the same id
+    public Fork get(int id) {
+        Objects.checkIndex(id, size);
+        Fork[] forks = views();
+        Fork fork = (Fork) VIEWS.getAcquire(forks, id);
+        if (fork != null) return fork;
+        Fork made = new Fork(id, this, id);
+        Fork raced = (Fork) VIEWS.compareAndExchangeRelease(forks, id, null, made);
+        return raced == null ? made : raced;
+    }
+
+    // Seats wrap around, so any programmer id maps onto the table
+    public int seatOf(int programmerId) {
+        return Math.floorMod(programmerId, size);
+    }
+
+    public Fork leftOf(int seat) {
+        return get(leftIdOf(seat));
+    }
+
+    public Fork rightOf(int seat) {
+        return get(rightIdOf(seat));
+    }
+
+    public int leftIdOf(int seat) {
+        return seat;
+    }
+
+    public int rightIdOf(int seat) {
+        return (seat + 1) % size;
+    }
+
+    // The same operations as on get(id), without making the Fork
+    public int ownerOf(int id) {
+        int slot = Objects.checkIndex(id, size) * stride;
+        return mapped == null
+                ? (int) OWNERS.getVolatile(owners, slot)
+                : (int) MAPPED_OWNERS.getVolatile(mapped, offset + slot * Integer.BYTES);
+    }
+
+    public boolean tryAcquire(int id, int programmerId) {
+        return ownerOf(id) == Fork.FREE && compareAndSet(id, Fork.FREE, programmerId);
+    }
+
+    public void release(int id, int programmerId) {
+        if (!tryRelease(id, programmerId)) {
+            throw new IllegalStateException("Fork " + id + " is not held by programmer " + programmerId);
+        }
+    }
+
+    boolean tryRelease(int id, int programmerId) {
+        return compareAndSet(id, programmerId, Fork.FREE);
+    }
+
+    // Frees every fork, only while nobody is using the table
+    public void reset() {
+        for (int id = 0; id < size; id++) {
+            int slot = id * stride;
+            if (mapped == null) {
+                OWNERS.setVolatile(owners, slot, Fork.FREE);
+            } else {
+                MAPPED_OWNERS.setVolatile(mapped, offset + slot * Integer.BYTES, Fork.FREE);
+            }
+        }
+    }
+
+    // Not a snapshot, only meant for stats and tests
+    public int freeCount() {
+        int free = 0;
+        for (int id = 0; id < size; id++) {
+            if (ownerOf(id) == Fork.FREE) free++;
+        }
+        return free;
+    }
+
+    private boolean compareAndSet(int id, int expected, int programmerId) {
+        int slot = Objects.checkIndex(id, size) * stride;
+        return mapped == null
+                ? OWNERS.compareAndSet(owners, slot, expected, programmerId)
+                : MAPPED_OWNERS.compareAndSet(mapped, offset + slot * Integer.BYTES, expected, programmerId);
+    }
+
+    private Fork[] views() {
+        Fork[] forks = views;
+        if (forks == null) {
+            synchronized (this) {
+                forks = views;
+                if (forks == null) {
+                    views = forks = new Fork[size];
+                }
+            }
+        }
+        return forks;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.fork;
+
+// Resource ordering: the lower fork (by Fork.compareTo) is always taken first,
+// so a cycle of waiting programmers can never form around the table. The
+// dinner is just one client of OrderedResourceAllocator, taking two at a time
+public class OrderedForkStrategy implements ForkAcquisitionStrategy {
+
+    private final ForkTable forks;
+    private final OrderedResourceAllocator allocator;
+    // What to do while a fork is busy
+    private final WaitPolicy waitPolicy;
+    // When each seat got its forks, only kept for policies that learn hold times
+    private final long[] acquiredAt;
+
+    public OrderedForkStrategy(ForkTable forks) {
+        this(forks, new SpinYieldParkWaitPolicy());
+    }
+
+    public OrderedForkStrategy(ForkTable forks, WaitPolicy waitPolicy) {
+        this.forks = forks;
+        this.allocator = new OrderedResourceAllocator(forks, waitPolicy);
+        this.waitPolicy = waitPolicy;
+        this.acquiredAt = waitPolicy.tracksHoldTimes() ? new long[forks.size()] : null;
+    }
+
+    @Override
+    public ForkTable table() { return forks; }
+
+    @Override
+    public boolean acquire(int seat, int programmerId) {
+        // The seat's two forks are worked out rather than stored, so a table
+        // keeps nothing per seat here
+        int left = forks.leftIdOf(seat);
+        int right = forks.rightIdOf(seat);
+        int first = Math.min(left, right);
+        int second = Math.max(left, right);
+        if (!allocator.acquire(first, programmerId)) return false;
+        // A single seat table has one fork serving as both
+        if (second != first && !allocator.acquire(second, programmerId)) {
+            allocator.release(first, programmerId);
+            return false;
+        }
+        if (acquiredAt != null) acquiredAt[seat] = System.nanoTime();
+        return true;
+    }
+
+    @Override
+    public void release(int seat, int programmerId) {
+        if (acquiredAt != null) waitPolicy.held(System.nanoTime() - acquiredAt[seat]);
+        int left = forks.leftIdOf(seat);
+        int right = forks.rightIdOf(seat);
+        allocator.release(left, programmerId);
+        if (right != left) allocator.release(right, programmerId);
+    }
+
+    public WaitPolicy getWaitPolicy() { return waitPolicy; }
+}
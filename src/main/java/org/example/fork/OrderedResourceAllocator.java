@@ -0,0 +1,83 @@
+package org.example.fork;
+
+// One CAS owner word per resource, the owner array of a ForkTable, taken in ascending
+// id order. A task only ever waits for a resource above everything it holds,
+// so no cycle of waiting tasks can form. Waiting goes through the policy
+public class OrderedResourceAllocator implements ResourceAllocator {
+
+    private final ForkTable resources;
+    private final WaitPolicy waitPolicy;
+
+    public OrderedResourceAllocator(int size, WaitPolicy waitPolicy) {
+        this(new ForkTable(size), waitPolicy);
+    }
+
+    public OrderedResourceAllocator(ForkTable resources, WaitPolicy waitPolicy) {
+        this.resources = resources;
+        this.waitPolicy = waitPolicy;
+    }
+
+    @Override
+    public int size() { return resources.size(); }
+
+    // Who holds resource id, Fork.FREE when nobody does
+    public int ownerOf(int id) { return resources.ownerOf(id); }
+
+    @Override
+    public boolean acquire(ResourceSet set, int owner) {
+        checkRange(set);
+        for (int i = 0; i < set.size(); i++) {
+            if (!acquire(set.get(i), owner)) {
+                release(set, 0, i, owner);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One resource, for callers keeping the order themselves. False if interrupted
+    public boolean acquire(int id, int owner) {
+        int attempts = 0;
+        while (!resources.tryAcquire(id, owner)) {
+            if (Thread.currentThread().isInterrupted()) return false;
+            waitPolicy.pause(id, attempts++);
+        }
+        return true;
+    }
+
+    public void release(int id, int owner) {
+        resources.release(id, owner);
+        waitPolicy.released(id);
+    }
+
+    @Override
+    public boolean tryAcquire(ResourceSet set, int owner) {
+        checkRange(set);
+        for (int i = 0; i < set.size(); i++) {
+            if (!resources.tryAcquire(set.get(i), owner)) {
+                release(set, 0, i, owner);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void release(ResourceSet set, int owner) {
+        checkRange(set);
+        release(set, 0, set.size(), owner);
+    }
+
+    // Before anything is taken, so a bad set never leaves part of itself held
+    private void checkRange(ResourceSet set) {
+        if (set.max() >= resources.size()) {
+            throw new IllegalArgumentException("Resources " + set + " are not all below " + resources.size());
+        }
+    }
+
+    private void release(ResourceSet set, int from, int to, int owner) {
+        for (int i = from; i < to; i++) {
+            release(set.get(i), owner);
+        }
+    }
+}
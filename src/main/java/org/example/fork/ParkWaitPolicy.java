@@ -0,0 +1,131 @@
+package org.example.fork;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Blocks until the fork is released, the way the old semaphore and queue
+// blocked: cheap on CPU, but every wait costs a park and a wake-up even for
+// very short holds. A waiter first registers on the fork's list and returns
+// for one more try, then parks; release empties the list and unparks
+// everybody on it. Registering before the last try means a release after it
+// always finds the waiter, and an unpark that comes before the park leaves
+// the permit behind, so no wake-up is lost.
+//
+// Every thread has one list node for good, made on its first wait, so
+// waiting allocates nothing afterwards. A node still listed from a wait that
+// ended with a successful try stays there until the next wait moves it or a
+// release wakes its thread for nothing
+public class ParkWaitPolicy implements WaitPolicy {
+    static final long PARK_NANOS = 50_000;
+    // Forks share this many lists, a wake-up from another fork on the same
+    // one only costs the waiter another try
+    static final int STRIPES = 1024;
+    private static final int NONE = -1;
+
+    // Lists linked both ways through the nodes, each guarded by its lock word.
+    // Heads are read without the lock so a release with nobody waiting stays cheap
+    private final AtomicReferenceArray<Waiter> heads = new AtomicReferenceArray<>(STRIPES);
+    private final AtomicIntegerArray locks = new AtomicIntegerArray(STRIPES);
+    private final ThreadLocal<Waiter> own = ThreadLocal.withInitial(() -> new Waiter(Thread.currentThread()));
+
+    // Without a resource nobody would wake the caller, so it only parks a while
+    @Override
+    public void pause(int attempt) {
+        LockSupport.parkNanos(PARK_NANOS);
+    }
+
+    @Override
+    public void pause(int id, int attempt) {
+        if ((attempt & 1) == 0) {
+            register(own.get(), id & (STRIPES - 1));
+        } else {
+            // A spurious return just registers again
+            LockSupport.park(this);
+        }
+    }
+
+    @Override
+    public void released(int id) {
+        int stripe = id & (STRIPES - 1);
+        if (heads.get(stripe) == null) return;
+        lock(stripe);
+        try {
+            Waiter waiter = heads.get(stripe);
+            heads.set(stripe, null);
+            while (waiter != null) {
+                Waiter next = waiter.next;
+                waiter.stripe = NONE;
+                waiter.prev = null;
+                waiter.next = null;
+                LockSupport.unpark(waiter.thread);
+                waiter = next;
+            }
+        } finally {
+            unlock(stripe);
+        }
+    }
+
+    private void register(Waiter waiter, int stripe) {
+        // Only this thread links its node, a release only ever unlinks it
+        int listed = waiter.stripe;
+        if (listed == stripe) return;
+        if (listed != NONE) {
+            lock(listed);
+            try {
+                // The release may have taken the whole list meanwhile
+                if (waiter.stripe == listed) unlink(waiter, listed);
+            } finally {
+                unlock(listed);
+            }
+        }
+        lock(stripe);
+        try {
+            Waiter head = heads.get(stripe);
+            waiter.prev = null;
+            waiter.next = head;
+            if (head != null) head.prev = waiter;
+            waiter.stripe = stripe;
+            heads.set(stripe, waiter);
+        } finally {
+            unlock(stripe);
+        }
+    }
+
+    // Guarded by the stripe's lock
+    private void unlink(Waiter waiter, int stripe) {
+        if (waiter.prev == null) {
+            heads.set(stripe, waiter.next);
+        } else {
+            waiter.prev.next = waiter.next;
+        }
+        if (waiter.next != null) waiter.next.prev = waiter.prev;
+        waiter.stripe = NONE;
+        waiter.prev = null;
+        waiter.next = null;
+    }
+
+    // Held for a few pointer writes only, so spinning beats parking here
+    private void lock(int stripe) {
+        while (!locks.compareAndSet(stripe, 0, 1)) {
+            Thread.yield();
+        }
+    }
+
+    private void unlock(int stripe) {
+        locks.set(stripe, 0);
+    }
+
+    private static final class Waiter {
+        final Thread thread;
+        // The stripe whose list holds this node, NONE when on none
+        volatile int stripe = NONE;
+        // Guarded by the lock of that stripe
+        Waiter prev;
+        Waiter next;
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
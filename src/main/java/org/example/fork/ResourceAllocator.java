@@ -0,0 +1,18 @@
+package org.example.fork;
+
+// Hands out sets of resources, all of a set or none of it, without
+// deadlocks whatever sets the tasks declare. Shared by every task
+public interface ResourceAllocator {
+
+    // Resource ids run from 0 to size - 1
+    int size();
+
+    // Blocks until the task owns every resource of the set. False means the
+    // thread was interrupted and holds nothing
+    boolean acquire(ResourceSet set, int owner);
+
+    // Never waits: the whole set, or nothing when any of it is taken
+    boolean tryAcquire(ResourceSet set, int owner);
+
+    void release(ResourceSet set, int owner);
+}
@@ -0,0 +1,40 @@
+package org.example.fork;
+
+import java.util.Arrays;
+
+// The resources one task needs at the same time, kept sorted and without
+// repeats so allocators can take them in a fixed global order. Build one per
+// task up front, acquiring with it allocates nothing
+public final class ResourceSet {
+    private final int[] ids;
+
+    private ResourceSet(int[] ids) {
+        this.ids = ids;
+    }
+
+    public static ResourceSet of(int... ids) {
+        if (ids.length == 0) {
+            throw new IllegalArgumentException("A resource set needs at least one resource");
+        }
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] < 0) {
+            throw new IllegalArgumentException("Resource ids can't be negative");
+        }
+        int distinct = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[distinct - 1]) sorted[distinct++] = sorted[i];
+        }
+        return new ResourceSet(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct));
+    }
+
+    public int size() { return ids.length; }
+    // Ascending in i
+    public int get(int i) { return ids[i]; }
+    public int max() { return ids[ids.length - 1]; }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.fork;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Fixed budget: spins, then yields, then parks
+public class SpinYieldParkWaitPolicy implements WaitPolicy {
+    static final int SPIN_LIMIT = 64;
+    static final int YIELD_LIMIT = 128;
+
+    @Override
+    public void pause(int attempt) {
+        if (attempt < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else if (attempt < YIELD_LIMIT) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(ParkWaitPolicy.PARK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.fork;
+
+import java.util.Locale;
+
+// The wait policies that can be picked from config.properties
+public enum WaitMode {
+    PARK,
+    SPIN_YIELD_PARK,
+    ADAPTIVE;
+
+    public WaitPolicy create() {
+        switch (this) {
+            case PARK: return new ParkWaitPolicy();
+            case ADAPTIVE: return new AdaptiveWaitPolicy();
+            default: return new SpinYieldParkWaitPolicy();
+        }
+    }
+
+    public static WaitMode parse(String value) {
+        return WaitMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
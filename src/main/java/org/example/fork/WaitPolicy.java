@@ -0,0 +1,23 @@
+package org.example.fork;
+
+// How a programmer waits between two tries for a busy fork. One instance is
+// shared by the whole table, so adaptive policies learn from everybody
+public interface WaitPolicy {
+
+    // Called after every failed try, attempt counts from 0 for each fork
+    void pause(int attempt);
+
+    // The same for a known resource, id being whatever the caller later
+    // passes to released. Blocking policies wait here until that release
+    default void pause(int id, int attempt) {
+        pause(attempt);
+    }
+
+    // Called once resource id is free again
+    default void released(int id) { }
+
+    // Adaptive policies want to hear how long forks were held
+    default boolean tracksHoldTimes() { return false; }
+
+    default void held(long nanos) { }
+}
@@ -0,0 +1,178 @@
+package org.example.metrics;
+
+import org.example.programmer.Activity;
+import org.example.programmer.Programmer;
+import org.example.stats.PortionStats;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+// Live counters of a dinner. Programmers only add to striped LongAdders, so
+// they never fight over one cache line; everything else is read from the
+// programmers' opaque counters when somebody asks, never on the hot path
+public class DinnerMetrics implements DinnerMetricsMBean {
+    // Per-programmer values beyond this are left out, a million lines helps nobody
+    public static final int PER_PROGRAMMER_LIMIT = 1_000;
+
+    private static final DinnerMetrics DISABLED = new DinnerMetrics(false);
+
+    private final boolean enabled;
+    private final LongAdder meals = new LongAdder();
+    private final LongAdder forkWaits = new LongAdder();
+    private final LongAdder forkWaitNanos = new LongAdder();
+    private final List<List<Programmer>> tables = new CopyOnWriteArrayList<>();
+    private volatile IntSupplier food = () -> 0;
+    private volatile long startedAt = System.nanoTime();
+
+    public DinnerMetrics() {
+        this(true);
+    }
+
+    private DinnerMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Counts nothing, for dinners nobody watches
+    public static DinnerMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    // Programmers of one table, a sharded dinner adds every table
+    public void addTable(List<Programmer> programmers) {
+        if (enabled) tables.add(programmers);
+    }
+
+    public void setFoodSource(IntSupplier food) {
+        if (enabled) this.food = food;
+    }
+
+    // Starts the counters over for the next dinner
+    public void startDinner() {
+        if (!enabled) return;
+        meals.reset();
+        forkWaits.reset();
+        forkWaitNanos.reset();
+        startedAt = System.nanoTime();
+    }
+
+    public void mealEaten() {
+        if (enabled) meals.increment();
+    }
+
+    public void forkWait(long nanos) {
+        if (!enabled) return;
+        forkWaits.increment();
+        forkWaitNanos.add(nanos);
+    }
+
+    @Override
+    public long getMealsEaten() { return meals.sum(); }
+
+    // Since the current dinner started
+    @Override
+    public double getMealsPerSecond() {
+        long elapsed = System.nanoTime() - startedAt;
+        return elapsed <= 0 ? 0 : meals.sum() * 1_000_000_000.0 / elapsed;
+    }
+
+    @Override
+    public int getRemainingFood() { return food.getAsInt(); }
+
+    @Override
+    public long getForkWaits() { return forkWaits.sum(); }
+
+    @Override
+    public double getForkWaitSeconds() { return forkWaitNanos.sum() / 1_000_000_000.0; }
+
+    @Override
+    public long getMeanForkWaitMicros() {
+        long waits = forkWaits.sum();
+        return waits == 0 ? 0 : forkWaitNanos.sum() / waits / 1_000;
+    }
+
+    // Programmers queued for their forks right now
+    @Override
+    public int getWaitingForForks() {
+        int waiting = 0;
+        for (List<Programmer> table : tables) {
+            for (Programmer programmer : table) {
+                if (programmer.getActivity() == Activity.WAITING_FORKS) waiting++;
+            }
+        }
+        return waiting;
+    }
+
+    @Override
+    public int getProgrammers() {
+        int programmers = 0;
+        for (List<Programmer> table : tables) {
+            programmers += table.size();
+        }
+        return programmers;
+    }
+
+    @Override
+    public double getFairnessIndex() {
+        PortionStats portions = new PortionStats();
+        for (List<Programmer> table : tables) {
+            for (Programmer programmer : table) {
+                portions.add(programmer.getPortionsEaten());
+            }
+        }
+        return portions.getJainIndex();
+    }
+
+    @Override
+    public int[] getPortionsEaten() {
+        int[] portions = new int[Math.min(getProgrammers(), PER_PROGRAMMER_LIMIT)];
+        int i = 0;
+        for (List<Programmer> table : tables) {
+            for (Programmer programmer : table) {
+                if (i == portions.length) return portions;
+                portions[i++] = programmer.getPortionsEaten();
+            }
+        }
+        return portions;
+    }
+
+    // Prometheus text exposition format
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        metric(out, "dinner_meals_total", "counter", "Meals eaten in the current dinner", getMealsEaten());
+        metric(out, "dinner_meals_per_second", "gauge", "Meals per second since the dinner started",
+                getMealsPerSecond());
+        metric(out, "dinner_food_remaining", "gauge", "Portions left in the supply", getRemainingFood());
+        metric(out, "dinner_fork_waits_total", "counter", "Fork acquisitions", getForkWaits());
+        metric(out, "dinner_fork_wait_seconds_total", "counter", "Time spent waiting for forks",
+                getForkWaitSeconds());
+        metric(out, "dinner_programmers_waiting_forks", "gauge", "Programmers waiting for their forks",
+                getWaitingForForks());
+        metric(out, "dinner_fairness_index", "gauge", "Jain's fairness index of the portions eaten so far",
+                getFairnessIndex());
+        out.append("# HELP dinner_programmer_portions Portions eaten per programmer\n");
+        out.append("# TYPE dinner_programmer_portions gauge\n");
+        int[] portions = getPortionsEaten();
+        for (int i = 0; i < portions.length; i++) {
+            out.append("dinner_programmer_portions{programmer=\"").append(i).append("\"} ")
+                    .append(portions[i]).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void metric(StringBuilder out, String name, String type, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(' ');
+        if (value == Math.rint(value)) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.3f", value));
+        }
+        out.append('\n');
+    }
+}
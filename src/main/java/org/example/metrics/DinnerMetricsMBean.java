@@ -0,0 +1,17 @@
+package org.example.metrics;
+
+// What JConsole and other JMX clients see of a running dinner
+public interface DinnerMetricsMBean {
+    long getMealsEaten();
+    double getMealsPerSecond();
+    int getRemainingFood();
+    long getForkWaits();
+    double getForkWaitSeconds();
+    long getMeanForkWaitMicros();
+    int getWaitingForForks();
+    int getProgrammers();
+    // Jain's index over every programmer, 1 is perfectly fair
+    double getFairnessIndex();
+    // Capped at PER_PROGRAMMER_LIMIT entries
+    int[] getPortionsEaten();
+}
@@ -0,0 +1,80 @@
+package org.example.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Publishes dinner metrics as an MBean and, with a port, as a Prometheus
+// text endpoint on localhost. Scrapes only read, they never block programmers
+public class MetricsExporter implements AutoCloseable {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final DinnerMetrics metrics;
+    // Negative for no HTTP endpoint, 0 picks a free port
+    private final int port;
+    private ObjectName name;
+    private HttpServer server;
+
+    public MetricsExporter(DinnerMetrics metrics, int port) {
+        this.metrics = metrics;
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        try {
+            name = new ObjectName("org.example:type=DinnerMetrics,name=dinner-" + SEQUENCE.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register dinner metrics", e);
+        }
+        if (port < 0) return;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException | RuntimeException e) {
+            // Nobody gets an exporter to close, so the MBean must not stay behind
+            close();
+            throw e;
+        }
+        server.createContext("/metrics", exchange -> {
+            byte[] body = metrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        System.out.println("Metrics at http://" + server.getAddress().getHostString() + ":" + getPort() + "/metrics");
+    }
+
+    public ObjectName getName() { return name; }
+
+    // The bound port, -1 without an endpoint
+    public int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone, nothing left to clean up
+            }
+            name = null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.programmer;
+
+// What a programmer is doing right now, for diagnostics only
+public enum Activity {
+    IDLE,
+    WAITING_TURN,
+    TAKING_FOOD,
+    WAITING_FORKS,
+    EATING,
+    THINKING,
+    DONE
+}
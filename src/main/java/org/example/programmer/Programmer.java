@@ -1,49 +1,101 @@
 package org.example.programmer;
 
-import org.example.fork.Fork;
+import org.example.fairness.FairnessPolicy;
+import org.example.food.FoodDispenser;
+import org.example.food.FoodSource;
+import org.example.food.PortionBatch;
+import org.example.fork.ForkAcquisitionStrategy;
+import org.example.fork.ForkTable;
+import org.example.fork.OrderedForkStrategy;
+import org.example.metrics.DinnerMetrics;
+import org.example.stats.LatencyHistogram;
+import org.example.trace.TraceOp;
+import org.example.trace.TraceSink;
 import java.lang.*;
-import java.util.HashMap;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Semaphore;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class Programmer implements Runnable  {
 
+    // Opaque access lets the watchdog sample progress without fences on the hot path
+    private static final VarHandle PORTIONS_EATEN;
+    private static final VarHandle ACTIVITY;
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PORTIONS_EATEN = lookup.findVarHandle(Programmer.class, "portionsEaten", int.class);
+            ACTIVITY = lookup.findVarHandle(Programmer.class, "activity", Activity.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     // Resources of the thread
     private final int id;
-    final HashMap<Integer, Fork> userForks;
+    private final int seat;
+    // True while the strategy has granted the seat's forks
+    private boolean holdingForks;
     private int portionsEaten;
-    private final Semaphore availableForks;
+    private Activity activity = Activity.IDLE;
+    private final PortionBatch food;
+    private WorkModel eatModel = new SleepWork(TimeUnit.MILLISECONDS.toNanos(10), false);
+    private WorkModel thinkModel = WorkModel.NONE;
+    // Written only by the programmer's own thread, merged after the dinner
+    private LatencyHistogram forkWait = new LatencyHistogram();
+    private LatencyHistogram eatTime = new LatencyHistogram();
+    private LatencyHistogram foodWait = new LatencyHistogram();
 
     // Mutual resources shared between threads
-    private final BlockingQueue<Fork> forks;
-    private final AtomicInteger foodLeft;
+    private final ForkAcquisitionStrategy strategy;
+    private FairnessPolicy fairness = FairnessPolicy.NONE;
+    private DinnerMetrics metrics = DinnerMetrics.disabled();
+    private TraceSink trace = TraceSink.NONE;
+
+    // A programmer eating alone from its own supply
+    public Programmer(
+            int id,
+            ForkTable forks,
+            AtomicInteger foodLeft
+    ) {
+        this(id, forks, new FoodDispenser(foodLeft, 1));
+    }
 
     public Programmer(
             int id,
-            BlockingQueue<Fork> forks,
-            AtomicInteger foodLeft,
-            Semaphore availableForks
+            ForkTable forks,
+            FoodSource foodSource
+    ) {
+        this(id, new OrderedForkStrategy(forks), foodSource);
+    }
+
+    public Programmer(
+            int id,
+            ForkAcquisitionStrategy strategy,
+            FoodSource foodSource
     ) {
         // Resources of the thread
         this.id = id;
-        this.userForks = new HashMap<>();
+        this.seat = strategy.table().seatOf(id);
         this.portionsEaten = 0;
-        this.availableForks = availableForks;
+        this.food = new PortionBatch(foodSource);
 
         // Mutual resources shared between threads
-        this.forks = forks;
-        this.foodLeft = foodLeft;
+        this.strategy = strategy;
     }
 
+    // Safe to run on a virtual thread: nothing here uses synchronized or native
+    // frames, fork waiting parks and Thread.sleep unmounts the carrier
     @Override
     public void run() {
         try {
-            // Trying to eat while food is here
-            while (takeOnePortionIfAvailable()) {
+            // Waiting for the hungrier ones first, then trying to eat while food is here
+            while (waitForTurn() && takeOnePortionIfAvailable()) {
                 boolean ate = false;
+                setActivity(Activity.WAITING_FORKS);
                 // Trying while the programmer eat
-                while (!ate) {
+                while (!ate && !Thread.currentThread().isInterrupted()) {
                     // If grabbed forks - eat
                     if (grabForks()) {
                         try {
@@ -54,49 +106,126 @@ public class Programmer implements Runnable  {
                         }
                     }
                 }
+                if (!ate) {
+                    // Interrupted: the portion was taken but never eaten
+                    food.putBack();
+                    trace.record(id, TraceOp.PUT_BACK);
+                    return;
+                }
+                fairness.ate(id, portionsEaten);
+                discussTeachers();
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            food.giveBack();
+            fairness.leave(id);
+            setActivity(Activity.DONE);
         }
     }
 
-    private boolean takeOnePortionIfAvailable() {
-        int cur = foodLeft.get();
-        // No food available - stop
-        if (cur <= 0) return false;
-        if (foodLeft.compareAndSet(cur, cur - 1)) return true;
-        return false;
+    // Always true once it returns, blocked programmers wait in here
+    private boolean waitForTurn() throws InterruptedException {
+        if (!fairness.mayEat(id, portionsEaten)) {
+            setActivity(Activity.WAITING_TURN);
+            // Reserved portions go back so the hungrier ones can have them meanwhile
+            food.giveBack();
+            fairness.awaitTurn(id, portionsEaten);
+        }
+        return true;
+    }
+
+    // Served from the reserved batch, so the shared counter is only hit on refill
+    boolean takeOnePortionIfAvailable() {
+        setActivity(Activity.TAKING_FOOD);
+        long start = System.nanoTime();
+        boolean taken = food.takeOne();
+        foodWait.record(System.nanoTime() - start);
+        if (taken) trace.record(id, TraceOp.TAKE_FOOD);
+        return taken;
+    }
+
+    // Ready for another dinner on the same table, only while not running
+    public void reset() {
+        portionsEaten = 0;
+        activity = Activity.IDLE;
+        holdingForks = false;
+        food.reset();
+        forkWait.reset();
+        eatTime.reset();
+        foodWait.reset();
     }
 
     public int getProgId(){ return this.id; }
-    public int getPortionsEaten(){ return this.portionsEaten; }
+    public int getSeat(){ return this.seat; }
+    // Safe to call from other threads while the programmer runs, may be slightly stale
+    public int getPortionsEaten(){ return (int) PORTIONS_EATEN.getOpaque(this); }
+    public Activity getActivity(){ return (Activity) ACTIVITY.getOpaque(this); }
+    public LatencyHistogram getForkWait(){ return this.forkWait; }
+    public LatencyHistogram getEatTime(){ return this.eatTime; }
+    public LatencyHistogram getFoodWait(){ return this.foodWait; }
 
-    private boolean grabForks() {
-        try {
-            availableForks.acquire(2);
-            Fork first = forks.take();
-            Fork second = forks.take();
-            userForks.put(1, first);
-            userForks.put(2, second);
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
-        }
+    // Three histograms per programmer add up at a million seats, so they can be
+    // turned off. They stay here rather than in table-wide arrays: every
+    // programmer has its own thread, whose stack outweighs them, and tables
+    // that size are served by the async engine, which keeps no object per seat
+    public void setLatencyHistograms(boolean enabled) {
+        if (enabled == forkWait.isEnabled()) return;
+        forkWait = enabled ? new LatencyHistogram() : LatencyHistogram.disabled();
+        eatTime = enabled ? new LatencyHistogram() : LatencyHistogram.disabled();
+        foodWait = enabled ? new LatencyHistogram() : LatencyHistogram.disabled();
+    }
+
+    // WorkModel.NONE turns a phase into a no-op, to load-test the synchronization alone
+    public void setEatModel(WorkModel eatModel) { this.eatModel = eatModel; }
+    public void setThinkModel(WorkModel thinkModel) { this.thinkModel = thinkModel; }
+    public void setFairness(FairnessPolicy fairness) { this.fairness = fairness; }
+    public void setMetrics(DinnerMetrics metrics) { this.metrics = metrics; }
+    public void setTrace(TraceSink trace) { this.trace = trace; }
+
+    // How the forks are taken is up to the strategy, the programmer only
+    // keeps track of what it holds
+    boolean grabForks() {
+        long start = System.nanoTime();
+        boolean grabbed = strategy.acquire(seat, id);
+        long waited = System.nanoTime() - start;
+        forkWait.record(waited);
+        metrics.forkWait(waited);
+        if (!grabbed) return false;
+        trace.record(id, TraceOp.ACQUIRE_FORKS);
+        holdingForks = true;
+        return true;
+    }
+
+    void releaseForks() {
+        if (!holdingForks) return;
+        trace.record(id, TraceOp.RELEASE_FORKS);
+        holdingForks = false;
+        strategy.release(seat, id);
     }
 
-    private void releaseForks() throws InterruptedException {
-        Fork first = userForks.remove(1);
-        Fork second = userForks.remove(2);
-        if (first != null) forks.put(first);
-        if (second != null) forks.put(second);
-        availableForks.release(2);
+    boolean holdsForks() {
+        return holdingForks;
     }
 
     private void EatDinnder() throws InterruptedException {
+        setActivity(Activity.EATING);
+        long start = System.nanoTime();
         // Increment the eaten portions
-        this.portionsEaten++;
+        PORTIONS_EATEN.setOpaque(this, portionsEaten + 1);
+        metrics.mealEaten();
         // We are eating
-        Thread.sleep(10);
+        eatModel.work();
+        eatTime.record(System.nanoTime() - start);
+    }
+
+    // Between meals, with both forks back on the table
+    private void discussTeachers() throws InterruptedException {
+        setActivity(Activity.THINKING);
+        thinkModel.work();
+    }
+
+    private void setActivity(Activity activity) {
+        ACTIVITY.setOpaque(this, activity);
     }
-}
\ No newline at end of file
+}
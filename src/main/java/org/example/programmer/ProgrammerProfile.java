@@ -0,0 +1,41 @@
+package org.example.programmer;
+
+import java.util.Objects;
+
+// A priority class of programmers: how much food they are owed relative to
+// the others, how many of every round of seats they take and how they eat
+public final class ProgrammerProfile {
+    private final String name;
+    private final int weight;
+    private final int seats;
+    private final WorkModelType eatModel;
+    private final long eatNanos;
+
+    public ProgrammerProfile(String name, int weight, int seats, WorkModelType eatModel, long eatNanos) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Profile needs a name");
+        }
+        if (weight <= 0 || seats <= 0) {
+            throw new IllegalArgumentException("Weight and seats of profile " + name + " must be positive");
+        }
+        if (eatNanos < 0) {
+            throw new IllegalArgumentException("Eat time of profile " + name + " can't be negative");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.seats = seats;
+        this.eatModel = Objects.requireNonNull(eatModel);
+        this.eatNanos = eatNanos;
+    }
+
+    public String getName() { return name; }
+    public int getWeight() { return weight; }
+    public int getSeats() { return seats; }
+    public WorkModelType getEatModel() { return eatModel; }
+    public long getEatNanos() { return eatNanos; }
+
+    @Override
+    public String toString() {
+        return name + "(weight " + weight + ", seats " + seats + ", " + eatModel + " " + eatNanos + " ns)";
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.programmer;
+
+import org.example.stats.ClassStats;
+import org.example.stats.PortionStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// The profiles programmers are seated by. Every round of seats holds each
+// profile as many times as its seats share, spread out rather than in blocks,
+// and the rounds repeat around the table: programmer id i belongs to
+// profile pattern[i % pattern.length]. No profiles puts everybody in class 0
+public final class ProgrammerProfiles {
+    // Keeps the seat pattern, and the per-seat arrays built from it, small
+    static final int MAX_ROUND = 1 << 16;
+
+    private static final ProgrammerProfiles NONE = new ProgrammerProfiles(List.of());
+
+    private final List<ProgrammerProfile> profiles;
+    private final int[] pattern;
+
+    private ProgrammerProfiles(List<ProgrammerProfile> profiles) {
+        this.profiles = profiles;
+        this.pattern = interleave(profiles);
+    }
+
+    public static ProgrammerProfiles none() {
+        return NONE;
+    }
+
+    public static ProgrammerProfiles of(List<ProgrammerProfile> profiles) {
+        if (profiles.isEmpty()) return NONE;
+        long round = 0;
+        for (int i = 0; i < profiles.size(); i++) {
+            round += profiles.get(i).getSeats();
+            for (int j = 0; j < i; j++) {
+                if (profiles.get(j).getName().equals(profiles.get(i).getName())) {
+                    throw new IllegalArgumentException("Profile " + profiles.get(i).getName() + " given twice");
+                }
+            }
+        }
+        if (round > MAX_ROUND) {
+            throw new IllegalArgumentException("Profiles take " + round + " seats a round, at most "
+                    + MAX_ROUND + " allowed");
+        }
+        return new ProgrammerProfiles(List.copyOf(profiles));
+    }
+
+    //   profiles=senior,junior
+    //   profile.senior.weight=3
+    //   profile.senior.seats=1
+    //   profile.senior.eat_model=exponential
+    //   profile.senior.eat_nanos=5000000
+    // A missing weight or seats share is 1, a missing eat setting the table's
+    public static ProgrammerProfiles fromProperties(Properties props, WorkModelType eatModel, long eatNanos) {
+        String names = props.getProperty("profiles", "").trim();
+        if (names.isEmpty()) return NONE;
+        List<ProgrammerProfile> profiles = new ArrayList<>();
+        for (String name : names.split(",")) {
+            name = name.trim();
+            String prefix = "profile." + name + ".";
+            profiles.add(new ProgrammerProfile(name,
+                    Integer.parseInt(props.getProperty(prefix + "weight", "1").trim()),
+                    Integer.parseInt(props.getProperty(prefix + "seats", "1").trim()),
+                    WorkModelType.parse(props.getProperty(prefix + "eat_model", eatModel.name())),
+                    Long.parseLong(props.getProperty(prefix + "eat_nanos", String.valueOf(eatNanos)).trim())));
+        }
+        return of(profiles);
+    }
+
+    // The keys fromProperties reads
+    public void writeTo(Properties props) {
+        List<String> names = new ArrayList<>();
+        for (ProgrammerProfile profile : profiles) {
+            String prefix = "profile." + profile.getName() + ".";
+            names.add(profile.getName());
+            props.setProperty(prefix + "weight", String.valueOf(profile.getWeight()));
+            props.setProperty(prefix + "seats", String.valueOf(profile.getSeats()));
+            props.setProperty(prefix + "eat_model", profile.getEatModel().name());
+            props.setProperty(prefix + "eat_nanos", String.valueOf(profile.getEatNanos()));
+        }
+        props.setProperty("profiles", String.join(",", names));
+    }
+
+    public boolean isEmpty() { return profiles.isEmpty(); }
+    public int size() { return profiles.size(); }
+    public ProgrammerProfile get(int index) { return profiles.get(index); }
+
+    // Index of the programmer's profile, 0 when there are none
+    public int indexOf(int programmerId) {
+        return pattern.length == 0 ? 0 : pattern[Math.floorMod(programmerId, pattern.length)];
+    }
+
+    // Weight of every seat of a round, for FairnessMode.create; null when unweighted
+    public int[] getWeights() {
+        if (profiles.isEmpty()) return null;
+        int[] weights = new int[pattern.length];
+        for (int i = 0; i < pattern.length; i++) {
+            weights[i] = profiles.get(pattern[i]).getWeight();
+        }
+        return weights;
+    }
+
+    // Room for the portions of every class, see classStats
+    public PortionStats[] newClassPortions() {
+        PortionStats[] portions = new PortionStats[Math.max(1, profiles.size())];
+        for (int i = 0; i < portions.length; i++) {
+            portions[i] = new PortionStats();
+        }
+        return portions;
+    }
+
+    // Portions of programmers firstId, firstId + 1, ... split by class
+    public List<ClassStats> classStats(int[] eaten, int firstId, long elapsedNanos) {
+        PortionStats[] portions = newClassPortions();
+        for (int i = 0; i < eaten.length; i++) {
+            portions[indexOf(firstId + i)].add(eaten[i]);
+        }
+        return classStats(portions, elapsedNanos);
+    }
+
+    // One entry per profile, none without profiles
+    public List<ClassStats> classStats(PortionStats[] portions, long elapsedNanos) {
+        if (profiles.isEmpty()) return List.of();
+        long meals = 0;
+        double weight = 0;
+        for (int i = 0; i < profiles.size(); i++) {
+            meals += portions[i].getMeals();
+            weight += (double) profiles.get(i).getWeight() * portions[i].getProgrammers();
+        }
+        List<ClassStats> classes = new ArrayList<>(profiles.size());
+        for (int i = 0; i < profiles.size(); i++) {
+            ProgrammerProfile profile = profiles.get(i);
+            classes.add(new ClassStats(profile.getName(), profile.getWeight(), portions[i], elapsedNanos,
+                    meals == 0 ? 0 : (double) portions[i].getMeals() / meals,
+                    weight == 0 ? 0 : profile.getWeight() * portions[i].getProgrammers() / weight));
+        }
+        return classes;
+    }
+
+    @Override
+    public String toString() {
+        return profiles.isEmpty() ? "none" : profiles.toString();
+    }
+
+    // Smooth weighted round-robin over the seats shares: each slot goes to the
+    // profile furthest behind its share, so 3:1 seats a, a, b, a rather than a, a, a, b
+    private static int[] interleave(List<ProgrammerProfile> profiles) {
+        int round = 0;
+        for (ProgrammerProfile profile : profiles) {
+            round += profile.getSeats();
+        }
+        int[] pattern = new int[round];
+        int[] credit = new int[profiles.size()];
+        for (int slot = 0; slot < round; slot++) {
+            int best = 0;
+            for (int i = 0; i < credit.length; i++) {
+                credit[i] += profiles.get(i).getSeats();
+                if (credit[i] > credit[best]) best = i;
+            }
+            credit[best] -= round;
+            pattern[slot] = best;
+        }
+        return pattern;
+    }
+}
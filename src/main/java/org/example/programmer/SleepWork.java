@@ -0,0 +1,33 @@
+package org.example.programmer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Sleeps either a fixed time or an exponentially distributed time with the
+// given mean, the way independent service times usually look
+public class SleepWork implements WorkModel {
+    private final long nanos;
+    private final boolean exponential;
+
+    public SleepWork(long nanos, boolean exponential) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Work time can't be negative");
+        }
+        this.nanos = nanos;
+        this.exponential = exponential;
+    }
+
+    @Override
+    public void work() throws InterruptedException {
+        long duration = exponential ? nextExponential() : nanos;
+        if (duration > 0) {
+            TimeUnit.NANOSECONDS.sleep(duration);
+        }
+    }
+
+    private long nextExponential() {
+        // Inverse transform sampling, 1 - u keeps the logarithm finite
+        double u = ThreadLocalRandom.current().nextDouble();
+        return (long) (-nanos * Math.log(1.0 - u));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.programmer;
+
+// Burns CPU for about the given time instead of sleeping, so the thread stays
+// on its core the way real computation would. The loop speed is measured once
+// per JVM and the work is then done by iteration count, not by polling a clock
+public class SpinWork implements WorkModel {
+    private final long iterations;
+
+    // Keeps the JIT from dropping the loop as dead code. Only written when the
+    // result happens to be 0, so programmers never fight over its cache line
+    private static volatile long sink;
+
+    public SpinWork(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Work time can't be negative");
+        }
+        this.iterations = (long) (nanos * Calibration.ITERATIONS_PER_NANO);
+    }
+
+    @Override
+    public void work() {
+        if (spin(iterations, System.nanoTime()) == 0) sink = 0;
+    }
+
+    long getIterations() { return iterations; }
+
+    // xorshift steps: cheap, dependent on each other, impossible to fold away
+    static long spin(long iterations, long seed) {
+        long x = seed | 1;
+        for (long i = 0; i < iterations; i++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        return x;
+    }
+
+    // Lazily measured on first use, after a short warm-up for the JIT
+    private static final class Calibration {
+        static final double ITERATIONS_PER_NANO = measure();
+
+        private static double measure() {
+            long probe = 1_000_000;
+            for (int i = 0; i < 5; i++) {
+                sink = spin(probe, sink);
+            }
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < 5; i++) {
+                long start = System.nanoTime();
+                sink = spin(probe, sink);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            return (double) probe / Math.max(best, 1);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.programmer;
+
+// How long eating or thinking takes. Called on the programmer's own thread
+public interface WorkModel {
+    WorkModel NONE = () -> { };
+
+    void work() throws InterruptedException;
+}
@@ -0,0 +1,38 @@
+package org.example.programmer;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+// The work models that can be picked from config.properties
+public enum WorkModelType {
+    ZERO,
+    FIXED,
+    EXPONENTIAL,
+    SPIN;
+
+    public WorkModel create(long nanos) {
+        switch (this) {
+            case FIXED: return new SleepWork(nanos, false);
+            case EXPONENTIAL: return new SleepWork(nanos, true);
+            case SPIN: return new SpinWork(nanos);
+            default: return WorkModel.NONE;
+        }
+    }
+
+    // How long one piece of work would take, for simulations on a virtual clock
+    public long sample(long nanos, RandomGenerator random) {
+        switch (this) {
+            case FIXED:
+            case SPIN:
+                return nanos;
+            case EXPONENTIAL:
+                return (long) (-nanos * Math.log(1.0 - random.nextDouble()));
+            default:
+                return 0;
+        }
+    }
+
+    public static WorkModelType parse(String value) {
+        return WorkModelType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,357 @@
+package org.example.sim;
+
+import org.example.dinner.DinnerConfig;
+import org.example.dinner.DinnerRunner;
+import org.example.fairness.BoundedSpreadPolicy;
+import org.example.fairness.FairnessMode;
+import org.example.food.FoodDispenser;
+import org.example.food.PortionBatch;
+import org.example.fork.Fork;
+import org.example.fork.ForkTable;
+import org.example.stats.ClassStats;
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+import org.example.stats.PortionStats;
+import org.example.trace.InterleavingTrace;
+import org.example.trace.TraceOp;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A dinner on one thread and a virtual clock. Programmers follow the rules
+// of the ordered strategy on a real ForkTable, take food through real
+// PortionBatches and eat and think for durations sampled from the configured
+// work models. Whenever several programmers act at the same instant a seeded
+// random order decides, so the same seed always gives the same interleaving
+// and another seed explores a different one. No time passes for real, which
+// makes millions of meals per second possible
+public class DinnerSimulation implements DinnerRunner {
+    private static final int READY = 0;
+    private static final int WAITING_FORK = 1;
+    private static final int WAITING_TURN = 2;
+    private static final int EATING = 3;
+    private static final int DONE = 4;
+    private static final int NONE = -1;
+
+    private final DinnerConfig config;
+    private final int programmersCount;
+    private final long seed;
+    private InterleavingTrace trace;
+    // Every served dinner uses the next seed, so iterations differ but repeat
+    private long dinners;
+
+    // Per programmer, indexed by id which is also the seat
+    private final int[] state;
+    private final int[] eaten;
+    private final int[] heldForks;
+    private final boolean[] hasPortion;
+    private final long[] tryingSince;
+    private final long[] eatDuration;
+    private final PortionBatch[] batches;
+    // Programmers waiting for a fork form a list per fork
+    private final int[] waitHead;
+    private final int[] nextWaiter;
+    // Programmers held back by the fairness bound
+    private final int[] turnWaiters;
+    private int turnWaitersCount;
+    // Units a meal counts for under weighted_fair, by id around the table; null
+    // counts every meal as one. The spread is in the same units
+    private final long[] mealUnits;
+    private final long spread;
+    private final EventQueue events;
+
+    private SplittableRandom random;
+    private ForkTable forks;
+    private long now;
+    private long floor;
+
+    public DinnerSimulation(DinnerConfig config, int programmersCount, long seed) {
+        if (programmersCount <= 0) {
+            throw new IllegalArgumentException("Amount can't be negative");
+        }
+        this.config = config;
+        this.programmersCount = programmersCount;
+        this.seed = seed;
+        this.state = new int[programmersCount];
+        this.eaten = new int[programmersCount];
+        this.heldForks = new int[programmersCount];
+        this.hasPortion = new boolean[programmersCount];
+        this.tryingSince = new long[programmersCount];
+        this.eatDuration = new long[programmersCount];
+        this.batches = new PortionBatch[programmersCount];
+        this.waitHead = new int[programmersCount];
+        this.nextWaiter = new int[programmersCount];
+        this.turnWaiters = new int[programmersCount];
+        this.events = new EventQueue(programmersCount);
+        int[] weights = config.getProfiles().getWeights();
+        if (config.getFairnessMode() == FairnessMode.WEIGHTED_FAIR && weights != null) {
+            this.mealUnits = BoundedSpreadPolicy.mealUnits(weights);
+            this.spread = config.getMaxSpread() * mealUnits[0] * weights[0];
+        } else {
+            this.mealUnits = null;
+            this.spread = config.getMaxSpread();
+        }
+        if (!config.getTraceFile().isEmpty()) {
+            trace = new InterleavingTrace(config.getTraceCapacity());
+        }
+    }
+
+    // Records every fork and food operation on the virtual clock
+    public void setTrace(InterleavingTrace trace) { this.trace = trace; }
+
+    // Portions the programmer ate in the last run
+    public int getPortionsEaten(int id) { return eaten[id]; }
+
+    @Override
+    public DinnerStats serve(AtomicInteger foodCount) {
+        long dinnerSeed = seed + dinners++;
+        DinnerStats stats = run(foodCount.get(), dinnerSeed);
+        foodCount.set(0);
+        System.out.println("Dinner is over!");
+        System.out.println("Seed: " + dinnerSeed);
+        if (trace != null) {
+            trace.save(config.getTraceFile());
+            System.out.println("Trace: " + trace + " in " + config.getTraceFile());
+        }
+        System.out.println(stats);
+        for (ClassStats group : stats.getClasses()) {
+            System.out.println(group);
+        }
+        if (config.isLatencyHistograms()) {
+            System.out.println("Fork wait: " + stats.getForkWait().toPercentileString());
+            System.out.println("Eat time: " + stats.getEatTime().toPercentileString());
+        }
+        System.out.println("--------------------------------------------------------------------");
+        return stats;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public DinnerStats run(int food) {
+        return run(food, seed);
+    }
+
+    private DinnerStats run(int food, long seed) {
+        if (food < programmersCount) {
+            throw new IllegalArgumentException("Some of programmers would still be hungry");
+        }
+        random = new SplittableRandom(seed);
+        forks = new ForkTable(programmersCount);
+        FoodDispenser dispenser = new FoodDispenser(new AtomicInteger(food), programmersCount);
+        LatencyHistogram forkWait = new LatencyHistogram();
+        LatencyHistogram eatTime = new LatencyHistogram();
+        now = 0;
+        floor = 0;
+        turnWaitersCount = 0;
+        if (trace != null) trace.start(programmersCount, food);
+        for (int p = 0; p < programmersCount; p++) {
+            state[p] = READY;
+            eaten[p] = 0;
+            heldForks[p] = 0;
+            hasPortion[p] = false;
+            batches[p] = new PortionBatch(dispenser);
+            waitHead[p] = NONE;
+            nextWaiter[p] = NONE;
+            schedule(p, 0);
+        }
+
+        long meals = 0;
+        while (!events.isEmpty()) {
+            int p = events.poll();
+            now = events.timeOf(p);
+            if (state[p] == EATING) {
+                finishMeal(p, eatTime);
+            } else {
+                if (attempt(p, forkWait)) meals++;
+            }
+        }
+        for (int p = 0; p < programmersCount; p++) {
+            if (state[p] != DONE) {
+                throw new IllegalStateException("Simulation stuck, programmer " + p + " never finished");
+            }
+        }
+
+        return new DinnerStats("SIMULATED", config.getFairnessMode().name(), programmersCount,
+                meals, now, PortionStats.of(eaten), forkWait, eatTime, new LatencyHistogram(),
+                config.getProfiles().classStats(eaten, 0, now));
+    }
+
+    // One try to sit down and eat, true when the programmer started eating
+    private boolean attempt(int p, LatencyHistogram forkWait) {
+        if (!hasPortion[p]) {
+            if (!mayEat(p)) {
+                // As Programmer.waitForTurn: reserved portions go back so the hungrier ones can have them
+                batches[p].giveBack();
+                state[p] = WAITING_TURN;
+                turnWaiters[turnWaitersCount++] = p;
+                return false;
+            }
+            if (!batches[p].takeOne()) {
+                leave(p);
+                return false;
+            }
+            hasPortion[p] = true;
+            tryingSince[p] = now;
+            record(p, TraceOp.TAKE_FOOD);
+        }
+        // Resource ordering, as in OrderedForkStrategy: lower fork first
+        Fork left = forks.leftOf(p);
+        Fork right = forks.rightOf(p);
+        Fork first = left.compareTo(right) <= 0 ? left : right;
+        Fork second = first == left ? right : left;
+        if (heldForks[p] == 0) {
+            if (!first.tryAcquire(p)) {
+                waitFor(p, first);
+                return false;
+            }
+            heldForks[p] = 1;
+        }
+        if (second != first && heldForks[p] == 1) {
+            if (!second.tryAcquire(p)) {
+                waitFor(p, second);
+                return false;
+            }
+        }
+        heldForks[p] = 2;
+        record(p, TraceOp.ACQUIRE_FORKS);
+        forkWait.record(now - tryingSince[p]);
+        state[p] = EATING;
+        eaten[p]++;
+        eatDuration[p] = config.eatModelOf(p).sample(config.eatNanosOf(p), random);
+        schedule(p, now + eatDuration[p]);
+        return true;
+    }
+
+    private void finishMeal(int p, LatencyHistogram eatTime) {
+        record(p, TraceOp.RELEASE_FORKS);
+        Fork left = forks.leftOf(p);
+        Fork right = forks.rightOf(p);
+        left.release(p);
+        if (right != left) right.release(p);
+        heldForks[p] = 0;
+        hasPortion[p] = false;
+        eatTime.record(eatDuration[p]);
+        wakeWaiters(left.getId());
+        if (right != left) wakeWaiters(right.getId());
+        wakeTurnWaiters();
+        state[p] = READY;
+        schedule(p, now + config.getThinkModel().sample(config.getThinkNanos(), random));
+    }
+
+    private void leave(int p) {
+        state[p] = DONE;
+        batches[p].giveBack();
+        // The floor may rise without this one
+        wakeTurnWaiters();
+    }
+
+    // Exact version of BoundedSpreadPolicy: with one thread the floor is
+    // simply the least fed programmer still at the table
+    private boolean mayEat(int p) {
+        if (config.getFairnessMode() == FairnessMode.NONE) return true;
+        if (units(p) < floor + spread) return true;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < programmersCount; i++) {
+            if (state[i] != DONE) min = Math.min(min, units(i));
+        }
+        floor = min;
+        return units(p) < floor + spread;
+    }
+
+    private long units(int p) {
+        return mealUnits == null ? eaten[p] : eaten[p] * mealUnits[p % mealUnits.length];
+    }
+
+    private void waitFor(int p, Fork fork) {
+        state[p] = WAITING_FORK;
+        nextWaiter[p] = waitHead[fork.getId()];
+        waitHead[fork.getId()] = p;
+    }
+
+    private void wakeWaiters(int forkId) {
+        int p = waitHead[forkId];
+        waitHead[forkId] = NONE;
+        while (p != NONE) {
+            int next = nextWaiter[p];
+            nextWaiter[p] = NONE;
+            state[p] = READY;
+            schedule(p, now);
+            p = next;
+        }
+    }
+
+    private void wakeTurnWaiters() {
+        for (int i = 0; i < turnWaitersCount; i++) {
+            int p = turnWaiters[i];
+            state[p] = READY;
+            schedule(p, now);
+        }
+        turnWaitersCount = 0;
+    }
+
+    private void schedule(int p, long time) {
+        events.add(p, time, random.nextLong());
+    }
+
+    private void record(int p, TraceOp op) {
+        if (trace != null) trace.recordAt(p, op, now);
+    }
+
+    // Min-heap of programmers by event time, ties broken by a random key.
+    // Every programmer has at most one pending event, so ids are the entries
+    private static final class EventQueue {
+        private final int[] heap;
+        private final long[] time;
+        private final long[] order;
+        private int size;
+
+        EventQueue(int capacity) {
+            heap = new int[capacity];
+            time = new long[capacity];
+            order = new long[capacity];
+        }
+
+        boolean isEmpty() { return size == 0; }
+        long timeOf(int p) { return time[p]; }
+
+        void add(int p, long at, long tieBreak) {
+            time[p] = at;
+            order[p] = tieBreak;
+            int i = size++;
+            heap[i] = p;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(heap[i], heap[parent])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        int poll() {
+            int top = heap[0];
+            heap[0] = heap[--size];
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) break;
+                int child = left + 1 < size && before(heap[left + 1], heap[left]) ? left + 1 : left;
+                if (!before(heap[child], heap[i])) break;
+                swap(i, child);
+                i = child;
+            }
+            return top;
+        }
+
+        private boolean before(int a, int b) {
+            return time[a] != time[b] ? time[a] < time[b] : order[a] < order[b];
+        }
+
+        private void swap(int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.stats;
+
+import java.util.Locale;
+
+// What one priority class of programmers got out of a dinner. Under a
+// weighted-fair scheduler its share of the meals follows its share of the weight
+public class ClassStats {
+    private final String name;
+    private final int weight;
+    private final PortionStats portions;
+    private final long elapsedNanos;
+    private final double mealShare;
+    private final double weightShare;
+
+    public ClassStats(String name, int weight, PortionStats portions, long elapsedNanos,
+                      double mealShare, double weightShare) {
+        this.name = name;
+        this.weight = weight;
+        this.portions = portions;
+        this.elapsedNanos = elapsedNanos;
+        this.mealShare = mealShare;
+        this.weightShare = weightShare;
+    }
+
+    public String getName() { return name; }
+    public int getWeight() { return weight; }
+    public PortionStats getPortions() { return portions; }
+    public long getProgrammers() { return portions.getProgrammers(); }
+    public long getMeals() { return portions.getMeals(); }
+    // Of all the meals eaten at the table
+    public double getMealShare() { return mealShare; }
+    // Weight of the whole class over the weight of everybody
+    public double getWeightShare() { return weightShare; }
+
+    // Meals per second of wall time
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : portions.getMeals() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    // Meals of an average member per unit of weight, equal across classes when food follows weight
+    public double getMealsPerWeight() {
+        return portions.getMean() / weight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Class %s: weight %d, %d programmers, throughput=%.0f meals/s, %.1f%% of the meals for %.1f%% of the weight, %s",
+                name, weight, getProgrammers(), getThroughput(), mealShare * 100, weightShare * 100, portions);
+    }
+}
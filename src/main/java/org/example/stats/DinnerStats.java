@@ -0,0 +1,85 @@
+package org.example.stats;
+
+import java.util.List;
+
+// Outcome of one dinner
+public class DinnerStats {
+    private final String strategy;
+    private final String fairness;
+    private final int programmers;
+    private final long mealsEaten;
+    private final long elapsedNanos;
+    private final PortionStats portions;
+    private final LatencyHistogram forkWait;
+    private final LatencyHistogram eatTime;
+    private final LatencyHistogram foodWait;
+    // One per programmer profile, empty when everybody is alike
+    private final List<ClassStats> classes;
+
+    public DinnerStats(
+            String strategy,
+            String fairness,
+            int programmers,
+            long mealsEaten,
+            long elapsedNanos,
+            PortionStats portions,
+            LatencyHistogram forkWait,
+            LatencyHistogram eatTime,
+            LatencyHistogram foodWait
+    ) {
+        this(strategy, fairness, programmers, mealsEaten, elapsedNanos, portions, forkWait, eatTime, foodWait,
+                List.of());
+    }
+
+    public DinnerStats(
+            String strategy,
+            String fairness,
+            int programmers,
+            long mealsEaten,
+            long elapsedNanos,
+            PortionStats portions,
+            LatencyHistogram forkWait,
+            LatencyHistogram eatTime,
+            LatencyHistogram foodWait,
+            List<ClassStats> classes
+    ) {
+        this.strategy = strategy;
+        this.fairness = fairness;
+        this.programmers = programmers;
+        this.mealsEaten = mealsEaten;
+        this.elapsedNanos = elapsedNanos;
+        this.portions = portions;
+        this.forkWait = forkWait;
+        this.eatTime = eatTime;
+        this.foodWait = foodWait;
+        this.classes = List.copyOf(classes);
+    }
+
+    public String getStrategy() { return strategy; }
+    public String getFairness() { return fairness; }
+    public int getProgrammers() { return programmers; }
+    public long getMealsEaten() { return mealsEaten; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public PortionStats getPortions() { return portions; }
+    public int getMinPortions() { return portions.getMin(); }
+    public int getMaxPortions() { return portions.getMax(); }
+    public LatencyHistogram getForkWait() { return forkWait; }
+    public LatencyHistogram getEatTime() { return eatTime; }
+    public LatencyHistogram getFoodWait() { return foodWait; }
+    public List<ClassStats> getClasses() { return classes; }
+
+    // Meals per second of wall time
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : mealsEaten * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    // Difference between the most and the least fed programmer
+    public int getSpread() { return getMaxPortions() - getMinPortions(); }
+
+    @Override
+    public String toString() {
+        return String.format("Strategy: %s, fairness: %s, throughput=%.0f meals/s, fork wait p99=%d us, spread=%d, jain=%.4f",
+                strategy, fairness, getThroughput(), forkWait.percentile(99) / 1_000, getSpread(),
+                portions.getJainIndex());
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.stats;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// HDR-style histogram of nanosecond durations: every power of two is split
+// into SUB_BUCKETS linear buckets, so any value is kept within 1/SUB_BUCKETS
+// of its real size. Owned by one thread while recording and merged once the
+// dinner is over, so there are no locks, no boxing and no allocation past
+// the first value
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values are tracked below 2^37 ns (about two minutes), anything longer
+    // lands in one overflow bucket while max still keeps the exact value
+    private static final int MAX_MAGNITUDE = 36;
+    private static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS + 1;
+
+    // What writeTo puts into a buffer
+    public static final int BYTES = BUCKETS * Integer.BYTES + 3 * Long.BYTES;
+
+    private static final LatencyHistogram DISABLED = new LatencyHistogram(false);
+
+    private final boolean enabled;
+    // Made on the first record, so histograms that never see a value stay small
+    private int[] counts;
+    private long totalCount;
+    private long totalNanos;
+    private long max;
+
+    public LatencyHistogram() {
+        this(true);
+    }
+
+    private LatencyHistogram(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Records nothing, for tables too large to keep a histogram per programmer
+    public static LatencyHistogram disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void record(long nanos) {
+        if (!enabled) return;
+        if (counts == null) counts = new int[BUCKETS];
+        if (nanos < 0) nanos = 0;
+        counts[bucketOf(nanos)]++;
+        totalCount++;
+        totalNanos += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (!enabled || other.counts == null) return;
+        if (counts == null) counts = new int[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        if (counts == null) return;
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalNanos = 0;
+        max = 0;
+    }
+
+    // Puts BYTES bytes at the buffer's position, e.g. for another process to merge
+    public void writeTo(ByteBuffer out) {
+        for (int i = 0; i < BUCKETS; i++) {
+            out.putInt(counts == null ? 0 : counts[i]);
+        }
+        out.putLong(totalCount).putLong(totalNanos).putLong(max);
+    }
+
+    // What writeTo wrote, always enabled
+    public static LatencyHistogram readFrom(ByteBuffer in) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.counts = new int[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.counts[i] = in.getInt();
+        }
+        histogram.totalCount = in.getLong();
+        histogram.totalNanos = in.getLong();
+        histogram.max = in.getLong();
+        return histogram;
+    }
+
+    // Upper bound of the bucket holding the given percentile, 0..100
+    public long percentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(totalCount * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getTotalCount() { return totalCount; }
+    public long getMax() { return max; }
+
+    public long getMean() {
+        return totalCount == 0 ? 0 : totalNanos / totalCount;
+    }
+
+    // p50 / p90 / p99 / p99.9 / max in microseconds
+    public String toPercentileString() {
+        return String.format("p50=%d us, p90=%d us, p99=%d us, p99.9=%d us, max=%d us",
+                percentile(50) / 1_000,
+                percentile(90) / 1_000,
+                percentile(99) / 1_000,
+                percentile(99.9) / 1_000,
+                max / 1_000);
+    }
+
+    static int bucketOf(long nanos) {
+        // Small values get one bucket each
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        if (magnitude > MAX_MAGNITUDE) return BUCKETS - 1;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (nanos >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        if (bucket == BUCKETS - 1) return Long.MAX_VALUE;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
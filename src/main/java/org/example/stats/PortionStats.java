@@ -0,0 +1,67 @@
+package org.example.stats;
+
+import java.util.Locale;
+
+// How the meals of a dinner are spread over its programmers. Stats of
+// separate groups of programmers merge exactly, so they can be built in parallel
+public class PortionStats {
+    private long programmers;
+    private long meals;
+    // A double, squares of large counts would overflow a long
+    private double sumOfSquares;
+    private int min = Integer.MAX_VALUE;
+    private int max;
+
+    public static PortionStats of(int[] portions) {
+        PortionStats stats = new PortionStats();
+        for (int eaten : portions) {
+            stats.add(eaten);
+        }
+        return stats;
+    }
+
+    public void add(int portions) {
+        programmers++;
+        meals += portions;
+        sumOfSquares += (double) portions * portions;
+        if (portions < min) min = portions;
+        if (portions > max) max = portions;
+    }
+
+    public void merge(PortionStats other) {
+        programmers += other.programmers;
+        meals += other.meals;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getProgrammers() { return programmers; }
+    public long getMeals() { return meals; }
+    public int getMin() { return programmers == 0 ? 0 : min; }
+    public int getMax() { return max; }
+
+    public double getMean() {
+        return programmers == 0 ? 0 : (double) meals / programmers;
+    }
+
+    // Population standard deviation
+    public double getStdDev() {
+        if (programmers == 0) return 0;
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, sumOfSquares / programmers - mean * mean));
+    }
+
+    // Jain's fairness index, (sum x)^2 / (n * sum x^2): 1 when everybody ate
+    // the same, 1/n when one programmer ate everything
+    public double getJainIndex() {
+        if (sumOfSquares == 0) return 1;
+        return (double) meals * meals / (programmers * sumOfSquares);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "min=%d, max=%d, mean=%.2f, stddev=%.2f, jain=%.4f",
+                getMin(), max, getMean(), getStdDev(), getJainIndex());
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.sweep;
+
+import org.example.fork.ForkStrategy;
+
+import java.util.Locale;
+import java.util.Properties;
+
+// One combination of the sweep grid
+public class SweepPoint {
+    private final int programmers;
+    private final int food;
+    private final int waiters;
+    private final ForkStrategy strategy;
+
+    public SweepPoint(int programmers, int food, int waiters, ForkStrategy strategy) {
+        this.programmers = programmers;
+        this.food = food;
+        this.waiters = waiters;
+        this.strategy = strategy;
+    }
+
+    public int getProgrammers() { return programmers; }
+    public int getFood() { return food; }
+    public int getWaiters() { return waiters; }
+    public ForkStrategy getStrategy() { return strategy; }
+
+    // The base configuration with this point's values. Points may run at the
+    // same time, so nothing that writes to a fixed file or binds a fixed port is kept
+    Properties toProperties(Properties base) {
+        Properties props = new Properties();
+        props.putAll(base);
+        props.setProperty("programmers_count", String.valueOf(programmers));
+        props.setProperty("food_count", String.valueOf(food));
+        props.setProperty("waiters_count", String.valueOf(waiters));
+        props.setProperty("fork_strategy", strategy.name().toLowerCase(Locale.ROOT));
+        props.setProperty("trace_file", "");
+        props.setProperty("event_log", "");
+        // Each shared dinner then maps a temporary table file of its own
+        props.setProperty("shared_file", "");
+        props.setProperty("metrics_port", "-1");
+        return props;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("programmers=%d, food=%d, waiters=%d, strategy=%s",
+                programmers, food, waiters, strategy);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.sweep;
+
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+
+import java.util.Locale;
+
+// The measured dinners of one sweep point, folded together
+public class SweepResult {
+    static final String CSV_HEADER = "programmers,food,waiters,strategy,parallelism,dinners,"
+            + "throughput_mean,throughput_min,throughput_max,"
+            + "fork_wait_p50_us,fork_wait_p90_us,fork_wait_p99_us,fork_wait_p999_us,fork_wait_max_us,"
+            + "food_wait_p99_us,spread_max,jain_mean,jain_min,error";
+
+    private final SweepPoint point;
+    // Points served at the same time as this one, they shared the cores
+    private final int parallelism;
+    private final LatencyHistogram forkWait = new LatencyHistogram();
+    private final LatencyHistogram foodWait = new LatencyHistogram();
+    private int dinners;
+    private double throughputSum;
+    private double throughputMin = Double.MAX_VALUE;
+    private double throughputMax;
+    private double jainSum;
+    private double jainMin = 1;
+    private int spreadMax;
+    private String error = "";
+
+    SweepResult(SweepPoint point, int parallelism) {
+        this.point = point;
+        this.parallelism = parallelism;
+    }
+
+    void add(DinnerStats stats) {
+        dinners++;
+        throughputSum += stats.getThroughput();
+        throughputMin = Math.min(throughputMin, stats.getThroughput());
+        throughputMax = Math.max(throughputMax, stats.getThroughput());
+        double jain = stats.getPortions().getJainIndex();
+        jainSum += jain;
+        jainMin = Math.min(jainMin, jain);
+        spreadMax = Math.max(spreadMax, stats.getSpread());
+        forkWait.merge(stats.getForkWait());
+        foodWait.merge(stats.getFoodWait());
+    }
+
+    void fail(String error) {
+        this.error = error == null ? "failed" : error;
+    }
+
+    public SweepPoint getPoint() { return point; }
+    public int getParallelism() { return parallelism; }
+    public int getDinners() { return dinners; }
+    public boolean isFailed() { return !error.isEmpty(); }
+    public String getError() { return error; }
+    public LatencyHistogram getForkWait() { return forkWait; }
+    public int getSpreadMax() { return spreadMax; }
+
+    public double getThroughputMean() { return dinners == 0 ? 0 : throughputSum / dinners; }
+    public double getThroughputMin() { return dinners == 0 ? 0 : throughputMin; }
+    public double getThroughputMax() { return throughputMax; }
+    public double getJainMean() { return dinners == 0 ? 0 : jainSum / dinners; }
+    public double getJainMin() { return dinners == 0 ? 0 : jainMin; }
+
+    String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%s,%d,%d,%.1f,%.1f,%.1f,%d,%d,%d,%d,%d,%d,%d,%.6f,%.6f,%s",
+                point.getProgrammers(), point.getFood(), point.getWaiters(), point.getStrategy(), parallelism, dinners,
+                getThroughputMean(), getThroughputMin(), getThroughputMax(),
+                forkWait.percentile(50) / 1_000, forkWait.percentile(90) / 1_000,
+                forkWait.percentile(99) / 1_000, forkWait.percentile(99.9) / 1_000, forkWait.getMax() / 1_000,
+                foodWait.percentile(99) / 1_000, spreadMax, getJainMean(), getJainMin(),
+                csvQuote(error));
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT, "{\"programmers\": %d, \"food\": %d, \"waiters\": %d, \"strategy\": \"%s\", "
+                        + "\"parallelism\": %d, \"dinners\": %d, "
+                        + "\"throughput\": {\"mean\": %.1f, \"min\": %.1f, \"max\": %.1f}, "
+                        + "\"fork_wait_us\": {\"p50\": %d, \"p90\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d}, "
+                        + "\"food_wait_p99_us\": %d, \"spread_max\": %d, \"jain\": {\"mean\": %.6f, \"min\": %.6f}, "
+                        + "\"error\": %s}",
+                point.getProgrammers(), point.getFood(), point.getWaiters(), point.getStrategy(), parallelism, dinners,
+                getThroughputMean(), getThroughputMin(), getThroughputMax(),
+                forkWait.percentile(50) / 1_000, forkWait.percentile(90) / 1_000,
+                forkWait.percentile(99) / 1_000, forkWait.percentile(99.9) / 1_000, forkWait.getMax() / 1_000,
+                foodWait.percentile(99) / 1_000, spreadMax, getJainMean(), getJainMin(),
+                error.isEmpty() ? "null" : jsonQuote(error));
+    }
+
+    private static String csvQuote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonQuote(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+}
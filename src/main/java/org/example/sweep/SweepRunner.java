@@ -0,0 +1,186 @@
+package org.example.sweep;
+
+import org.example.dinner.DinnerConfig;
+import org.example.dinner.DinnerRunner;
+import org.example.fork.ForkStrategy;
+import org.example.stats.DinnerStats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Serves every combination of programmers, food, waiters and fork strategy,
+// each for warmup_iterations plus iterations dinners on its own table. Points
+// run one at a time unless sweep_parallelism asks for more, since dinners
+// served side by side compete for the cores they are measured on
+public class SweepRunner {
+
+    private final Properties base;
+    private final int[] programmers;
+    private final int[] food;
+    private final int[] waiters;
+    private final ForkStrategy[] strategies;
+    private final int parallelism;
+    private final int warmupIterations;
+    private final int iterations;
+
+    public SweepRunner(Properties base, int[] programmers, int[] food, int[] waiters, ForkStrategy[] strategies,
+                       int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Sweep parallelism must be positive");
+        }
+        this.base = base;
+        this.programmers = programmers;
+        this.food = food;
+        this.waiters = waiters;
+        this.strategies = strategies;
+        this.parallelism = parallelism;
+        this.warmupIterations = Integer.parseInt(base.getProperty("warmup_iterations", "0"));
+        this.iterations = Integer.parseInt(base.getProperty("iterations", "10"));
+    }
+
+    // Lists default to the single values of the plain configuration
+    public static SweepRunner fromProperties(Properties props) {
+        int[] programmers = parseRange(props.getProperty("sweep_programmers",
+                props.getProperty("programmers_count", "-1")));
+        int[] food = parseRange(props.getProperty("sweep_food", props.getProperty("food_count", "-1")));
+        int[] waiters = parseRange(props.getProperty("sweep_waiters",
+                String.valueOf(new DinnerConfig().getWaitersCount())));
+        String[] names = props.getProperty("sweep_strategies", props.getProperty("fork_strategy", "ordered"))
+                .split(",");
+        ForkStrategy[] strategies = new ForkStrategy[names.length];
+        for (int i = 0; i < names.length; i++) {
+            strategies[i] = ForkStrategy.parse(names[i]);
+        }
+        int parallelism = Integer.parseInt(props.getProperty("sweep_parallelism", "1"));
+        return new SweepRunner(props, programmers, food, waiters, strategies, parallelism);
+    }
+
+    // Comma separated values, each either a number, from..to+step or from..to*factor
+    static int[] parseRange(String value) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            part = part.trim();
+            int dots = part.indexOf("..");
+            if (dots < 0) {
+                values.add(Integer.parseInt(part));
+                continue;
+            }
+            int from = Integer.parseInt(part.substring(0, dots).trim());
+            String rest = part.substring(dots + 2);
+            int plus = rest.indexOf('+');
+            int times = rest.indexOf('*');
+            if (plus < 0 && times < 0) {
+                throw new IllegalArgumentException("Sweep range needs +step or *factor: " + part);
+            }
+            boolean add = plus >= 0;
+            int to = Integer.parseInt(rest.substring(0, add ? plus : times).trim());
+            int step = Integer.parseInt(rest.substring((add ? plus : times) + 1).trim());
+            if (add ? step <= 0 : step <= 1 || from <= 0) {
+                throw new IllegalArgumentException("Sweep range never ends: " + part);
+            }
+            for (long v = from; v <= to; v = add ? v + step : v * step) {
+                values.add((int) v);
+            }
+        }
+        int[] range = new int[values.size()];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = values.get(i);
+        }
+        return range;
+    }
+
+    public List<SweepPoint> grid() {
+        List<SweepPoint> grid = new ArrayList<>();
+        for (int p : programmers) {
+            for (int f : food) {
+                for (int w : waiters) {
+                    for (ForkStrategy strategy : strategies) {
+                        grid.add(new SweepPoint(p, f, w, strategy));
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    public int getParallelism() { return parallelism; }
+
+    // Results come back in grid order, a point that fails keeps its error
+    public List<SweepResult> run() throws InterruptedException {
+        List<SweepPoint> grid = grid();
+        AtomicInteger finished = new AtomicInteger();
+        List<SweepResult> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+            List<Future<SweepResult>> futures = new ArrayList<>();
+            for (SweepPoint point : grid) {
+                futures.add(pool.submit(() -> {
+                    SweepResult result = runPoint(point);
+                    System.out.printf("Sweep %d of %d: %s -> %s%n", finished.incrementAndGet(), grid.size(), point,
+                            result.isFailed() ? "failed, " + result.getError()
+                                    : String.format("%.0f meals/s", result.getThroughputMean()));
+                    return result;
+                }));
+            }
+            for (Future<SweepResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Sweep point crashed", e.getCause());
+                }
+            }
+        }
+        return results;
+    }
+
+    SweepResult runPoint(SweepPoint point) throws InterruptedException {
+        SweepResult result = new SweepResult(point, parallelism);
+        DinnerConfig config = DinnerConfig.fromProperties(point.toProperties(base));
+        try (DinnerRunner runner = DinnerRunner.open(config, point.getProgrammers())) {
+            for (int i = 0; i < warmupIterations + iterations; i++) {
+                DinnerStats stats = runner.serve(new AtomicInteger(point.getFood()));
+                if (i >= warmupIterations) {
+                    result.add(stats);
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException | UncheckedIOException e) {
+            result.fail(e.getMessage());
+        }
+        return result;
+    }
+
+    public static void writeCsv(Path path, List<SweepResult> results) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(SweepResult.CSV_HEADER);
+            out.newLine();
+            for (SweepResult result : results) {
+                out.write(result.toCsv());
+                out.newLine();
+            }
+        }
+    }
+
+    public static void writeJson(Path path, List<SweepResult> results) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("[");
+            for (int i = 0; i < results.size(); i++) {
+                out.newLine();
+                out.write("  " + results.get(i).toJson() + (i + 1 < results.size() ? "," : ""));
+            }
+            out.newLine();
+            out.write("]");
+            out.newLine();
+        }
+    }
+}
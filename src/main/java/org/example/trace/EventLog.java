@@ -0,0 +1,156 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Binary log of every fork and food operation, for offline analysis with
+// EventLogReader. Programmers write 16 byte events into their own ring and a
+// background thread copies them into a memory-mapped file, so recording costs
+// a few stores and never a system call. Events of one programmer are in order,
+// events of different programmers are interleaved only roughly by the drain.
+//
+// File layout, little endian:
+//   header  magic "DINE", version, programmers, 0, events (long), dropped (long)
+//   events  nanos since the log was opened (long), programmer (int), operation (int)
+public class EventLog implements TraceSink, AutoCloseable {
+    static final int MAGIC = 0x454E4944;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int EVENT_BYTES = 16;
+    // The file grows one mapped chunk at a time
+    private static final long CHUNK_BYTES = 16L << 20;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final EventRing[] rings;
+    private final long origin = System.nanoTime();
+    private final Thread writerThread;
+    private final Writer writer = new Writer();
+    private volatile boolean running = true;
+    // Stops the writer, reported by close
+    private volatile UncheckedIOException failure;
+    private boolean closed;
+
+    public EventLog(Path path, int programmersCount, int ringCapacity) {
+        this.path = path;
+        this.rings = new EventRing[programmersCount];
+        for (int i = 0; i < programmersCount; i++) {
+            rings[i] = new EventRing(ringCapacity);
+        }
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            writer.map(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the event log " + path, e);
+        }
+        writer.position = HEADER_BYTES;
+        writerThread = Thread.ofPlatform().name("event-log-writer").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void record(int programmerId, TraceOp op) {
+        rings[programmerId].offer(System.nanoTime() - origin, programmerId, op);
+    }
+
+    private void drainLoop() {
+        try {
+            while (running) {
+                if (drainAll() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            failure = e;
+        }
+    }
+
+    private int drainAll() {
+        int drained = 0;
+        for (EventRing ring : rings) {
+            drained += ring.drain(writer);
+        }
+        return drained;
+    }
+
+    public Path getPath() { return path; }
+    public long getEvents() { return writer.events; }
+
+    // Producers must have stopped, which holds once a dinner is over
+    public long getDropped() {
+        long dropped = 0;
+        for (EventRing ring : rings) {
+            dropped += ring.getDropped();
+        }
+        return dropped;
+    }
+
+    // Drains what is left, writes the header and cuts the file to its events
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) throw failure;
+        drainAll();
+        try {
+            writer.buffer.force();
+            writer.buffer = null;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rings.length).putInt(0)
+                    .putLong(writer.events).putLong(getDropped());
+            header.force();
+            channel.truncate(HEADER_BYTES + writer.events * EVENT_BYTES);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not finish the event log " + path, e);
+        }
+    }
+
+    // Owned by the writer thread, and by close once that has stopped
+    private final class Writer implements EventRing.Sink {
+        private MappedByteBuffer buffer;
+        private long chunkStart;
+        private long position;
+        private long events;
+
+        @Override
+        public void write(long nanos, int programmerId, int op) {
+            if (position + EVENT_BYTES > chunkStart + CHUNK_BYTES) {
+                try {
+                    buffer.force();
+                    map(chunkStart + CHUNK_BYTES);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not grow the event log " + path, e);
+                }
+            }
+            int at = (int) (position - chunkStart);
+            buffer.putLong(at, nanos);
+            buffer.putInt(at + 8, programmerId);
+            buffer.putInt(at + 12, op);
+            position += EVENT_BYTES;
+            events++;
+        }
+
+        private void map(long start) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, CHUNK_BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            chunkStart = start;
+        }
+    }
+}
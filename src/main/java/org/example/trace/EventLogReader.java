@@ -0,0 +1,134 @@
+package org.example.trace;
+
+import org.example.stats.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a file written by EventLog by mapping it, one chunk per gigabyte
+public final class EventLogReader {
+    private static final long CHUNK_EVENTS = 1L << 26;
+
+    private final int programmersCount;
+    private final long events;
+    private final long dropped;
+    private final MappedByteBuffer[] chunks;
+
+    private EventLogReader(int programmersCount, long events, long dropped, MappedByteBuffer[] chunks) {
+        this.programmersCount = programmersCount;
+        this.events = events;
+        this.dropped = dropped;
+        this.chunks = chunks;
+    }
+
+    public static EventLogReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < EventLog.HEADER_BYTES) {
+                throw new IOException("Not an event log: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, EventLog.HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != EventLog.MAGIC || header.getInt(4) != EventLog.VERSION) {
+                throw new IOException("Not an event log: " + path);
+            }
+            int programmersCount = header.getInt(8);
+            long events = header.getLong(16);
+            long dropped = header.getLong(24);
+            if (channel.size() < EventLog.HEADER_BYTES + events * EventLog.EVENT_BYTES) {
+                throw new IOException("Event log is cut short: " + path);
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((events + CHUNK_EVENTS - 1) / CHUNK_EVENTS)];
+            for (int c = 0; c < chunks.length; c++) {
+                long first = c * CHUNK_EVENTS;
+                long count = Math.min(CHUNK_EVENTS, events - first);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        EventLog.HEADER_BYTES + first * EventLog.EVENT_BYTES, count * EventLog.EVENT_BYTES);
+                chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new EventLogReader(programmersCount, events, dropped, chunks);
+        }
+    }
+
+    public int getProgrammersCount() { return programmersCount; }
+    public long size() { return events; }
+    public long getDropped() { return dropped; }
+
+    public long timeAt(long i) {
+        return chunks[(int) (i / CHUNK_EVENTS)].getLong(offset(i));
+    }
+
+    public int programmerAt(long i) {
+        return chunks[(int) (i / CHUNK_EVENTS)].getInt(offset(i) + 8);
+    }
+
+    public TraceOp opAt(long i) {
+        return TraceOp.values()[chunks[(int) (i / CHUNK_EVENTS)].getInt(offset(i) + 12)];
+    }
+
+    // Rebuilds what every programmer went through, in one pass over the file.
+    // Fork waits run from taking food to holding the forks, holds from there
+    // to putting them down
+    public Timeline[] timelines() {
+        Timeline[] timelines = new Timeline[programmersCount];
+        for (int p = 0; p < programmersCount; p++) {
+            timelines[p] = new Timeline(p);
+        }
+        for (long i = 0; i < events; i++) {
+            timelines[programmerAt(i)].add(timeAt(i), opAt(i));
+        }
+        return timelines;
+    }
+
+    private static int offset(long i) {
+        return (int) (i % CHUNK_EVENTS) * EventLog.EVENT_BYTES;
+    }
+
+    public static final class Timeline {
+        private final int programmerId;
+        private final LatencyHistogram forkWait = new LatencyHistogram();
+        private final LatencyHistogram holdTime = new LatencyHistogram();
+        private long meals;
+        private long portionsPutBack;
+        private long first = -1;
+        private long last;
+        private long since;
+
+        Timeline(int programmerId) {
+            this.programmerId = programmerId;
+        }
+
+        void add(long nanos, TraceOp op) {
+            if (first < 0) first = nanos;
+            last = nanos;
+            switch (op) {
+                case TAKE_FOOD:
+                    since = nanos;
+                    break;
+                case PUT_BACK:
+                    portionsPutBack++;
+                    break;
+                case ACQUIRE_FORKS:
+                    forkWait.record(nanos - since);
+                    since = nanos;
+                    meals++;
+                    break;
+                case RELEASE_FORKS:
+                    holdTime.record(nanos - since);
+                    break;
+            }
+        }
+
+        public int getProgrammerId() { return programmerId; }
+        public long getMeals() { return meals; }
+        public long getPortionsPutBack() { return portionsPutBack; }
+        public LatencyHistogram getForkWait() { return forkWait; }
+        public LatencyHistogram getHoldTime() { return holdTime; }
+        // First and last event, -1 when the programmer never did anything
+        public long getFirstNanos() { return first; }
+        public long getLastNanos() { return last; }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.trace;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Single producer, single consumer ring of fixed-size events. A programmer is
+// only ever run by one thread at a time, so each gets its own ring and writes
+// without locks or CAS. A full ring drops the event instead of waiting for the
+// writer, the hot path must never block on logging
+final class EventRing {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(EventRing.class, "head", long.class);
+            TAIL = lookup.findVarHandle(EventRing.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Two longs per event: the time and the programmer with the operation
+    private final long[] slots;
+    private final int mask;
+    // Written by the consumer only
+    private long head;
+    // Written by the producer only
+    private long tail;
+    // Producer only, read once the dinner is over
+    private long dropped;
+
+    EventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two");
+        }
+        this.slots = new long[capacity * 2];
+        this.mask = capacity - 1;
+    }
+
+    void offer(long nanos, int programmerId, TraceOp op) {
+        long t = tail;
+        if (t - (long) HEAD.getAcquire(this) > mask) {
+            dropped++;
+            return;
+        }
+        int i = (int) (t & mask) << 1;
+        slots[i] = nanos;
+        slots[i + 1] = (long) programmerId << 8 | op.ordinal();
+        TAIL.setRelease(this, t + 1);
+    }
+
+    // Hands every published event to the sink, returns how many there were
+    int drain(Sink sink) {
+        long h = head;
+        long t = (long) TAIL.getAcquire(this);
+        for (long n = h; n < t; n++) {
+            int i = (int) (n & mask) << 1;
+            long packed = slots[i + 1];
+            sink.write(slots[i], (int) (packed >>> 8), (int) (packed & 0xFF));
+        }
+        HEAD.setRelease(this, t);
+        return (int) (t - h);
+    }
+
+    long getDropped() { return dropped; }
+
+    interface Sink {
+        void write(long nanos, int programmerId, int op);
+    }
+}
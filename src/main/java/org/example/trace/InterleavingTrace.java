@@ -0,0 +1,136 @@
+package org.example.trace;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One global order of the fork and food operations of every programmer.
+// A slot is claimed with a single getAndIncrement, so recording never blocks.
+// Acquires are recorded once the forks are held and releases before they are
+// put down, so conflicting operations always appear in the order they happened.
+// Operations beyond the capacity are counted but dropped
+public class InterleavingTrace implements TraceSink {
+    private static final String HEADER = "# dinner trace";
+
+    private final long[] times;
+    private final int[] programmers;
+    private final byte[] ops;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long origin = System.nanoTime();
+    // What the dinner started with, needed to replay it
+    private int programmersCount;
+    private int food;
+    // Dropped by the run a trace was read from
+    private int droppedBefore;
+
+    public InterleavingTrace(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Trace capacity must be positive");
+        }
+        this.times = new long[capacity];
+        this.programmers = new int[capacity];
+        this.ops = new byte[capacity];
+    }
+
+    // Empties the trace for a dinner of programmersCount with the given food
+    public void start(int programmersCount, int food) {
+        this.programmersCount = programmersCount;
+        this.food = food;
+        next.set(0);
+        droppedBefore = 0;
+        origin = System.nanoTime();
+    }
+
+    @Override
+    public void record(int programmerId, TraceOp op) {
+        recordAt(programmerId, op, System.nanoTime() - origin);
+    }
+
+    // For simulations, which run on their own clock
+    public void recordAt(int programmerId, TraceOp op, long nanos) {
+        int i = next.getAndIncrement();
+        if (i >= times.length) return;
+        times[i] = nanos;
+        programmers[i] = programmerId;
+        ops[i] = (byte) op.ordinal();
+    }
+
+    public int size() { return Math.min(next.get(), times.length); }
+    public int getDropped() { return Math.max(0, next.get() - times.length) + droppedBefore; }
+    public int getProgrammersCount() { return programmersCount; }
+    public int getFood() { return food; }
+
+    public long timeAt(int i) { return times[i]; }
+    public int programmerAt(int i) { return programmers[i]; }
+    public TraceOp opAt(int i) { return TraceOp.values()[ops[i]]; }
+
+    // Plain text, one operation per line: nanos since start, programmer, operation
+    public void write(Path path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(HEADER + " programmers=" + programmersCount + " food=" + food
+                    + " dropped=" + getDropped());
+            out.newLine();
+            int size = size();
+            for (int i = 0; i < size; i++) {
+                out.write(times[i] + " " + programmers[i] + " " + opAt(i));
+                out.newLine();
+            }
+        }
+    }
+
+    // For dinners, which have no way to report a checked failure
+    public void save(String file) {
+        try {
+            write(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the trace to " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return size() + " operations" + (getDropped() > 0 ? ", " + getDropped() + " dropped" : "");
+    }
+
+    public static InterleavingTrace read(Path path) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = in.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                throw new IOException("Not a dinner trace: " + path);
+            }
+            int programmersCount = 0;
+            int food = 0;
+            int dropped = 0;
+            for (String field : header.substring(HEADER.length()).trim().split(" ")) {
+                String[] pair = field.split("=");
+                switch (pair[0]) {
+                    case "programmers": programmersCount = Integer.parseInt(pair[1]); break;
+                    case "food": food = Integer.parseInt(pair[1]); break;
+                    case "dropped": dropped = Integer.parseInt(pair[1]); break;
+                    default: break;
+                }
+            }
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) lines.add(line);
+            }
+            InterleavingTrace trace = new InterleavingTrace(Math.max(lines.size(), 1));
+            trace.start(programmersCount, food);
+            for (String entry : lines) {
+                String[] parts = entry.split(" ");
+                trace.recordAt(Integer.parseInt(parts[1]), TraceOp.valueOf(parts[2]), Long.parseLong(parts[0]));
+            }
+            // Keeps the replay from trusting a trace that lost operations
+            trace.droppedBefore = dropped;
+            return trace;
+        }
+    }
+}
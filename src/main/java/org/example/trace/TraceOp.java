@@ -0,0 +1,11 @@
+package org.example.trace;
+
+// Fork and food operations of a programmer, in the order they happened
+public enum TraceOp {
+    // One portion taken for the next meal
+    TAKE_FOOD,
+    // Portion taken but never eaten, e.g. when interrupted
+    PUT_BACK,
+    ACQUIRE_FORKS,
+    RELEASE_FORKS
+}
@@ -0,0 +1,75 @@
+package org.example.trace;
+
+import org.example.fork.Fork;
+import org.example.fork.ForkTable;
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+import org.example.stats.PortionStats;
+
+// Plays a recorded trace back on one thread, on a fresh table with the same
+// food. Every operation is checked against the state it finds, so a replay
+// either reproduces the run exactly or names the first operation that could
+// not have happened. Fork waits are measured from taking food to getting the
+// forks, eat times from getting to putting down the forks
+public final class TraceReplay {
+
+    private TraceReplay() {
+    }
+
+    public static DinnerStats replay(InterleavingTrace trace) {
+        if (trace.getDropped() > 0) {
+            throw new IllegalStateException("Trace dropped " + trace.getDropped() + " operations, raise its capacity");
+        }
+        int programmersCount = trace.getProgrammersCount();
+        ForkTable forks = new ForkTable(programmersCount);
+        int food = trace.getFood();
+        int[] eaten = new int[programmersCount];
+        long[] since = new long[programmersCount];
+        LatencyHistogram forkWait = new LatencyHistogram();
+        LatencyHistogram eatTime = new LatencyHistogram();
+        long elapsed = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            int id = trace.programmerAt(i);
+            int seat = forks.seatOf(id);
+            long now = trace.timeAt(i);
+            elapsed = Math.max(elapsed, now);
+            Fork left = forks.leftOf(seat);
+            Fork right = forks.rightOf(seat);
+            switch (trace.opAt(i)) {
+                case TAKE_FOOD:
+                    if (food == 0) throw inconsistent(i, "took food that was already gone");
+                    food--;
+                    since[seat] = now;
+                    break;
+                case PUT_BACK:
+                    food++;
+                    break;
+                case ACQUIRE_FORKS:
+                    if (!left.tryAcquire(id) || (right != left && !right.tryAcquire(id))) {
+                        throw inconsistent(i, "took a fork held by programmer "
+                                + (left.getOwner() != id ? left.getOwner() : right.getOwner()));
+                    }
+                    forkWait.record(now - since[seat]);
+                    since[seat] = now;
+                    eaten[seat]++;
+                    break;
+                case RELEASE_FORKS:
+                    try {
+                        left.release(id);
+                        if (right != left) right.release(id);
+                    } catch (IllegalStateException e) {
+                        throw inconsistent(i, e.getMessage());
+                    }
+                    eatTime.record(now - since[seat]);
+                    break;
+            }
+        }
+        PortionStats portions = PortionStats.of(eaten);
+        return new DinnerStats("REPLAY", "-", programmersCount, portions.getMeals(), elapsed,
+                portions, forkWait, eatTime, new LatencyHistogram());
+    }
+
+    private static IllegalStateException inconsistent(int index, String what) {
+        return new IllegalStateException("Trace operation " + index + " " + what);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.trace;
+
+// Where programmers report their fork and food operations
+public interface TraceSink {
+    TraceSink NONE = (programmerId, op) -> { };
+
+    void record(int programmerId, TraceOp op);
+
+    // Reports every operation here and then to the other sink
+    default TraceSink andThen(TraceSink other) {
+        if (other == NONE) return this;
+        if (this == NONE) return other;
+        return (programmerId, op) -> {
+            record(programmerId, op);
+            other.record(programmerId, op);
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.waiter;
+
+import java.util.concurrent.locks.LockSupport;
+
+// A programmer asking a waiter for more food. Every programmer owns exactly
+// one request and reuses it, so the pipeline allocates nothing per refill
+final class RefillRequest {
+    static final int PENDING = -1;
+
+    final int programmerId;
+    int want;
+    long enqueuedAt;
+    private Thread requester;
+    private volatile int granted = PENDING;
+
+    RefillRequest(int programmerId) {
+        this.programmerId = programmerId;
+    }
+
+    void prepare(int want) {
+        this.want = want;
+        this.requester = Thread.currentThread();
+        this.enqueuedAt = System.nanoTime();
+        this.granted = PENDING;
+    }
+
+    // Called by the waiter, publishes the grant and wakes the programmer up
+    void complete(int portions) {
+        granted = portions;
+        LockSupport.unpark(requester);
+    }
+
+    boolean isDone() { return granted != PENDING; }
+    int getGranted() { return granted; }
+}
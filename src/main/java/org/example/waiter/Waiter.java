@@ -0,0 +1,131 @@
+package org.example.waiter;
+
+import org.example.food.FoodDispenser;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Serves refill requests of its programmers. Many programmers put into the
+// queue, only this waiter takes from it
+public class Waiter implements Runnable {
+
+    private final int id;
+    private final BlockingQueue<RefillRequest> requests;
+    private final int batchSize;
+    private final FoodDispenser dispenser;
+    private final ArrayList<RefillRequest> batch;
+
+    // Written by the waiter thread only, always before the request they count
+    // is completed: whoever saw every programmer of a dinner get its answer
+    // sees all of them, even while the waiter is still on duty
+    private long requestsServed;
+    private long portionsServed;
+    private long batchesServed;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    // The clock of the current dinner, stopped by endDinner or the shutdown
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    public Waiter(int id, int queueDepth, int batchSize, FoodDispenser dispenser) {
+        if (queueDepth <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Queue depth and batch size must be positive");
+        }
+        this.id = id;
+        this.requests = new ArrayBlockingQueue<>(queueDepth);
+        this.batchSize = batchSize;
+        this.dispenser = dispenser;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    // Blocks the programmer while the queue is full
+    void submit(RefillRequest request) throws InterruptedException {
+        requests.put(request);
+    }
+
+    @Override
+    public void run() {
+        startedAt = System.nanoTime();
+        try {
+            while (true) {
+                batch.add(requests.take());
+                requests.drainTo(batch, batchSize - 1);
+                serve(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Dinner is over, nobody should be waiting but never leave anyone hanging
+            batch.clear();
+            requests.drainTo(batch);
+            serve(batch);
+            batch.clear();
+            if (stoppedAt == 0) {
+                stoppedAt = System.nanoTime();
+            }
+        }
+    }
+
+    // One reservation for the whole batch, then split between the requests
+    private void serve(ArrayList<RefillRequest> batch) {
+        if (batch.isEmpty()) return;
+        int wanted = 0;
+        for (RefillRequest request : batch) {
+            wanted += request.want;
+        }
+        int available = dispenser.reserve(wanted, batch.size());
+        long now = System.nanoTime();
+        for (RefillRequest request : batch) {
+            int portions = Math.min(request.want, available);
+            available -= portions;
+            // The shared reservation ran short, try for this one alone
+            if (portions == 0) {
+                portions = dispenser.reserve(request.want);
+            }
+            long latency = now - request.enqueuedAt;
+            totalLatencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+            portionsServed += portions;
+            requestsServed++;
+            if (request == batch.get(0)) {
+                batchesServed++;
+            }
+            // Publishes the counts above along with the portions
+            request.complete(portions);
+        }
+    }
+
+    // Starts the counters over between dinners. Only call while nobody is
+    // asking, the next request published through the queue makes it visible
+    void resetStats() {
+        requestsServed = 0;
+        portionsServed = 0;
+        batchesServed = 0;
+        totalLatencyNanos = 0;
+        maxLatencyNanos = 0;
+        stoppedAt = 0;
+        startedAt = System.nanoTime();
+    }
+
+    // Stops the clock once every programmer of the dinner has finished
+    void endDinner() {
+        stoppedAt = System.nanoTime();
+    }
+
+    public int getId() { return id; }
+    public long getRequestsServed() { return requestsServed; }
+    public long getPortionsServed() { return portionsServed; }
+    public long getBatchesServed() { return batchesServed; }
+    public long getMaxLatencyNanos() { return maxLatencyNanos; }
+
+    public long getMeanLatencyNanos() {
+        return requestsServed == 0 ? 0 : totalLatencyNanos / requestsServed;
+    }
+
+    // Requests per second over the dinner, up to now while it is still going
+    public double getThroughput() {
+        long end = stoppedAt == 0 ? System.nanoTime() : stoppedAt;
+        long elapsed = end - startedAt;
+        return elapsed <= 0 ? 0 : requestsServed * 1_000_000_000.0 / elapsed;
+    }
+}
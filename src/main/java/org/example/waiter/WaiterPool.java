@@ -0,0 +1,119 @@
+package org.example.waiter;
+
+import org.example.food.FoodDispenser;
+import org.example.food.FoodSource;
+
+import java.util.concurrent.locks.LockSupport;
+
+// The waiters of one dinner. Each programmer always asks the same waiter
+public class WaiterPool {
+
+    private final Waiter[] waiters;
+    private final Thread[] threads;
+    private final FoodDispenser dispenser;
+
+    public WaiterPool(int waitersCount, int queueDepth, int batchSize, FoodDispenser dispenser) {
+        if (waitersCount <= 0) {
+            throw new IllegalArgumentException("Waiters amount must be positive");
+        }
+        this.dispenser = dispenser;
+        this.waiters = new Waiter[waitersCount];
+        this.threads = new Thread[waitersCount];
+        for (int i = 0; i < waitersCount; i++) {
+            waiters[i] = new Waiter(i, queueDepth, batchSize, dispenser);
+        }
+    }
+
+    public void start() {
+        for (int i = 0; i < waiters.length; i++) {
+            threads[i] = new Thread(waiters[i], "waiter-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    // Only call once every programmer has finished
+    public void shutdown() throws InterruptedException {
+        for (Thread thread : threads) {
+            if (thread != null) thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            if (thread != null) thread.join();
+        }
+    }
+
+    public FoodSource clientFor(int programmerId) {
+        return new Client(waiters[Math.floorMod(programmerId, waiters.length)], programmerId);
+    }
+
+    public void resetStats() {
+        for (Waiter waiter : waiters) {
+            waiter.resetStats();
+        }
+    }
+
+    // Only call once every programmer of the dinner has finished
+    public void endDinner() {
+        for (Waiter waiter : waiters) {
+            waiter.endDinner();
+        }
+    }
+
+    public Waiter[] getWaiters() { return waiters; }
+
+    public void printReport() {
+        for (Waiter waiter : waiters) {
+            double avgBatch = waiter.getBatchesServed() == 0
+                    ? 0 : (double) waiter.getRequestsServed() / waiter.getBatchesServed();
+            System.out.printf("Waiter %d: requests=%d, portions=%d, avg batch=%.1f, "
+                            + "mean latency=%d us, max latency=%d us, throughput=%.0f req/s%n",
+                    waiter.getId(),
+                    waiter.getRequestsServed(),
+                    waiter.getPortionsServed(),
+                    avgBatch,
+                    waiter.getMeanLatencyNanos() / 1_000,
+                    waiter.getMaxLatencyNanos() / 1_000,
+                    waiter.getThroughput());
+        }
+    }
+
+    // The programmer's side of the pipeline: send the request, wait for the grant
+    private final class Client implements FoodSource {
+        private final Waiter waiter;
+        private final RefillRequest request;
+
+        Client(Waiter waiter, int programmerId) {
+            this.waiter = waiter;
+            this.request = new RefillRequest(programmerId);
+        }
+
+        @Override
+        public int tryReserve(int want) {
+            request.prepare(want);
+            try {
+                waiter.submit(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+            boolean interrupted = false;
+            // The waiter always answers, even while shutting down
+            while (!request.isDone()) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) interrupted = true;
+            }
+            if (interrupted) {
+                // Stopping anyway, so the portions go straight back
+                dispenser.giveBack(request.getGranted());
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+            return request.getGranted();
+        }
+
+        @Override
+        public void giveBack(int portions) {
+            dispenser.giveBack(portions);
+        }
+    }
+}
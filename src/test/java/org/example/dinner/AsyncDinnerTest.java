@@ -0,0 +1,215 @@
+package org.example.dinner;
+
+import org.example.fairness.FairnessMode;
+import org.example.fork.ForkStrategy;
+import org.example.fork.WaitMode;
+import org.example.programmer.ProgrammerProfile;
+import org.example.programmer.ProgrammerProfiles;
+import org.example.programmer.WorkModelType;
+import org.example.stats.ClassStats;
+import org.example.stats.DinnerStats;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDinnerTest {
+
+    private static DinnerConfig async(int threads) {
+        DinnerConfig config = new DinnerConfig();
+        config.setExecutionMode(ExecutionMode.ASYNC);
+        config.setCarrierThreads(threads);
+        config.setEatModel(WorkModelType.ZERO);
+        return config;
+    }
+
+    @Test
+    void serveAsync_completesWithEveryMeal() throws Exception {
+        AtomicInteger foodCount = new AtomicInteger(5_000);
+
+        CompletableFuture<DinnerStats> served = new Dinner(async(2)).serveAsync(7, foodCount);
+        DinnerStats stats = served.get(30, TimeUnit.SECONDS);
+
+        assertEquals(0, foodCount.get());
+        assertEquals(5_000, stats.getMealsEaten());
+        assertEquals(5_000, stats.getForkWait().getTotalCount());
+        assertEquals("ASYNC", stats.getStrategy());
+    }
+
+    @Test
+    void serveAsync_withSleepingMeals_returnsBeforeTheDinnerEnds() throws Exception {
+        DinnerConfig config = async(2);
+        config.setEatModel(WorkModelType.FIXED);
+        config.setEatNanos(1_000_000);
+        AtomicInteger foodCount = new AtomicInteger(100);
+
+        CompletableFuture<DinnerStats> served = new Dinner(config).serveAsync(5, foodCount);
+
+        assertFalse(served.isDone());
+        assertEquals(100, served.get(30, TimeUnit.SECONDS).getMealsEaten());
+        assertTrue(served.get().getEatTime().getMean() >= 1_000_000);
+    }
+
+    @Test
+    void serve_manyProgrammersOnTwoThreads() throws InterruptedException {
+        DinnerConfig config = async(2);
+        config.setLatencyHistograms(false);
+        try (AsyncDinner dinner = new AsyncDinner(config, 100_000)) {
+            AtomicInteger foodCount = new AtomicInteger(300_000);
+
+            DinnerStats stats = dinner.serve(foodCount);
+
+            assertEquals(300_000, stats.getMealsEaten());
+            assertEquals(100_000, stats.getPortions().getProgrammers());
+            assertEquals(0, foodCount.get());
+        }
+    }
+
+    @Test
+    void newTable_keepsItsStateInAFewBytesPerSeat() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        DinnerConfig config = async(1);
+        config.setLatencyHistograms(false);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        AsyncDinner dinner = new AsyncDinner(config, 100_000);
+        long perSeat = (threads.getCurrentThreadAllocatedBytes() - before) / 100_000;
+        dinner.close();
+
+        assertTrue(perSeat < 64, perSeat + " bytes per seat");
+    }
+
+    @Test
+    void getPortionsEaten_addsUpToTheMeals() throws InterruptedException {
+        try (AsyncDinner dinner = new AsyncDinner(async(2), 6)) {
+            DinnerStats stats = dinner.serve(new AtomicInteger(600));
+
+            int total = 0;
+            for (int seat = 0; seat < 6; seat++) total += dinner.getPortionsEaten(seat);
+            assertEquals(600, total);
+            assertEquals(stats.getMaxPortions(), stats.getPortions().getMax());
+        }
+    }
+
+    @Test
+    void serve_repeatedly_onTheSameTable() throws InterruptedException {
+        try (DinnerRunner runner = DinnerRunner.open(async(2), 4)) {
+            assertInstanceOf(AsyncDinner.class, runner);
+            assertEquals(400, runner.serve(new AtomicInteger(400)).getMealsEaten());
+            assertEquals(40, runner.serve(new AtomicInteger(40)).getMealsEaten());
+        }
+    }
+
+    @Test
+    void serve_oneProgrammer_usesTheSameForkTwice() throws InterruptedException {
+        try (AsyncDinner dinner = new AsyncDinner(async(1), 1)) {
+            assertEquals(10, dinner.serve(new AtomicInteger(10)).getMealsEaten());
+        }
+    }
+
+    @Test
+    void serve_withBoundedSpread_keepsEverybodyClose() throws InterruptedException {
+        DinnerConfig config = async(2);
+        config.setFairnessMode(FairnessMode.BOUNDED_SPREAD);
+        config.setMaxSpread(2);
+        try (AsyncDinner dinner = new AsyncDinner(config, 9)) {
+            DinnerStats stats = dinner.serve(new AtomicInteger(9_000));
+
+            assertEquals(9_000, stats.getMealsEaten());
+            assertTrue(stats.getSpread() <= 3, "spread " + stats.getSpread());
+        }
+    }
+
+    @Test
+    void serve_withMostSeatsHeldBack_wakesEveryOneOfThem() throws InterruptedException {
+        DinnerConfig config = async(4);
+        config.setFairnessMode(FairnessMode.BOUNDED_SPREAD);
+        config.setMaxSpread(1);
+        try (AsyncDinner dinner = new AsyncDinner(config, 200)) {
+            for (int i = 0; i < 5; i++) {
+                DinnerStats stats = dinner.serve(new AtomicInteger(20_000));
+
+                assertEquals(20_000, stats.getMealsEaten());
+                assertTrue(stats.getSpread() <= 2, "spread " + stats.getSpread());
+            }
+        }
+    }
+
+    @Test
+    void serve_withWeightedFair_reportsEveryClass() throws InterruptedException {
+        DinnerConfig config = async(2);
+        config.setFairnessMode(FairnessMode.WEIGHTED_FAIR);
+        config.setMaxSpread(1);
+        config.setProfiles(ProgrammerProfiles.of(List.of(
+                new ProgrammerProfile("heavy", 3, 1, WorkModelType.ZERO, 0),
+                new ProgrammerProfile("light", 1, 1, WorkModelType.ZERO, 0))));
+        try (AsyncDinner dinner = new AsyncDinner(config, 8)) {
+            DinnerStats stats = dinner.serve(new AtomicInteger(8_000));
+
+            List<ClassStats> classes = stats.getClasses();
+            assertEquals(2, classes.size());
+            assertEquals(4, classes.get(0).getProgrammers());
+            assertEquals(0.75, classes.get(0).getMealShare(), 0.02);
+            assertEquals(8_000, classes.get(0).getMeals() + classes.get(1).getMeals());
+        }
+    }
+
+    @Test
+    void serveAsync_whileServing_throws() throws Exception {
+        DinnerConfig config = async(1);
+        config.setEatModel(WorkModelType.FIXED);
+        config.setEatNanos(1_000_000);
+        try (AsyncDinner dinner = new AsyncDinner(config, 3)) {
+            CompletableFuture<DinnerStats> first = dinner.serveAsync(new AtomicInteger(30));
+
+            assertThrows(IllegalStateException.class, () -> dinner.serveAsync(new AtomicInteger(30)));
+            first.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void open_asyncWithShards_throws() {
+        DinnerConfig config = async(1);
+        config.setShards(2);
+
+        assertThrows(IllegalArgumentException.class, () -> DinnerRunner.open(config, 4));
+    }
+
+    @Test
+    void serveAsync_withTheDefaultWatchdog_runsUnwatched() throws Exception {
+        DinnerConfig config = async(1);
+
+        assertTrue(config.getWatchdogWindowMillis() > 0);
+        assertEquals(40, new Dinner(config).serveAsync(4, new AtomicInteger(40)).get(30, TimeUnit.SECONDS)
+                .getMealsEaten());
+    }
+
+    @Test
+    void open_asyncWithWhatOnlyThreadsHave_throws() {
+        DinnerConfig watched = async(1);
+        watched.setWatchdogAbort(true);
+        DinnerConfig served = async(1);
+        served.setWaitersCount(1);
+        DinnerConfig measured = async(1);
+        measured.setMetrics(true);
+        DinnerConfig traced = async(1);
+        traced.setTraceFile("dinner.trace");
+        DinnerConfig logged = async(1);
+        logged.setEventLog("dinner.events");
+        DinnerConfig hygienic = async(1);
+        hygienic.setForkStrategy(ForkStrategy.CHANDY_MISRA);
+        DinnerConfig parked = async(1);
+        parked.setForkWait(WaitMode.PARK);
+
+        for (DinnerConfig config : List.of(watched, served, measured, traced, logged, hygienic, parked)) {
+            assertThrows(IllegalArgumentException.class, () -> DinnerRunner.open(config, 4));
+            assertThrows(IllegalArgumentException.class, () -> new Dinner(config).serveAsync(4, new AtomicInteger(40)));
+        }
+    }
+}
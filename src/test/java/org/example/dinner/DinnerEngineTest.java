@@ -0,0 +1,127 @@
+package org.example.dinner;
+
+import org.example.fairness.FairnessMode;
+import org.example.fork.ForkStrategy;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DinnerEngineTest {
+
+    @Test
+    void serve_repeatedly_countsEveryDinnerOnItsOwn() throws InterruptedException {
+        for (ForkStrategy strategy : ForkStrategy.values()) {
+            DinnerConfig config = new DinnerConfig();
+            config.setForkStrategy(strategy);
+            config.setWaitersCount(2);
+            config.setEatModel(WorkModelType.ZERO);
+            try (DinnerEngine engine = new DinnerEngine(config, 6)) {
+                for (int i = 0; i < 3; i++) {
+                    AtomicInteger foodCount = new AtomicInteger(1_000);
+
+                    DinnerStats stats = engine.serve(foodCount);
+
+                    assertEquals(0, foodCount.get(), strategy.name());
+                    assertEquals(1_000, stats.getMealsEaten(), strategy.name());
+                    assertEquals(1_000, stats.getForkWait().getTotalCount(), strategy.name());
+                    assertEquals(6, engine.getForks().freeCount(), strategy.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void serve_repeatedly_onVirtualThreadsWithoutWaiters() throws InterruptedException {
+        DinnerConfig config = new DinnerConfig();
+        config.setExecutionMode(ExecutionMode.VIRTUAL);
+        config.setWaitersCount(0);
+        config.setEatModel(WorkModelType.ZERO);
+        try (DinnerEngine engine = new DinnerEngine(config, 10)) {
+            assertEquals(500, engine.serve(new AtomicInteger(500)).getMealsEaten());
+            assertEquals(50, engine.serve(new AtomicInteger(50)).getMealsEaten());
+        }
+    }
+
+    @Test
+    void serve_repeatedly_withBoundedSpread_startsFairnessOver() throws InterruptedException {
+        DinnerConfig config = new DinnerConfig();
+        config.setEatModel(WorkModelType.ZERO);
+        config.setFairnessMode(FairnessMode.BOUNDED_SPREAD);
+        try (DinnerEngine engine = new DinnerEngine(config, 5)) {
+            engine.serve(new AtomicInteger(1_000));
+
+            DinnerStats stats = engine.serve(new AtomicInteger(100));
+
+            assertEquals(100, stats.getMealsEaten());
+            assertTrue(stats.getSpread() <= 3, "spread " + stats.getSpread());
+        }
+    }
+
+    @Test
+    void serve_withTooLittleFood_throws() {
+        try (DinnerEngine engine = new DinnerEngine(new DinnerConfig(), 4)) {
+            assertThrows(IllegalArgumentException.class, () -> engine.serve(new AtomicInteger(3)));
+        }
+    }
+
+    @Test
+    void serve_withMetrics_countsEveryMeal() throws InterruptedException {
+        DinnerConfig config = new DinnerConfig();
+        config.setEatModel(WorkModelType.ZERO);
+        config.setMetrics(true);
+        try (DinnerEngine engine = new DinnerEngine(config, 4)) {
+            engine.serve(new AtomicInteger(300));
+
+            assertEquals(300, engine.getMetrics().getMealsEaten());
+            assertEquals(300, engine.getMetrics().getForkWaits());
+            assertEquals(0, engine.getMetrics().getRemainingFood());
+        }
+    }
+
+    @Test
+    void serve_tableLargerThanALeaf_isSummedInParallel() throws InterruptedException {
+        int programmers = DinnerReport.LEAF_SIZE * 2 + 7;
+        DinnerConfig config = new DinnerConfig();
+        config.setExecutionMode(ExecutionMode.VIRTUAL);
+        config.setWaitersCount(0);
+        config.setEatModel(WorkModelType.ZERO);
+        try (DinnerEngine engine = new DinnerEngine(config, programmers)) {
+            DinnerStats stats = engine.serve(new AtomicInteger(programmers * 3));
+
+            assertEquals(programmers, stats.getProgrammers());
+            assertEquals(programmers * 3L, stats.getMealsEaten());
+            assertEquals(programmers * 3L, stats.getPortions().getMeals());
+            assertEquals(programmers * 3L, stats.getForkWait().getTotalCount());
+            assertTrue(stats.getPortions().getJainIndex() > 0);
+        }
+    }
+
+    @Test
+    void constructor_metricsPortTaken_stopsTheWaitersAgain() throws IOException {
+        DinnerConfig config = new DinnerConfig();
+        config.setWaitersCount(2);
+        config.setMetrics(true);
+        long before = waiterThreads();
+        try (ServerSocket taken = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            config.setMetricsPort(taken.getLocalPort());
+
+            assertThrows(UncheckedIOException.class, () -> new DinnerEngine(config, 3));
+        }
+
+        assertEquals(before, waiterThreads());
+    }
+
+    private static long waiterThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().startsWith("waiter-")).count();
+    }
+}
@@ -1,12 +1,18 @@
 package org.example.dinner;
 
+import org.example.fairness.FairnessMode;
+import org.example.fork.ForkStrategy;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DinnerTest {
 
@@ -40,4 +46,50 @@ class DinnerTest {
 
         assertThrows(IllegalArgumentException.class, () -> dinner.serve(programmersCount, foodCount));
     }
+
+    @Test
+    void serve_onVirtualThreads_doesNotThrow() {
+        DinnerConfig config = new DinnerConfig();
+        config.setExecutionMode(ExecutionMode.VIRTUAL);
+        Dinner virtualDinner = new Dinner(config);
+        AtomicInteger foodCount = new AtomicInteger(20);
+
+        assertDoesNotThrow(() -> virtualDinner.serve(10, foodCount));
+        assertEquals(0, foodCount.get());
+    }
+
+    @Test
+    void serve_withEveryStrategy_eatsAllFood() throws InterruptedException {
+        for (ForkStrategy strategy : ForkStrategy.values()) {
+            DinnerConfig config = new DinnerConfig();
+            config.setForkStrategy(strategy);
+            config.setEatModel(WorkModelType.ZERO);
+            AtomicInteger foodCount = new AtomicInteger(2_000);
+
+            DinnerStats stats = new Dinner(config).serve(7, foodCount);
+
+            assertEquals(0, foodCount.get(), strategy.name());
+            assertEquals(2_000, stats.getMealsEaten(), strategy.name());
+            assertEquals(strategy.name(), stats.getStrategy());
+            assertEquals(2_000, stats.getForkWait().getTotalCount(), strategy.name());
+        }
+    }
+
+    @Test
+    void serve_withBoundedSpread_keepsEverybodyClose() throws InterruptedException {
+        for (ForkStrategy strategy : ForkStrategy.values()) {
+            DinnerConfig config = new DinnerConfig();
+            config.setForkStrategy(strategy);
+            config.setEatModel(WorkModelType.ZERO);
+            config.setFairnessMode(FairnessMode.BOUNDED_SPREAD);
+            config.setMaxSpread(2);
+            AtomicInteger foodCount = new AtomicInteger(5_000);
+
+            DinnerStats stats = new Dinner(config).serve(9, foodCount);
+
+            assertEquals(5_000, stats.getMealsEaten(), strategy.name());
+            // One more is allowed for leftovers once the food is over
+            assertTrue(stats.getSpread() <= 3, strategy.name() + " spread " + stats.getSpread());
+        }
+    }
 }
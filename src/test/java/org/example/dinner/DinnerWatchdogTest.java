@@ -0,0 +1,98 @@
+package org.example.dinner;
+
+import org.example.fork.ForkTable;
+import org.example.programmer.Programmer;
+import org.example.programmer.WorkModelType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DinnerWatchdogTest {
+
+    @Test
+    void run_whenNobodyEats_reportsTheForkOwners() throws InterruptedException {
+        ForkTable forks = new ForkTable(2);
+        forks.get(0).tryAcquire(99);
+        Programmer programmer = new Programmer(0, forks, new AtomicInteger(5));
+        AtomicReference<String> report = new AtomicReference<>();
+        CountDownLatch fired = new CountDownLatch(1);
+        DinnerWatchdog watchdog = new DinnerWatchdog(List.of(programmer), forks,
+                TimeUnit.MILLISECONDS.toNanos(100), 0, dump -> {
+                    report.compareAndSet(null, dump);
+                    fired.countDown();
+                });
+        Thread thread = new Thread(programmer);
+        thread.start();
+        watchdog.start();
+
+        assertTrue(fired.await(10, TimeUnit.SECONDS));
+        watchdog.stop();
+        thread.interrupt();
+        thread.join();
+
+        assertTrue(report.get().startsWith("Watchdog: no meal finished"), report.get());
+        assertTrue(report.get().contains("Fork 0 held by programmer 99"), report.get());
+    }
+
+    @Test
+    void run_whenOneProgrammerNeverEats_reportsItStarving() throws InterruptedException {
+        // Seat 0 needs fork 0, seat 1 only forks 1 and 2
+        ForkTable forks = new ForkTable(3);
+        forks.get(0).tryAcquire(99);
+        Programmer hungry = new Programmer(0, forks, new AtomicInteger(5));
+        Programmer eating = new Programmer(1, forks, new AtomicInteger(1_000));
+        eating.setEatModel(WorkModelType.FIXED.create(TimeUnit.MILLISECONDS.toNanos(1)));
+        AtomicReference<String> report = new AtomicReference<>();
+        CountDownLatch fired = new CountDownLatch(1);
+        DinnerWatchdog watchdog = new DinnerWatchdog(List.of(hungry, eating), forks,
+                TimeUnit.SECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(100), dump -> {
+                    report.compareAndSet(null, dump);
+                    fired.countDown();
+                });
+        Thread hungryThread = new Thread(hungry);
+        Thread eatingThread = new Thread(eating);
+        hungryThread.start();
+        eatingThread.start();
+        watchdog.start();
+
+        assertTrue(fired.await(10, TimeUnit.SECONDS));
+        watchdog.stop();
+        hungryThread.interrupt();
+        eatingThread.interrupt();
+        hungryThread.join();
+        eatingThread.join();
+
+        assertTrue(report.get().startsWith("Watchdog: 1 programmer(s) did not eat"), report.get());
+        assertTrue(report.get().contains("Programmer 0 starving: WAITING_FORKS"), report.get());
+    }
+
+    @Test
+    void serve_withAbort_failsInsteadOfHanging() throws InterruptedException {
+        DinnerConfig config = new DinnerConfig();
+        config.setEatModel(WorkModelType.ZERO);
+        config.setWatchdogWindowMillis(200);
+        config.setWatchdogAbort(true);
+        try (DinnerEngine engine = new DinnerEngine(config, 2)) {
+            // Both seats of a table of two need fork 0
+            engine.getForks().get(0).tryAcquire(999);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> engine.serve(new AtomicInteger(10)));
+            assertTrue(e.getMessage().contains("no meal finished"), e.getMessage());
+
+            // The table is still usable once the fork is back
+            engine.getForks().get(0).release(999);
+            AtomicInteger food = new AtomicInteger(10);
+            assertEquals(10, engine.serve(food).getMealsEaten());
+            assertEquals(0, food.get());
+        }
+    }
+}
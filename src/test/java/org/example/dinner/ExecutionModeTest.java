@@ -0,0 +1,51 @@
+package org.example.dinner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionModeTest {
+
+    @Test
+    void parse_isCaseInsensitive() {
+        assertEquals(ExecutionMode.PLATFORM, ExecutionMode.parse("platform"));
+        assertEquals(ExecutionMode.VIRTUAL, ExecutionMode.parse(" Virtual "));
+        assertEquals(ExecutionMode.VIRTUAL_BOUNDED, ExecutionMode.parse("virtual_bounded"));
+        assertEquals(ExecutionMode.ASYNC, ExecutionMode.parse("async"));
+    }
+
+    @Test
+    void parse_withUnknownMode_throws() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutionMode.parse("green"));
+    }
+
+    @Test
+    void newExecutor_virtual_runsOnVirtualThreads() throws Exception {
+        ExecutorService pool = ExecutionMode.VIRTUAL.newExecutor(4);
+        Future<Boolean> isVirtual = pool.submit(() -> Thread.currentThread().isVirtual());
+        assertTrue(isVirtual.get(5, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    void newExecutor_platform_runsOnPlatformThreads() throws Exception {
+        ExecutorService pool = ExecutionMode.PLATFORM.newExecutor(4);
+        Future<Boolean> isVirtual = pool.submit(() -> Thread.currentThread().isVirtual());
+        assertFalse(isVirtual.get(5, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    void newExecutor_async_throws() {
+        assertThrows(IllegalStateException.class, () -> ExecutionMode.ASYNC.newExecutor(4));
+    }
+
+    @Test
+    void configureCarriers_withZero_throws() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutionMode.configureCarriers(0));
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.dinner;
+
+import org.example.fork.ForkStrategy;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedDinnerTest {
+
+    private DinnerConfig shardedConfig(int shards) {
+        DinnerConfig config = new DinnerConfig();
+        config.setShards(shards);
+        config.setEatModel(WorkModelType.ZERO);
+        return config;
+    }
+
+    @Test
+    void serve_eatsAllFoodOnEveryTable() throws InterruptedException {
+        for (ForkStrategy strategy : ForkStrategy.values()) {
+            DinnerConfig config = shardedConfig(3);
+            config.setForkStrategy(strategy);
+            try (ShardedDinner dinner = new ShardedDinner(config, 10)) {
+                for (int i = 0; i < 2; i++) {
+                    AtomicInteger foodCount = new AtomicInteger(3_001);
+
+                    DinnerStats stats = dinner.serve(foodCount);
+
+                    assertEquals(0, foodCount.get(), strategy.name());
+                    assertEquals(3_001, stats.getMealsEaten(), strategy.name());
+                    assertEquals(10, stats.getProgrammers(), strategy.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void serve_withoutWaiters_eatsAllFood() throws InterruptedException {
+        DinnerConfig config = shardedConfig(2);
+        config.setWaitersCount(0);
+        try (ShardedDinner dinner = new ShardedDinner(config, 3)) {
+            DinnerStats stats = dinner.serve(new AtomicInteger(5_000));
+
+            assertEquals(5_000, stats.getMealsEaten());
+        }
+    }
+
+    @Test
+    void open_picksTheShardedDinner() {
+        try (DinnerRunner runner = DinnerRunner.open(shardedConfig(2), 4)) {
+            assertInstanceOf(ShardedDinner.class, runner);
+        }
+        try (DinnerRunner runner = DinnerRunner.open(shardedConfig(1), 4)) {
+            assertInstanceOf(DinnerEngine.class, runner);
+        }
+    }
+
+    @Test
+    void constructor_withMoreShardsThanProgrammers_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDinner(shardedConfig(5), 4));
+    }
+
+    @Test
+    void constructor_withATrace_throws() {
+        DinnerConfig config = shardedConfig(2);
+        config.setTraceFile("dinner.trace");
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDinner(config, 4));
+    }
+
+    @Test
+    void constructor_withAnEventLog_throws() {
+        DinnerConfig config = shardedConfig(2);
+        config.setEventLog("dinner.events");
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDinner(config, 4));
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.dinner;
+
+import org.example.fork.ForkStrategy;
+import org.example.fork.WaitMode;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
+import org.example.stats.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedDinnerTest {
+
+    private static DinnerConfig shared(int processes) {
+        DinnerConfig config = new DinnerConfig();
+        config.setProcesses(processes);
+        config.setExecutionMode(ExecutionMode.VIRTUAL);
+        config.setEatModel(WorkModelType.ZERO);
+        config.setWaitersCount(0);
+        return config;
+    }
+
+    @Test
+    void tableFile_keepsWhatEveryProcessWrote() throws IOException {
+        Path path = Files.createTempFile("shared-table", ".test");
+        try {
+            SharedTableFile.create(path, 10, 3, 500).close();
+            try (SharedTableFile table = SharedTableFile.open(path)) {
+                assertEquals(10, table.getSeats());
+                assertEquals(500, table.getFood().remaining());
+                assertEquals(10, table.getForks().freeCount());
+                assertEquals(0, table.firstSeatOf(0));
+                assertEquals(3, table.firstSeatOf(1));
+                assertEquals(10, table.firstSeatOf(3));
+
+                LatencyHistogram waited = new LatencyHistogram();
+                waited.record(1_000);
+                table.writeEaten(9, 7);
+                table.writeResult(2, 42, waited, new LatencyHistogram(), new LatencyHistogram());
+            }
+            try (SharedTableFile table = SharedTableFile.open(path)) {
+                assertEquals(7, table.readEaten()[9]);
+                assertEquals(42, table.readElapsed(2));
+                assertEquals(1, table.readHistograms(2)[0].getTotalCount());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void open_otherFile_throws() throws IOException {
+        Path path = Files.createTempFile("shared-table", ".test");
+        try {
+            Files.write(path, new byte[1024]);
+            assertThrows(IllegalArgumentException.class, () -> SharedTableFile.open(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void serve_onTwoProcesses_eatsTheWholeSupply() throws InterruptedException {
+        try (DinnerRunner runner = DinnerRunner.open(shared(2), 6)) {
+            assertInstanceOf(SharedDinner.class, runner);
+            AtomicInteger foodCount = new AtomicInteger(3_000);
+
+            DinnerStats stats = runner.serve(foodCount);
+
+            assertEquals(0, foodCount.get());
+            assertEquals(3_000, stats.getMealsEaten());
+            assertEquals(6, stats.getPortions().getProgrammers());
+            assertEquals(3_000, stats.getForkWait().getTotalCount());
+        }
+    }
+
+    @Test
+    void open_moreProcessesThanProgrammers_throws() {
+        assertThrows(IllegalArgumentException.class, () -> DinnerRunner.open(shared(4), 3));
+    }
+
+    @Test
+    void open_strategyKeepingStateInOneProcess_throws() {
+        for (ForkStrategy strategy : new ForkStrategy[]{ForkStrategy.CHANDY_MISRA, ForkStrategy.ARBITRATOR,
+                ForkStrategy.BACKOFF}) {
+            DinnerConfig config = shared(2);
+            config.setForkStrategy(strategy);
+
+            assertThrows(IllegalArgumentException.class, () -> DinnerRunner.open(config, 4), strategy.name());
+        }
+        DinnerConfig parked = shared(2);
+        parked.setForkWait(WaitMode.PARK);
+
+        assertThrows(IllegalArgumentException.class, () -> DinnerRunner.open(parked, 4));
+    }
+
+    @Test
+    void open_sharedAndAsync_throws() {
+        DinnerConfig config = shared(2);
+        config.setExecutionMode(ExecutionMode.ASYNC);
+
+        assertThrows(IllegalArgumentException.class, () -> DinnerRunner.open(config, 4));
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.fairness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedSpreadPolicyTest {
+
+    @Test
+    void mayEat_untilTheSpreadIsReached() {
+        BoundedSpreadPolicy policy = new BoundedSpreadPolicy(3, 2);
+        assertTrue(policy.mayEat(0, 0));
+        assertTrue(policy.mayEat(0, 1));
+        assertFalse(policy.mayEat(0, 2));
+    }
+
+    @Test
+    void awaitTurn_returnsOnceTheOthersCatchUp() throws InterruptedException {
+        BoundedSpreadPolicy policy = new BoundedSpreadPolicy(2, 1);
+        policy.ate(0, 1);
+
+        Thread waiting = new Thread(() -> {
+            try {
+                policy.awaitTurn(0, 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        waiting.join(200);
+        assertTrue(waiting.isAlive());
+
+        policy.ate(1, 1);
+        waiting.join(5_000);
+        assertFalse(waiting.isAlive());
+        assertEquals(1, policy.getFloor());
+    }
+
+    @Test
+    void leave_releasesTheOthers() throws InterruptedException {
+        BoundedSpreadPolicy policy = new BoundedSpreadPolicy(2, 1);
+        policy.ate(0, 5);
+        policy.leave(1);
+
+        policy.awaitTurn(0, 5);
+        assertEquals(5, policy.getFloor());
+    }
+
+    @Test
+    void awaitTurn_whenInterrupted_throws() throws InterruptedException {
+        BoundedSpreadPolicy policy = new BoundedSpreadPolicy(2, 1);
+        policy.ate(0, 3);
+        boolean[] interrupted = {false};
+        Thread waiting = new Thread(() -> {
+            try {
+                policy.awaitTurn(0, 3);
+            } catch (InterruptedException e) {
+                interrupted[0] = true;
+            }
+        });
+        waiting.start();
+        waiting.interrupt();
+        waiting.join(5_000);
+        assertTrue(interrupted[0]);
+    }
+
+    @Test
+    void mayEat_withWeights_letsTheHeavierEatMore() {
+        // Weights repeat around the table: 0 and 2 weigh 2, 1 and 3 weigh 1
+        BoundedSpreadPolicy policy = new BoundedSpreadPolicy(4, 1, new int[]{2, 1});
+        assertTrue(policy.mayEat(0, 1));
+        assertFalse(policy.mayEat(0, 2));
+        assertTrue(policy.mayEat(1, 0));
+        assertFalse(policy.mayEat(1, 1));
+
+        for (int id = 0; id < 4; id++) {
+            policy.ate(id, id % 2 == 0 ? 2 : 1);
+        }
+        assertTrue(policy.tryTurn(2, 3));
+        assertFalse(policy.tryTurn(2, 4));
+        assertTrue(policy.tryTurn(3, 1));
+    }
+
+    @Test
+    void mealUnits_areTheLcmOverEveryWeight() {
+        assertArrayEquals(new long[]{3, 2, 6}, BoundedSpreadPolicy.mealUnits(new int[]{2, 3, 1}));
+        assertThrows(IllegalArgumentException.class, () -> BoundedSpreadPolicy.mealUnits(new int[]{0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> BoundedSpreadPolicy.mealUnits(new int[]{1_000_003, 1_000_033}));
+    }
+
+    @Test
+    void constructor_withBadValues_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedSpreadPolicy(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedSpreadPolicy(1, 0));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.food;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodDispenserTest {
+
+    @Test
+    void reserve_grantsAtMostTheFairShare() {
+        AtomicInteger food = new AtomicInteger(100);
+        FoodDispenser dispenser = new FoodDispenser(food, 5);
+
+        // 100 portions, 5 consumers: half of an equal split is 10
+        assertEquals(10, dispenser.reserve(64));
+        assertEquals(90, food.get());
+    }
+
+    @Test
+    void reserve_nearTheEndGrantsSinglePortions() {
+        FoodDispenser dispenser = new FoodDispenser(new AtomicInteger(3), 5);
+        assertEquals(1, dispenser.reserve(64));
+        assertEquals(1, dispenser.reserve(64));
+        assertEquals(1, dispenser.reserve(64));
+        assertEquals(0, dispenser.reserve(64));
+    }
+
+    @Test
+    void reserve_forManyRequesters_neverOverdraws() {
+        AtomicInteger food = new AtomicInteger(3);
+        FoodDispenser dispenser = new FoodDispenser(food, 8);
+        assertEquals(3, dispenser.reserve(16, 4));
+        assertEquals(0, food.get());
+    }
+
+    @Test
+    void reserve_withNoFood_returnsZero() {
+        assertEquals(0, new FoodDispenser(new AtomicInteger(0), 1).reserve(1));
+        assertEquals(0, new FoodDispenser(new AtomicInteger(-5), 1).reserve(1));
+    }
+
+    @Test
+    void giveBack_returnsPortionsToTheSupply() {
+        AtomicInteger food = new AtomicInteger(10);
+        FoodDispenser dispenser = new FoodDispenser(food, 1);
+        int granted = dispenser.reserve(4);
+        dispenser.giveBack(granted);
+        assertEquals(10, food.get());
+        assertEquals(10, dispenser.remaining());
+    }
+
+    @Test
+    void constructor_withoutConsumers_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new FoodDispenser(new AtomicInteger(1), 0));
+    }
+}
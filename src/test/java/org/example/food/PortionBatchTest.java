@@ -0,0 +1,61 @@
+package org.example.food;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortionBatchTest {
+
+    @Test
+    void takeOne_eatsEverythingAlone() {
+        AtomicInteger food = new AtomicInteger(5);
+        PortionBatch batch = new PortionBatch(new FoodDispenser(food, 1));
+
+        int eaten = 0;
+        while (batch.takeOne()) eaten++;
+
+        assertEquals(5, eaten);
+        assertEquals(0, food.get());
+    }
+
+    @Test
+    void giveBack_returnsTheUnusedPart() {
+        AtomicInteger food = new AtomicInteger(1000);
+        FoodDispenser dispenser = new FoodDispenser(food, 1);
+        PortionBatch batch = new PortionBatch(dispenser);
+        // A portion that could not be eaten goes back with the rest
+        assertTrue(batch.takeOne());
+        batch.putBack();
+        assertEquals(1, batch.getReserved());
+        batch.giveBack();
+
+        assertEquals(0, batch.getReserved());
+        assertEquals(1000, food.get());
+    }
+
+    @Test
+    void concurrentProgrammers_eatExactlyTheSupply() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger food = new AtomicInteger(100_000);
+        FoodDispenser dispenser = new FoodDispenser(food, threads);
+        int[] eaten = new int[threads];
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            workers[i] = new Thread(() -> {
+                PortionBatch batch = new PortionBatch(dispenser);
+                while (batch.takeOne()) eaten[index]++;
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        int total = 0;
+        for (int count : eaten) total += count;
+        assertEquals(100_000, total);
+        assertEquals(0, food.get());
+    }
+}
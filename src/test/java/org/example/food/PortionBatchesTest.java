@@ -0,0 +1,57 @@
+package org.example.food;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortionBatchesTest {
+
+    @Test
+    void takeOne_seatsShareTheSupply() {
+        AtomicInteger food = new AtomicInteger(7);
+        PortionBatches batches = new PortionBatches(new FoodDispenser(food, 2), 2);
+
+        int eaten = 0;
+        while (batches.takeOne(eaten % 2)) eaten++;
+
+        assertEquals(7, eaten);
+        assertFalse(batches.takeOne(0));
+        assertFalse(batches.takeOne(1));
+        assertEquals(0, food.get());
+    }
+
+    @Test
+    void giveBack_returnsOnlyThatSeat() {
+        AtomicInteger food = new AtomicInteger(1000);
+        FoodDispenser dispenser = new FoodDispenser(food, 1);
+        PortionBatches batches = new PortionBatches(new FoodSource() {
+            @Override
+            public int tryReserve(int want) { return dispenser.tryReserve(4); }
+            @Override
+            public void giveBack(int portions) { dispenser.giveBack(portions); }
+        }, 2);
+        assertTrue(batches.takeOne(0));
+        assertTrue(batches.takeOne(1));
+
+        batches.giveBack(0);
+
+        assertEquals(0, batches.getReserved(0));
+        assertEquals(3, batches.getReserved(1));
+        assertEquals(995, food.get());
+    }
+
+    @Test
+    void reset_forgetsTheLearnedSizes() {
+        PortionBatches batches = new PortionBatches(new FoodDispenser(new AtomicInteger(10), 1), 3);
+        batches.takeOne(2);
+
+        batches.reset();
+
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(0, batches.getReserved(seat));
+            assertEquals(PortionBatch.MIN_BATCH, batches.getBatchSize(seat));
+        }
+    }
+}
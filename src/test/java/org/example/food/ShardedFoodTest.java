@@ -0,0 +1,58 @@
+package org.example.food;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedFoodTest {
+
+    @Test
+    void distribute_splitsByTableSize() {
+        ShardedFood food = new ShardedFood(3);
+        food.distribute(100, new int[]{2, 1, 1});
+
+        assertEquals(50, food.supplyOf(0).get());
+        assertEquals(25, food.supplyOf(1).get());
+        assertEquals(25, food.supplyOf(2).get());
+        assertEquals(100, food.remaining());
+    }
+
+    @Test
+    void distribute_handsOutTheRemainder() {
+        ShardedFood food = new ShardedFood(3);
+        food.distribute(11, new int[]{1, 1, 1});
+
+        assertEquals(4, food.supplyOf(0).get());
+        assertEquals(4, food.supplyOf(1).get());
+        assertEquals(3, food.supplyOf(2).get());
+    }
+
+    @Test
+    void dispenser_whenEmpty_stealsHalfFromAnotherTable() {
+        ShardedFood food = new ShardedFood(2);
+        food.distribute(20, new int[]{1, 1});
+        food.supplyOf(0).set(0);
+        FoodDispenser dispenser = food.dispenserFor(0, 1);
+
+        int granted = dispenser.reserve(64);
+
+        // 5 of the other table's 10 moved over, then a fair share of those granted
+        assertEquals(5, food.supplyOf(1).get());
+        assertEquals(2, granted);
+        assertEquals(3, food.supplyOf(0).get());
+        assertEquals(1, food.getSteals());
+        assertEquals(5, food.getStolenPortions());
+    }
+
+    @Test
+    void dispenser_whenEveryTableIsEmpty_grantsNothing() {
+        ShardedFood food = new ShardedFood(3);
+        food.distribute(3, new int[]{1, 1, 1});
+        for (int i = 0; i < 3; i++) {
+            food.dispenserFor(i, 1).reserve(64);
+        }
+
+        assertEquals(0, food.dispenserFor(1, 1).reserve(64));
+        assertEquals(0, food.remaining());
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.food;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedSupplyTest {
+
+    @Test
+    void take_handsOutShrinkingChunks() {
+        SharedSupply supply = new SharedSupply(ByteBuffer.allocateDirect(64), 0, 2);
+        supply.set(100);
+
+        assertEquals(25, supply.take());
+        assertEquals(18, supply.take());
+        assertEquals(57, supply.remaining());
+        supply.giveBack(3);
+        assertEquals(60, supply.remaining());
+    }
+
+    @Test
+    void take_emptySupply_givesNothing() {
+        SharedSupply supply = new SharedSupply(ByteBuffer.allocateDirect(64), 8, 3);
+        supply.set(0);
+
+        assertEquals(0, supply.take());
+    }
+
+    @Test
+    void dispensers_ofSeveralProcesses_eatExactlyTheSupply() throws InterruptedException {
+        ByteBuffer shared = ByteBuffer.allocateDirect(64);
+        new SharedSupply(shared, 0, 3).set(30_000);
+        int[] eaten = new int[3];
+
+        Thread[] processes = new Thread[3];
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            // Every "process" maps the same word with its own supply and local counter
+            SharedSupply supply = new SharedSupply(shared, 0, 3);
+            AtomicInteger local = new AtomicInteger();
+            processes[i] = new Thread(() -> {
+                PortionBatch batch = new PortionBatch(supply.dispenserFor(local, 4));
+                while (batch.takeOne()) eaten[index]++;
+                batch.giveBack();
+                supply.giveBack(local.getAndSet(0));
+            });
+            processes[i].start();
+        }
+        for (Thread process : processes) process.join();
+
+        assertEquals(30_000, eaten[0] + eaten[1] + eaten[2]);
+        assertEquals(0, new SharedSupply(shared, 0, 3).remaining());
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.fork;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForkStrategyTest {
+
+    @Test
+    void parse_isCaseInsensitive() {
+        assertEquals(ForkStrategy.CHANDY_MISRA, ForkStrategy.parse("chandy_misra"));
+        assertEquals(ForkStrategy.BACKOFF, ForkStrategy.parse(" Backoff "));
+        assertThrows(IllegalArgumentException.class, () -> ForkStrategy.parse("hope"));
+    }
+
+    @Test
+    void acquire_takesBothNeighbourForks() {
+        for (ForkStrategy type : ForkStrategy.values()) {
+            ForkTable table = new ForkTable(5);
+            ForkAcquisitionStrategy strategy = type.create(table);
+
+            assertTrue(strategy.acquire(2, 7), type.name());
+            assertEquals(7, table.leftOf(2).getOwner(), type.name());
+            assertEquals(7, table.rightOf(2).getOwner(), type.name());
+            assertEquals(3, table.freeCount(), type.name());
+
+            strategy.release(2, 7);
+            assertEquals(5, table.freeCount(), type.name());
+        }
+    }
+
+    @Test
+    void acquire_onSingleSeatTable() {
+        for (ForkStrategy type : ForkStrategy.values()) {
+            ForkTable table = new ForkTable(1);
+            ForkAcquisitionStrategy strategy = type.create(table);
+
+            assertTrue(strategy.acquire(0, 0), type.name());
+            strategy.release(0, 0);
+            assertTrue(strategy.acquire(0, 0), type.name());
+            strategy.release(0, 0);
+            assertEquals(1, table.freeCount(), type.name());
+        }
+    }
+
+    @Test
+    void neighbours_neverEatTogether() throws InterruptedException {
+        int seats = 5;
+        for (ForkStrategy type : ForkStrategy.values()) {
+            ForkTable table = new ForkTable(seats);
+            ForkAcquisitionStrategy strategy = type.create(table);
+            AtomicIntegerArray eating = new AtomicIntegerArray(seats);
+            AtomicBoolean clash = new AtomicBoolean();
+
+            Thread[] threads = new Thread[seats];
+            for (int seat = 0; seat < seats; seat++) {
+                int s = seat;
+                threads[seat] = new Thread(() -> {
+                    for (int meal = 0; meal < 2_000; meal++) {
+                        assertTrue(strategy.acquire(s, s));
+                        eating.set(s, 1);
+                        if (eating.get((s + 1) % seats) == 1 || eating.get((s + seats - 1) % seats) == 1) {
+                            clash.set(true);
+                        }
+                        eating.set(s, 0);
+                        strategy.release(s, s);
+                    }
+                });
+                threads[seat].start();
+            }
+            for (Thread thread : threads) {
+                thread.join(30_000);
+                assertFalse(thread.isAlive(), type.name() + " got stuck");
+            }
+
+            assertFalse(clash.get(), type.name());
+            assertEquals(seats, table.freeCount(), type.name());
+        }
+    }
+
+    @Test
+    void acquire_whenInterrupted_holdsNothing() throws InterruptedException {
+        for (ForkStrategy type : ForkStrategy.values()) {
+            ForkTable table = new ForkTable(3);
+            ForkAcquisitionStrategy strategy = type.create(table);
+            // Seat 0 eats and never finishes
+            assertTrue(strategy.acquire(0, 0));
+
+            boolean[] result = {true};
+            Thread hungry = new Thread(() -> result[0] = strategy.acquire(1, 1));
+            hungry.start();
+            hungry.join(200);
+            hungry.interrupt();
+            hungry.join(5_000);
+
+            assertFalse(hungry.isAlive(), type.name());
+            assertFalse(result[0], type.name());
+            assertEquals(Fork.FREE, table.rightOf(1).getOwner(), type.name());
+        }
+    }
+
+    @Test
+    void chandyMisra_release_handsARequestedForkOver() throws InterruptedException {
+        ForkTable table = new ForkTable(3);
+        ForkAcquisitionStrategy strategy = ForkStrategy.CHANDY_MISRA.create(table);
+        assertTrue(strategy.acquire(0, 0));
+        // Seat 1 asks for fork 1 while seat 0 eats with it
+        AtomicBoolean ate = new AtomicBoolean();
+        Thread hungry = new Thread(() -> {
+            assertTrue(strategy.acquire(1, 1));
+            ate.set(true);
+            strategy.release(1, 1);
+        });
+        hungry.start();
+        while (hungry.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+
+        strategy.release(0, 0);
+        // Hungry again at once, seat 0 still has to wait for seat 1's meal
+        assertTrue(strategy.acquire(0, 0));
+
+        assertTrue(ate.get());
+        strategy.release(0, 0);
+        hungry.join(5_000);
+        assertEquals(3, table.freeCount());
+    }
+
+    @Test
+    void chandyMisra_greedyNeighbours_cannotStarveTheSeatBetweenThem() throws InterruptedException {
+        ForkTable table = new ForkTable(3);
+        ForkAcquisitionStrategy strategy = ForkStrategy.CHANDY_MISRA.create(table);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread[] greedy = new Thread[2];
+        for (int i = 0; i < greedy.length; i++) {
+            // Seats 0 and 2, eating again the moment they are done
+            int seat = i * 2;
+            greedy[i] = new Thread(() -> {
+                while (!done.get()) {
+                    assertTrue(strategy.acquire(seat, seat));
+                    strategy.release(seat, seat);
+                }
+            });
+            greedy[i].start();
+        }
+
+        Thread between = new Thread(() -> {
+            for (int meal = 0; meal < 1_000; meal++) {
+                assertTrue(strategy.acquire(1, 1));
+                strategy.release(1, 1);
+            }
+        });
+        between.start();
+        between.join(30_000);
+        boolean starved = between.isAlive();
+        done.set(true);
+        for (Thread thread : greedy) {
+            thread.join(5_000);
+        }
+
+        assertFalse(starved, "seat 1 starved");
+        assertEquals(3, table.freeCount());
+    }
+}
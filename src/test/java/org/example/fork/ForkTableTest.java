@@ -0,0 +1,84 @@
+package org.example.fork;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForkTableTest {
+
+    @Test
+    void testNeighboursWrapAround() {
+        ForkTable table = new ForkTable(5);
+        assertEquals(0, table.leftOf(0).getId());
+        assertEquals(1, table.rightOf(0).getId());
+        assertEquals(4, table.leftOf(4).getId());
+        assertEquals(0, table.rightOf(4).getId());
+    }
+
+    @Test
+    void testSeatOfWrapsProgrammerIds() {
+        ForkTable table = new ForkTable(3);
+        assertEquals(0, table.seatOf(3));
+        assertEquals(2, table.seatOf(5));
+    }
+
+    @Test
+    void testFreeCount() {
+        ForkTable table = new ForkTable(4);
+        assertEquals(4, table.freeCount());
+        table.get(2).tryAcquire(7);
+        assertEquals(3, table.freeCount());
+    }
+
+    @Test
+    void testForkViewsShareTheOwnerWords() {
+        ForkTable table = new ForkTable(3);
+        assertSame(table.get(1), table.rightOf(0));
+
+        assertTrue(table.tryAcquire(1, 4));
+        assertEquals(4, table.get(1).getOwner());
+        assertFalse(table.get(1).tryAcquire(5));
+        table.get(1).release(4);
+        assertEquals(Fork.FREE, table.ownerOf(1));
+    }
+
+    @Test
+    void testLargeTableIsNotPadded() {
+        ForkTable table = new ForkTable(ForkTable.PADDED_LIMIT + 1);
+        assertTrue(table.tryAcquire(ForkTable.PADDED_LIMIT, 2));
+        assertTrue(table.tryAcquire(ForkTable.PADDED_LIMIT - 1, 3));
+
+        assertEquals(2, table.ownerOf(ForkTable.PADDED_LIMIT));
+        assertEquals(Fork.FREE, table.ownerOf(0));
+        assertEquals(ForkTable.PADDED_LIMIT - 1, table.freeCount());
+        assertThrows(IllegalStateException.class, () -> table.release(0, 2));
+    }
+
+    @Test
+    void testTablesOverOneBufferSeeEachOther() {
+        ByteBuffer shared = ByteBuffer.allocateDirect(64 + ForkTable.bytesFor(5));
+        ForkTable mine = new ForkTable(shared, 64, 5);
+        ForkTable theirs = new ForkTable(shared, 64, 5);
+        mine.reset();
+
+        assertTrue(mine.tryAcquire(3, 1));
+        assertFalse(theirs.tryAcquire(3, 2));
+        assertEquals(1, theirs.get(3).getOwner());
+        mine.release(3, 1);
+        assertTrue(theirs.tryAcquire(3, 2));
+        assertEquals(4, mine.freeCount());
+    }
+
+    @Test
+    void testTooSmallBufferThrows() {
+        ByteBuffer shared = ByteBuffer.allocateDirect(ForkTable.bytesFor(5));
+        assertThrows(IllegalArgumentException.class, () -> new ForkTable(shared, 4, 5));
+    }
+
+    @Test
+    void testEmptyTableThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new ForkTable(0));
+    }
+}
@@ -1,7 +1,7 @@
 package org.example.fork;
 
 import org.junit.jupiter.api.Test;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class ForkTest {
 
@@ -13,4 +13,30 @@ class ForkTest {
         assertEquals(0, fork0.getId(), "Fork id should be 0");
         assertEquals(1, fork1.getId(), "Fork id should be 1");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNewForkIsFree() {
+        Fork fork = new Fork(0);
+        assertTrue(fork.isFree());
+        assertEquals(Fork.FREE, fork.getOwner());
+    }
+
+    @Test
+    void testOnlyOneOwner() {
+        Fork fork = new Fork(0);
+        assertTrue(fork.tryAcquire(1));
+        assertFalse(fork.tryAcquire(2));
+        assertEquals(1, fork.getOwner());
+
+        fork.release(1);
+        assertTrue(fork.tryAcquire(2));
+    }
+
+    @Test
+    void testReleaseByStrangerThrows() {
+        Fork fork = new Fork(0);
+        fork.tryAcquire(1);
+        assertThrows(IllegalStateException.class, () -> fork.release(2));
+        assertEquals(1, fork.getOwner());
+    }
+}
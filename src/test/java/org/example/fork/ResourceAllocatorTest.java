@@ -0,0 +1,135 @@
+package org.example.fork;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceAllocatorTest {
+
+    // Both allocators over the given amount of resources
+    private static final List<IntFunction<ResourceAllocator>> ALLOCATORS = List.of(
+            size -> new OrderedResourceAllocator(size, new SpinYieldParkWaitPolicy()),
+            size -> new BitmapResourceAllocator(size, new SpinYieldParkWaitPolicy()));
+
+    @Test
+    void resourceSet_isSortedWithoutRepeats() {
+        ResourceSet set = ResourceSet.of(9, 3, 9, 0, 3);
+
+        assertEquals(3, set.size());
+        assertEquals(0, set.get(0));
+        assertEquals(3, set.get(1));
+        assertEquals(9, set.max());
+        assertThrows(IllegalArgumentException.class, () -> ResourceSet.of(-1, 2));
+        assertThrows(IllegalArgumentException.class, ResourceSet::of);
+    }
+
+    @Test
+    void tryAcquire_overlappingSet_takesNothing() {
+        for (IntFunction<ResourceAllocator> factory : ALLOCATORS) {
+            ResourceAllocator allocator = factory.apply(200);
+            ResourceSet held = ResourceSet.of(5, 130);
+            ResourceSet wanted = ResourceSet.of(1, 70, 130, 199);
+            assertTrue(allocator.tryAcquire(held, 1));
+
+            assertFalse(allocator.tryAcquire(wanted, 2), allocator.getClass().getSimpleName());
+            // 1 and 70 were rolled back, so a set of just those is free
+            assertTrue(allocator.tryAcquire(ResourceSet.of(1, 70, 199), 3), allocator.getClass().getSimpleName());
+
+            allocator.release(held, 1);
+            allocator.release(ResourceSet.of(1, 70, 199), 3);
+            assertTrue(allocator.tryAcquire(wanted, 2), allocator.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void sets_beyondTheTable_throw() {
+        for (IntFunction<ResourceAllocator> factory : ALLOCATORS) {
+            ResourceAllocator allocator = factory.apply(100);
+            String name = allocator.getClass().getSimpleName();
+            // 100 still falls into the last bitmap word, 164 past it
+            for (ResourceSet beyond : List.of(ResourceSet.of(5, 100), ResourceSet.of(36, 164))) {
+                assertThrows(IllegalArgumentException.class, () -> allocator.tryAcquire(beyond, 1), name);
+                assertThrows(IllegalArgumentException.class, () -> allocator.acquire(beyond, 1), name);
+                assertThrows(IllegalArgumentException.class, () -> allocator.release(beyond, 1), name);
+            }
+            assertTrue(allocator.tryAcquire(ResourceSet.of(5, 36, 99), 1), name);
+        }
+    }
+
+    @Test
+    void release_notHeld_throws() {
+        for (IntFunction<ResourceAllocator> factory : ALLOCATORS) {
+            ResourceAllocator allocator = factory.apply(8);
+
+            assertThrows(IllegalStateException.class, () -> allocator.release(ResourceSet.of(2, 3), 1),
+                    allocator.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void acquire_whenInterrupted_holdsNothing() throws InterruptedException {
+        for (IntFunction<ResourceAllocator> factory : ALLOCATORS) {
+            ResourceAllocator allocator = factory.apply(128);
+            assertTrue(allocator.acquire(ResourceSet.of(100), 1));
+
+            boolean[] result = {true};
+            Thread blocked = new Thread(() -> result[0] = allocator.acquire(ResourceSet.of(3, 64, 100), 2));
+            blocked.start();
+            blocked.join(200);
+            blocked.interrupt();
+            blocked.join(5_000);
+
+            assertFalse(blocked.isAlive(), allocator.getClass().getSimpleName());
+            assertFalse(result[0], allocator.getClass().getSimpleName());
+            assertTrue(allocator.tryAcquire(ResourceSet.of(3, 64), 3), allocator.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void randomSets_neverShareAResource() throws InterruptedException {
+        int resources = 150;
+        int tasks = 6;
+        for (IntFunction<ResourceAllocator> factory : ALLOCATORS) {
+            ResourceAllocator allocator = factory.apply(resources);
+            AtomicIntegerArray holders = new AtomicIntegerArray(resources);
+            AtomicBoolean clash = new AtomicBoolean();
+            Thread[] threads = new Thread[tasks];
+            for (int t = 0; t < tasks; t++) {
+                int task = t + 1;
+                threads[t] = new Thread(() -> {
+                    SplittableRandom random = new SplittableRandom(task);
+                    for (int round = 0; round < 3_000; round++) {
+                        int[] ids = new int[1 + random.nextInt(8)];
+                        for (int i = 0; i < ids.length; i++) {
+                            // Half the time close together, half spread over several words
+                            ids[i] = random.nextBoolean() ? random.nextInt(12) : random.nextInt(resources);
+                        }
+                        ResourceSet set = ResourceSet.of(ids);
+                        assertTrue(allocator.acquire(set, task));
+                        for (int i = 0; i < set.size(); i++) {
+                            if (!holders.compareAndSet(set.get(i), 0, task)) clash.set(true);
+                        }
+                        for (int i = 0; i < set.size(); i++) {
+                            holders.set(set.get(i), 0);
+                        }
+                        allocator.release(set, task);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join(60_000);
+                assertFalse(thread.isAlive(), allocator.getClass().getSimpleName() + " got stuck");
+            }
+
+            assertFalse(clash.get(), allocator.getClass().getSimpleName());
+            assertTrue(allocator.tryAcquire(ResourceSet.of(0, 63, 64, 149), 9));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.fork;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitPolicyTest {
+
+    @Test
+    void parse_isCaseInsensitive() {
+        assertEquals(WaitMode.ADAPTIVE, WaitMode.parse(" adaptive "));
+        assertEquals(WaitMode.SPIN_YIELD_PARK, WaitMode.parse("spin_yield_park"));
+        assertThrows(IllegalArgumentException.class, () -> WaitMode.parse("nap"));
+    }
+
+    @Test
+    void create_givesEveryModeItsPolicy() {
+        assertInstanceOf(ParkWaitPolicy.class, WaitMode.PARK.create());
+        assertInstanceOf(SpinYieldParkWaitPolicy.class, WaitMode.SPIN_YIELD_PARK.create());
+        assertInstanceOf(AdaptiveWaitPolicy.class, WaitMode.ADAPTIVE.create());
+    }
+
+    @Test
+    void adaptive_spinsLongerForShortHolds() {
+        AdaptiveWaitPolicy policy = new AdaptiveWaitPolicy();
+        for (int i = 0; i < 200; i++) {
+            policy.held(10_000);
+        }
+        int shortHolds = policy.getSpinLimit();
+        for (int i = 0; i < 200; i++) {
+            policy.held(10_000_000);
+        }
+
+        assertTrue(shortHolds > AdaptiveWaitPolicy.MIN_SPINS, "spins " + shortHolds);
+        assertTrue(shortHolds <= AdaptiveWaitPolicy.MAX_SPINS, "spins " + shortHolds);
+        assertEquals(AdaptiveWaitPolicy.MIN_SPINS, policy.getSpinLimit());
+        assertTrue(policy.getHoldNanos() > AdaptiveWaitPolicy.SPIN_THRESHOLD_NANOS);
+    }
+
+    @Test
+    void ordered_learnsHoldTimesOnlyForAdaptive() {
+        ForkTable table = new ForkTable(3);
+        AdaptiveWaitPolicy policy = new AdaptiveWaitPolicy();
+        OrderedForkStrategy strategy = new OrderedForkStrategy(table, policy);
+
+        assertTrue(strategy.acquire(0, 0));
+        strategy.release(0, 0);
+
+        assertSame(policy, strategy.getWaitPolicy());
+        assertTrue(policy.getHoldNanos() > 0);
+    }
+
+    @Test
+    void park_blocksUntilTheReleaseWakesIt() throws InterruptedException {
+        OrderedResourceAllocator allocator = new OrderedResourceAllocator(2, new ParkWaitPolicy());
+        assertTrue(allocator.acquire(1, 0));
+        Thread waiter = new Thread(() -> assertTrue(allocator.acquire(1, 1)));
+        waiter.start();
+
+        // Parked without a timeout: only the release can get it going again
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        allocator.release(1, 0);
+
+        waiter.join(5_000);
+        assertFalse(waiter.isAlive());
+        assertEquals(1, allocator.ownerOf(1));
+    }
+
+    @Test
+    void ordered_withEveryWaitMode_keepsNeighboursApart() throws InterruptedException {
+        int seats = 5;
+        for (WaitMode mode : WaitMode.values()) {
+            ForkTable table = new ForkTable(seats);
+            ForkAcquisitionStrategy strategy = ForkStrategy.ORDERED.create(table, mode.create());
+            AtomicIntegerArray eating = new AtomicIntegerArray(seats);
+            AtomicBoolean clash = new AtomicBoolean();
+
+            Thread[] threads = new Thread[seats];
+            for (int seat = 0; seat < seats; seat++) {
+                int s = seat;
+                threads[seat] = new Thread(() -> {
+                    for (int meal = 0; meal < 2_000; meal++) {
+                        assertTrue(strategy.acquire(s, s));
+                        eating.set(s, 1);
+                        if (eating.get((s + 1) % seats) == 1 || eating.get((s + seats - 1) % seats) == 1) {
+                            clash.set(true);
+                        }
+                        eating.set(s, 0);
+                        strategy.release(s, s);
+                    }
+                });
+                threads[seat].start();
+            }
+            for (Thread thread : threads) {
+                thread.join(30_000);
+                assertFalse(thread.isAlive(), mode.name() + " got stuck");
+            }
+
+            assertFalse(clash.get(), mode.name());
+            assertEquals(seats, table.freeCount(), mode.name());
+        }
+    }
+}
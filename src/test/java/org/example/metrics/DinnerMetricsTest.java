@@ -0,0 +1,74 @@
+package org.example.metrics;
+
+import org.example.fork.ForkTable;
+import org.example.programmer.Programmer;
+import org.example.programmer.WorkModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinnerMetricsTest {
+
+    @Test
+    void programmers_countTheirMealsAndForkWaits() {
+        AtomicInteger food = new AtomicInteger(10);
+        Programmer programmer = new Programmer(0, new ForkTable(2), food);
+        programmer.setEatModel(WorkModel.NONE);
+        DinnerMetrics metrics = new DinnerMetrics();
+        metrics.addTable(List.of(programmer));
+        metrics.setFoodSource(food::get);
+        programmer.setMetrics(metrics);
+
+        programmer.run();
+
+        assertEquals(10, metrics.getMealsEaten());
+        assertEquals(10, metrics.getForkWaits());
+        assertEquals(0, metrics.getRemainingFood());
+        assertEquals(0, metrics.getWaitingForForks());
+        assertArrayEquals(new int[]{10}, metrics.getPortionsEaten());
+    }
+
+    @Test
+    void startDinner_startsTheCountersOver() {
+        DinnerMetrics metrics = new DinnerMetrics();
+        metrics.mealEaten();
+        metrics.forkWait(1_000);
+
+        metrics.startDinner();
+
+        assertEquals(0, metrics.getMealsEaten());
+        assertEquals(0, metrics.getForkWaits());
+        assertEquals(0, metrics.getMeanForkWaitMicros());
+    }
+
+    @Test
+    void disabled_countsNothing() {
+        DinnerMetrics metrics = DinnerMetrics.disabled();
+        metrics.mealEaten();
+        metrics.forkWait(1_000);
+
+        assertFalse(metrics.isEnabled());
+        assertEquals(0, metrics.getMealsEaten());
+        assertEquals(0, metrics.getForkWaits());
+    }
+
+    @Test
+    void toPrometheus_listsEveryMetric() {
+        DinnerMetrics metrics = new DinnerMetrics();
+        metrics.addTable(List.of(new Programmer(0, new ForkTable(2), new AtomicInteger(1))));
+        metrics.setFoodSource(() -> 7);
+        metrics.mealEaten();
+        metrics.forkWait(2_000_000_000L);
+
+        String text = metrics.toPrometheus();
+
+        assertTrue(text.contains("\ndinner_meals_total 1\n"), text);
+        assertTrue(text.contains("\ndinner_food_remaining 7\n"), text);
+        assertTrue(text.contains("\ndinner_fork_wait_seconds_total 2\n"), text);
+        assertTrue(text.contains("# TYPE dinner_programmers_waiting_forks gauge"), text);
+        assertTrue(text.contains("dinner_programmer_portions{programmer=\"0\"} 0"), text);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsExporterTest {
+
+    @Test
+    void start_registersTheMBean() throws Exception {
+        DinnerMetrics metrics = new DinnerMetrics();
+        metrics.mealEaten();
+        try (MetricsExporter exporter = new MetricsExporter(metrics, -1)) {
+            exporter.start();
+
+            Object meals = ManagementFactory.getPlatformMBeanServer().getAttribute(exporter.getName(), "MealsEaten");
+            assertEquals(1L, meals);
+            assertEquals(-1, exporter.getPort());
+        }
+    }
+
+    @Test
+    void start_withPort_servesPrometheusText() throws IOException {
+        DinnerMetrics metrics = new DinnerMetrics();
+        metrics.mealEaten();
+        metrics.mealEaten();
+        try (MetricsExporter exporter = new MetricsExporter(metrics, 0)) {
+            exporter.start();
+
+            HttpURLConnection connection = (HttpURLConnection) URI
+                    .create("http://127.0.0.1:" + exporter.getPort() + "/metrics").toURL().openConnection();
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(body.contains("\ndinner_meals_total 2\n"), body);
+        }
+    }
+
+    @Test
+    void close_unregistersTheMBean() throws IOException {
+        MetricsExporter exporter = new MetricsExporter(new DinnerMetrics(), -1);
+        exporter.start();
+        javax.management.ObjectName name = exporter.getName();
+
+        exporter.close();
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    void start_portTaken_leavesNoMBeanBehind() throws Exception {
+        ObjectName all = new ObjectName("org.example:type=DinnerMetrics,*");
+        int before = ManagementFactory.getPlatformMBeanServer().queryNames(all, null).size();
+        try (ServerSocket taken = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            MetricsExporter exporter = new MetricsExporter(new DinnerMetrics(), taken.getLocalPort());
+
+            assertThrows(IOException.class, exporter::start);
+        }
+
+        assertEquals(before, ManagementFactory.getPlatformMBeanServer().queryNames(all, null).size());
+    }
+}
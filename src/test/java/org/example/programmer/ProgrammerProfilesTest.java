@@ -0,0 +1,106 @@
+package org.example.programmer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgrammerProfilesTest {
+
+    private static Properties seniorsAndJuniors() {
+        Properties props = new Properties();
+        props.setProperty("profiles", "senior, junior");
+        props.setProperty("profile.senior.weight", "3");
+        props.setProperty("profile.senior.eat_model", "exponential");
+        props.setProperty("profile.senior.eat_nanos", "5000");
+        props.setProperty("profile.junior.seats", "3");
+        return props;
+    }
+
+    @Test
+    void fromProperties_fillsInTheDefaults() {
+        ProgrammerProfiles profiles = ProgrammerProfiles.fromProperties(seniorsAndJuniors(), WorkModelType.FIXED, 100);
+
+        assertEquals(2, profiles.size());
+        ProgrammerProfile senior = profiles.get(0);
+        assertEquals("senior", senior.getName());
+        assertEquals(3, senior.getWeight());
+        assertEquals(1, senior.getSeats());
+        assertEquals(WorkModelType.EXPONENTIAL, senior.getEatModel());
+        assertEquals(5000, senior.getEatNanos());
+        ProgrammerProfile junior = profiles.get(1);
+        assertEquals(1, junior.getWeight());
+        assertEquals(3, junior.getSeats());
+        assertEquals(WorkModelType.FIXED, junior.getEatModel());
+        assertEquals(100, junior.getEatNanos());
+    }
+
+    @Test
+    void fromProperties_withoutProfiles_isNone() {
+        ProgrammerProfiles profiles = ProgrammerProfiles.fromProperties(new Properties(), WorkModelType.FIXED, 100);
+
+        assertTrue(profiles.isEmpty());
+        assertEquals(0, profiles.indexOf(12));
+        assertNull(profiles.getWeights());
+        assertTrue(profiles.classStats(new int[]{1, 2}, 0, 1).isEmpty());
+    }
+
+    @Test
+    void indexOf_spreadsTheSeatsOfARoundOut() {
+        ProgrammerProfiles profiles = ProgrammerProfiles.of(List.of(
+                new ProgrammerProfile("a", 1, 3, WorkModelType.ZERO, 0),
+                new ProgrammerProfile("b", 1, 1, WorkModelType.ZERO, 0)));
+
+        int[] seated = new int[8];
+        for (int id = 0; id < seated.length; id++) {
+            seated[id] = profiles.indexOf(id);
+        }
+        assertArrayEquals(new int[]{0, 0, 1, 0, 0, 0, 1, 0}, seated);
+    }
+
+    @Test
+    void getWeights_followsTheSeats() {
+        ProgrammerProfiles profiles = ProgrammerProfiles.fromProperties(seniorsAndJuniors(), WorkModelType.FIXED, 100);
+
+        assertArrayEquals(new int[]{1, 3, 1, 1}, profiles.getWeights());
+    }
+
+    @Test
+    void classStats_splitsThePortionsByProfile() {
+        ProgrammerProfiles profiles = ProgrammerProfiles.of(List.of(
+                new ProgrammerProfile("heavy", 3, 1, WorkModelType.ZERO, 0),
+                new ProgrammerProfile("light", 1, 1, WorkModelType.ZERO, 0)));
+
+        var classes = profiles.classStats(new int[]{30, 10, 30, 10}, 0, 1_000_000_000);
+
+        assertEquals("heavy", classes.get(0).getName());
+        assertEquals(60, classes.get(0).getMeals());
+        assertEquals(2, classes.get(0).getProgrammers());
+        assertEquals(0.75, classes.get(0).getMealShare(), 1e-9);
+        assertEquals(0.75, classes.get(0).getWeightShare(), 1e-9);
+        assertEquals(60, classes.get(0).getThroughput(), 1e-9);
+        assertEquals(10, classes.get(1).getMealsPerWeight(), 1e-9);
+    }
+
+    @Test
+    void writeTo_readsBackTheSame() {
+        ProgrammerProfiles profiles = ProgrammerProfiles.fromProperties(seniorsAndJuniors(), WorkModelType.FIXED, 100);
+        Properties props = new Properties();
+        profiles.writeTo(props);
+
+        ProgrammerProfiles read = ProgrammerProfiles.fromProperties(props, WorkModelType.ZERO, 0);
+
+        assertEquals(profiles.toString(), read.toString());
+    }
+
+    @Test
+    void of_withBadProfiles_throws() {
+        ProgrammerProfile a = new ProgrammerProfile("a", 1, 1, WorkModelType.ZERO, 0);
+        assertThrows(IllegalArgumentException.class, () -> ProgrammerProfiles.of(List.of(a, a)));
+        assertThrows(IllegalArgumentException.class, () -> new ProgrammerProfile("b", 0, 1, WorkModelType.ZERO, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ProgrammerProfile("b", 1, 0, WorkModelType.ZERO, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ProgrammerProfile(" ", 1, 1, WorkModelType.ZERO, 0));
+    }
+}
@@ -2,8 +2,12 @@ package org.example.programmer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.example.fork.Fork;
+import org.example.food.FoodDispenser;
+import org.example.fork.ForkTable;
+import org.example.fork.OrderedForkStrategy;
+import org.example.fork.ParkWaitPolicy;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,18 +17,14 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ProgrammerTest {
 
     private Programmer programmer;
-    private BlockingQueue<Fork> forks;
+    private ForkTable forks;
     private AtomicInteger foodLeft;
-    private Semaphore semaphore;
 
     @BeforeEach
     public void setUp() {
-        forks = new LinkedBlockingQueue<>();
-        forks.add(new Fork(0));
-        forks.add(new Fork(1));
+        forks = new ForkTable(2);
         foodLeft  = new AtomicInteger(2);
-        semaphore = new Semaphore(2);
-        programmer = new Programmer(1, forks, foodLeft, semaphore);
+        programmer = new Programmer(1, forks, foodLeft);
     }
 
     @Test
@@ -36,15 +36,15 @@ public class ProgrammerTest {
 
     @Test
     void testProgrammerEatMultiplePortions() {
-        Programmer multiMealProgrammer = new Programmer(0, forks, foodLeft, semaphore);
+        Programmer multiMealProgrammer = new Programmer(0, forks, foodLeft);
         multiMealProgrammer.run();
         assertEquals(2, multiMealProgrammer.getPortionsEaten());
     }
 
     @Test
     void testTwoProgrammersGrabForks() throws InterruptedException {
-        Programmer p1 = new Programmer(0, forks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, forks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, forks, foodLeft);
+        Programmer p2 = new Programmer(1, forks, foodLeft);
 
         Thread t1 = new Thread(p1);
         Thread t2 = new Thread(p2);
@@ -53,41 +53,39 @@ public class ProgrammerTest {
         t1.join();
         t2.join();
 
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
         assertEquals(1, p1.getPortionsEaten());
         assertEquals(1, p2.getPortionsEaten());
     }
 
     @Test
     void testConcurrentProgrammers() {
-        Programmer p1 = new Programmer(0, forks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, forks, foodLeft, semaphore);
-        Programmer p3 = new Programmer(2, forks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, forks, foodLeft);
+        Programmer p2 = new Programmer(1, forks, foodLeft);
+        Programmer p3 = new Programmer(2, forks, foodLeft);
 
         p1.run();
         p2.run();
         p3.run();
 
-        assertEquals(forks.size(), 2);
+        assertEquals(forks.freeCount(), 2);
     }
 
     @Test
     void testRepeatedEating() {
-        Programmer p = new Programmer(0, forks, foodLeft, semaphore);
+        Programmer p = new Programmer(0, forks, foodLeft);
         p.run();
 
         assertEquals(2, p.getPortionsEaten());
-        assertEquals(forks.size(), 2);
+        assertEquals(forks.freeCount(), 2);
     }
 
     @Test
     void testForksConsistencyAfterConcurrentEating() throws InterruptedException {
-        BlockingQueue<Fork> sharedForks = new LinkedBlockingQueue<>();
-        sharedForks.put(new Fork(0));
-        sharedForks.put(new Fork(1));
+        ForkTable sharedForks = new ForkTable(2);
 
-        Programmer p1 = new Programmer(0, sharedForks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, sharedForks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, sharedForks, foodLeft);
+        Programmer p2 = new Programmer(1, sharedForks, foodLeft);
 
         Thread t1 = new Thread(p1);
         Thread t2 = new Thread(p2);
@@ -96,7 +94,7 @@ public class ProgrammerTest {
         t1.join();
         t2.join();
 
-        assertEquals(2, sharedForks.size());
+        assertEquals(2, sharedForks.freeCount());
         assertEquals(1, p1.getPortionsEaten());
         assertEquals(1, p2.getPortionsEaten());
     }
@@ -104,18 +102,18 @@ public class ProgrammerTest {
     @Test
     void testZeroMeals() throws InterruptedException {
         foodLeft  = new AtomicInteger(0);
-        Programmer p = new Programmer(0, forks, foodLeft, semaphore);
+        Programmer p = new Programmer(0, forks, foodLeft);
         Thread t = new Thread(p);
         t.start();
         t.join();
         assertEquals(0, p.getPortionsEaten());
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testNegativeMeals() throws InterruptedException {
         foodLeft  = new AtomicInteger(-10);
-        Programmer p = new Programmer(0, forks, foodLeft, semaphore);
+        Programmer p = new Programmer(0, forks, foodLeft);
         Thread t = new Thread(p);
         t.start();
         t.join();
@@ -124,20 +122,46 @@ public class ProgrammerTest {
 
     @Test
     void testMissingForks() throws InterruptedException {
-        forks = new LinkedBlockingQueue<>();
-        Programmer p = new Programmer(5, forks, foodLeft, semaphore);
+        // Someone else keeps both forks for the whole test
+        forks.get(0).tryAcquire(99);
+        forks.get(1).tryAcquire(99);
+        Programmer p = new Programmer(5, forks, foodLeft);
         Thread t = new Thread(p);
         t.start();
         t.join(500);
         assertEquals(0, p.getPortionsEaten());
-        assertEquals(0, forks.size());
+        assertEquals(0, forks.freeCount());
+        t.interrupt();
+        t.join(1000);
+        assertFalse(t.isAlive());
+    }
+
+    @Test
+    void testSingleSeatTable() {
+        ForkTable single = new ForkTable(1);
+        Programmer p = new Programmer(0, single, foodLeft);
+        p.run();
+        assertEquals(2, p.getPortionsEaten());
+        assertEquals(1, single.freeCount());
+    }
+
+    @Test
+    void testProgrammerTakesOnlyNeighbourForks() {
+        ForkTable table = new ForkTable(5);
+        // Forks far from seat 1 are busy, which must not stop it
+        table.get(3).tryAcquire(99);
+        table.get(4).tryAcquire(99);
+        Programmer p = new Programmer(1, table, foodLeft);
+        p.run();
+        assertEquals(2, p.getPortionsEaten());
+        assertEquals(3, table.freeCount());
     }
 
     @Test
     void testMoreProgrammersThanForks() throws InterruptedException {
-        Programmer p1 = new Programmer(0, forks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, forks, foodLeft, semaphore);
-        Programmer p3 = new Programmer(2, forks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, forks, foodLeft);
+        Programmer p2 = new Programmer(1, forks, foodLeft);
+        Programmer p3 = new Programmer(2, forks, foodLeft);
 
         Thread t1 = new Thread(p1);
         Thread t2 = new Thread(p2);
@@ -149,7 +173,7 @@ public class ProgrammerTest {
         t2.join();
         t3.join();
 
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
         int total = p1.getPortionsEaten() + p2.getPortionsEaten() + p3.getPortionsEaten();
         assertTrue(total <= 3);
     }
@@ -160,19 +184,19 @@ public class ProgrammerTest {
         Programmer[] programmers = new Programmer[numProgrammers];
 
         for (int i = 0; i < numProgrammers; i++) {
-            programmers[i] = new Programmer(i, forks, foodLeft, semaphore);
+            programmers[i] = new Programmer(i, forks, foodLeft);
             programmers[i].run();
         }
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testNoDeadlock() throws Exception {
         ExecutorService executor = Executors.newFixedThreadPool(3);
 
-        Programmer p1 = new Programmer(0, forks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, forks, foodLeft, semaphore);
-        Programmer p3 = new Programmer(2, forks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, forks, foodLeft);
+        Programmer p2 = new Programmer(1, forks, foodLeft);
+        Programmer p3 = new Programmer(2, forks, foodLeft);
 
         Future<?> f1 = executor.submit(p1);
         Future<?> f2 = executor.submit(p2);
@@ -183,52 +207,50 @@ public class ProgrammerTest {
         f3.get(5, TimeUnit.SECONDS);
 
         executor.shutdownNow();
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testForksReturned() {
-        Programmer p = new Programmer(0, forks, foodLeft, semaphore);
+        Programmer p = new Programmer(0, forks, foodLeft);
         p.run();
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testNoForkDoubleOwnership() {
-        Programmer p1 = new Programmer(0, forks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, forks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, forks, foodLeft);
+        Programmer p2 = new Programmer(1, forks, foodLeft);
 
         p1.run();
         p2.run();
 
-        assertTrue(p1.userForks.isEmpty());
-        assertTrue(p2.userForks.isEmpty());
-        assertEquals(2, forks.size());
+        assertFalse(p1.holdsForks());
+        assertFalse(p2.holdsForks());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testGetProgId() {
-        Programmer p = new Programmer(42, forks, foodLeft, semaphore);
+        Programmer p = new Programmer(42, forks, foodLeft);
         assertEquals(42, p.getProgId());
     }
 
     @Test
     void testIncrementPortions() throws InterruptedException {
-        Programmer p = new Programmer(0, forks, foodLeft, semaphore);
+        Programmer p = new Programmer(0, forks, foodLeft);
         p.run();
         assertEquals(2, p.getPortionsEaten());
     }
 
     @Test
     void testMultipleProgrammers() throws InterruptedException {
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.add(new Fork(0));
-        forks.add(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
         AtomicInteger foodLeft = new AtomicInteger(2);
 
-        Programmer p1 = new Programmer(0, forks, foodLeft, semaphore);
-        Programmer p2 = new Programmer(1, forks, foodLeft, semaphore);
+        Programmer p1 = new Programmer(0, forks, foodLeft);
+        Programmer p2 = new Programmer(1, forks, foodLeft);
 
         Thread t1 = new Thread(p1);
         Thread t2 = new Thread(p2);
@@ -240,17 +262,15 @@ public class ProgrammerTest {
         assertEquals(1, p1.getPortionsEaten());
         assertEquals(1, p2.getPortionsEaten());
 
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
     @Test
     void testForksMutualExclusion() throws InterruptedException {
-        BlockingQueue<Fork> sharedForks = new LinkedBlockingQueue<>();
-        sharedForks.add(new Fork(0));
-        sharedForks.add(new Fork(1));
+        ForkTable sharedForks = new ForkTable(2);
         AtomicInteger food = new AtomicInteger(2);
 
-        Programmer p1 = new Programmer(0, sharedForks, food, semaphore);
-        Programmer p2 = new Programmer(1, sharedForks, food, semaphore);
+        Programmer p1 = new Programmer(0, sharedForks, food);
+        Programmer p2 = new Programmer(1, sharedForks, food);
 
         Thread t1 = new Thread(p1);
         Thread t2 = new Thread(p2);
@@ -260,17 +280,15 @@ public class ProgrammerTest {
         t2.join();
 
         assertEquals(2, p1.getPortionsEaten() + p2.getPortionsEaten());
-        assertEquals(2, sharedForks.size());
+        assertEquals(2, sharedForks.freeCount());
     }
     @Test
     void testNoOverEating() throws InterruptedException {
         AtomicInteger food = new AtomicInteger(1);
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.put(new Fork(0));
-        forks.put(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
-        Programmer p1 = new Programmer(0, forks, food, semaphore);
-        Programmer p2 = new Programmer(1, forks, food, semaphore);
+        Programmer p1 = new Programmer(0, forks, food);
+        Programmer p2 = new Programmer(1, forks, food);
 
         p1.run();
         p2.run();
@@ -281,29 +299,25 @@ public class ProgrammerTest {
     @Test
     void testManyProgrammersLimitedFood() throws InterruptedException {
         AtomicInteger food = new AtomicInteger(3);
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.put(new Fork(0));
-        forks.put(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
         Programmer[] programmers = new Programmer[5];
         for (int i = 0; i < 5; i++) {
-            programmers[i] = new Programmer(i, forks, food, semaphore);
+            programmers[i] = new Programmer(i, forks, food);
             programmers[i].run();
         }
         int total = 0;
         for (Programmer p : programmers) total += p.getPortionsEaten();
         assertEquals(3, total);
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
     @Test
     void testNoDeadlockTwoProgrammers() throws InterruptedException {
         AtomicInteger food = new AtomicInteger(2);
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.put(new Fork(0));
-        forks.put(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
-        Programmer p1 = new Programmer(0, forks, food, semaphore);
-        Programmer p2 = new Programmer(1, forks, food, semaphore);
+        Programmer p1 = new Programmer(0, forks, food);
+        Programmer p2 = new Programmer(1, forks, food);
 
         ExecutorService executor = Executors.newFixedThreadPool(2);
         executor.submit(p1);
@@ -317,46 +331,40 @@ public class ProgrammerTest {
     @Test
     void testFoodDistributionManyThreads() throws InterruptedException {
         AtomicInteger food = new AtomicInteger(5);
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.put(new Fork(0));
-        forks.put(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
         Programmer[] programmers = new Programmer[10];
         for (int i = 0; i < 10; i++) {
-            programmers[i] = new Programmer(i, forks, food, semaphore);
+            programmers[i] = new Programmer(i, forks, food);
             programmers[i].run();
         }
 
         int total = Arrays.stream(programmers).mapToInt(Programmer::getPortionsEaten).sum();
         assertEquals(5, total);
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testForksAlwaysReturned() throws InterruptedException {
         AtomicInteger food = new AtomicInteger(3);
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.put(new Fork(0));
-        forks.put(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
-        Programmer p1 = new Programmer(0, forks, food, semaphore);
-        Programmer p2 = new Programmer(1, forks, food, semaphore);
-        Programmer p3 = new Programmer(2, forks, food, semaphore);
+        Programmer p1 = new Programmer(0, forks, food);
+        Programmer p2 = new Programmer(1, forks, food);
+        Programmer p3 = new Programmer(2, forks, food);
 
         p1.run(); p2.run(); p3.run();
 
-        assertEquals(2, forks.size());
+        assertEquals(2, forks.freeCount());
     }
 
     @Test
     void testAtomicFoodDecrement() throws InterruptedException {
         AtomicInteger food = new AtomicInteger(1);
-        BlockingQueue<Fork> forks = new LinkedBlockingQueue<>();
-        forks.put(new Fork(0));
-        forks.put(new Fork(1));
+        ForkTable forks = new ForkTable(2);
 
-        Programmer p1 = new Programmer(0, forks, food, semaphore);
-        Programmer p2 = new Programmer(1, forks, food, semaphore);
+        Programmer p1 = new Programmer(0, forks, food);
+        Programmer p2 = new Programmer(1, forks, food);
 
         p1.run();
         p2.run();
@@ -364,4 +372,128 @@ public class ProgrammerTest {
         int totalEaten = p1.getPortionsEaten() + p2.getPortionsEaten();
         assertEquals(1, totalEaten);
     }
+
+    @Test
+    void testZeroEatTimeSkipsSleeping() throws InterruptedException {
+        AtomicInteger food = new AtomicInteger(10_000);
+        Programmer p = new Programmer(0, forks, food);
+        AtomicInteger meals = new AtomicInteger();
+        p.setEatModel(meals::incrementAndGet);
+
+        p.run();
+
+        // Eating is nothing but the eat model, once per meal
+        assertEquals(10_000, p.getPortionsEaten());
+        assertEquals(10_000, meals.get());
+        // With the interrupt flag up any sleep throws at once, so getting
+        // through means a zero eat time never sleeps
+        Thread.currentThread().interrupt();
+        try {
+            WorkModelType.FIXED.create(0).work();
+            WorkModelType.EXPONENTIAL.create(0).work();
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    void testLatencyHistogramsRecordEveryMeal() {
+        Programmer p = new Programmer(0, forks, foodLeft);
+        p.run();
+
+        assertEquals(2, p.getForkWait().getTotalCount());
+        assertEquals(2, p.getEatTime().getTotalCount());
+        // Two portions plus the attempt that found the food over
+        assertEquals(3, p.getFoodWait().getTotalCount());
+        assertTrue(p.getEatTime().percentile(50) >= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void testDisabledLatencyHistograms() {
+        Programmer p = new Programmer(0, forks, foodLeft);
+        p.setLatencyHistograms(false);
+        p.run();
+
+        assertEquals(2, p.getPortionsEaten());
+        assertEquals(0, p.getForkWait().getTotalCount());
+        assertFalse(p.getEatTime().isEnabled());
+    }
+
+    @Test
+    void testProgrammerThinksBetweenMeals() {
+        int[] discussions = {0};
+        Programmer p = new Programmer(0, forks, foodLeft);
+        p.setEatModel(WorkModel.NONE);
+        p.setThinkModel(() -> discussions[0]++);
+        p.run();
+
+        assertEquals(2, p.getPortionsEaten());
+        assertEquals(2, discussions[0]);
+    }
+
+    @Test
+    void run_inSteadyState_allocatesNothingPerMeal() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemoryEnabled());
+        AtomicInteger food = new AtomicInteger(200_000);
+        Programmer p = new Programmer(0, new ForkTable(3), food);
+        p.setEatModel(WorkModel.NONE);
+        // Warm-up, so class loading and compilation are not counted
+        p.run();
+        p.reset();
+        food.set(1_000_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        p.run();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(1_000_000, p.getPortionsEaten());
+        // A single allocation per meal would already be megabytes here
+        assertTrue(allocated < 1_024, allocated + " bytes allocated");
+    }
+
+    @Test
+    void run_withParkWaitsInSteadyState_allocatesNothingPerMeal() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicInteger food = new AtomicInteger(20_000);
+        // Two seats share both forks and yield while eating, so meals keep waiting on the park policy
+        OrderedForkStrategy strategy = new OrderedForkStrategy(new ForkTable(2), new ParkWaitPolicy());
+        FoodDispenser dispenser = new FoodDispenser(food, 2);
+        Programmer[] seats = {new Programmer(0, strategy, dispenser), new Programmer(1, strategy, dispenser)};
+        // Warm-up first, the measured run starts once both are reset
+        CyclicBarrier warmedUp = new CyclicBarrier(2, () -> {
+            for (Programmer seat : seats) {
+                seat.reset();
+            }
+            food.set(100_000);
+        });
+        long[] allocated = new long[2];
+        Thread[] runners = new Thread[2];
+        for (int i = 0; i < 2; i++) {
+            int id = i;
+            seats[id].setEatModel(Thread::yield);
+            runners[id] = new Thread(() -> {
+                seats[id].run();
+                try {
+                    warmedUp.await();
+                } catch (InterruptedException | BrokenBarrierException e) {
+                    throw new IllegalStateException(e);
+                }
+                long before = threads.getCurrentThreadAllocatedBytes();
+                seats[id].run();
+                allocated[id] = threads.getCurrentThreadAllocatedBytes() - before;
+            });
+            runners[id].start();
+        }
+        for (Thread runner : runners) {
+            runner.join();
+        }
+
+        assertEquals(100_000, seats[0].getPortionsEaten() + seats[1].getPortionsEaten());
+        for (long bytes : allocated) {
+            assertTrue(bytes < 1_024, bytes + " bytes allocated");
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package org.example.programmer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkModelTest {
+
+    @Test
+    void parse_isCaseInsensitive() {
+        assertEquals(WorkModelType.EXPONENTIAL, WorkModelType.parse("exponential"));
+        assertEquals(WorkModelType.SPIN, WorkModelType.parse(" Spin "));
+        assertThrows(IllegalArgumentException.class, () -> WorkModelType.parse("nap"));
+    }
+
+    @Test
+    void zero_returnsRightAway() throws InterruptedException {
+        WorkModel model = WorkModelType.ZERO.create(TimeUnit.SECONDS.toNanos(10));
+        long start = System.nanoTime();
+        model.work();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void fixed_sleepsAtLeastTheGivenTime() throws InterruptedException {
+        WorkModel model = WorkModelType.FIXED.create(TimeUnit.MILLISECONDS.toNanos(20));
+        long start = System.nanoTime();
+        model.work();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void exponential_averagesToTheMean() throws InterruptedException {
+        long mean = TimeUnit.MILLISECONDS.toNanos(1);
+        WorkModel model = WorkModelType.EXPONENTIAL.create(mean);
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) model.work();
+        long average = (System.nanoTime() - start) / runs;
+        // Sleeps overshoot, so only a loose lower and upper bound
+        assertTrue(average > mean / 2, "average " + average);
+        assertTrue(average < mean * 5, "average " + average);
+    }
+
+    @Test
+    void spin_burnsRoughlyTheGivenTime() {
+        SpinWork model = new SpinWork(TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(model.getIterations() > 0);
+        long start = System.nanoTime();
+        model.work();
+        long elapsed = System.nanoTime() - start;
+        assertTrue(elapsed > TimeUnit.MILLISECONDS.toNanos(5), "elapsed " + elapsed);
+    }
+
+    @Test
+    void negativeTime_throws() {
+        assertThrows(IllegalArgumentException.class, () -> WorkModelType.FIXED.create(-1));
+        assertThrows(IllegalArgumentException.class, () -> WorkModelType.SPIN.create(-1));
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.sim;
+
+import org.example.dinner.DinnerConfig;
+import org.example.dinner.DinnerEngine;
+import org.example.dinner.DinnerRunner;
+import org.example.fairness.FairnessMode;
+import org.example.programmer.ProgrammerProfile;
+import org.example.programmer.ProgrammerProfiles;
+import org.example.programmer.WorkModelType;
+import org.example.stats.ClassStats;
+import org.example.stats.DinnerStats;
+import org.example.trace.InterleavingTrace;
+import org.example.trace.TraceReplay;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DinnerSimulationTest {
+
+    private static DinnerConfig randomWork() {
+        DinnerConfig config = new DinnerConfig();
+        config.setEatModel(WorkModelType.EXPONENTIAL);
+        config.setEatNanos(1_000_000);
+        config.setThinkModel(WorkModelType.EXPONENTIAL);
+        config.setThinkNanos(500_000);
+        return config;
+    }
+
+    @Test
+    void run_sameSeed_givesTheSameInterleaving() {
+        InterleavingTrace first = new InterleavingTrace(100_000);
+        InterleavingTrace second = new InterleavingTrace(100_000);
+        DinnerSimulation one = new DinnerSimulation(randomWork(), 7, 1234);
+        DinnerSimulation two = new DinnerSimulation(randomWork(), 7, 1234);
+        one.setTrace(first);
+        two.setTrace(second);
+
+        DinnerStats a = one.run(5_000);
+        DinnerStats b = two.run(5_000);
+
+        assertEquals(a.getElapsedNanos(), b.getElapsedNanos());
+        assertEquals(a.getMinPortions(), b.getMinPortions());
+        assertEquals(a.getMaxPortions(), b.getMaxPortions());
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.programmerAt(i), second.programmerAt(i));
+            assertEquals(first.opAt(i), second.opAt(i));
+            assertEquals(first.timeAt(i), second.timeAt(i));
+        }
+    }
+
+    @Test
+    void run_anotherSeed_givesAnotherInterleaving() {
+        DinnerStats a = new DinnerSimulation(randomWork(), 7, 1).run(5_000);
+        DinnerStats b = new DinnerSimulation(randomWork(), 7, 2).run(5_000);
+
+        assertNotEquals(a.getElapsedNanos(), b.getElapsedNanos());
+    }
+
+    @Test
+    void run_eatsAllFood() {
+        for (int programmers : new int[]{1, 2, 5, 100}) {
+            DinnerStats stats = new DinnerSimulation(randomWork(), programmers, 42).run(10_000);
+
+            assertEquals(10_000, stats.getMealsEaten(), "programmers " + programmers);
+            assertEquals(10_000, stats.getForkWait().getTotalCount(), "programmers " + programmers);
+        }
+    }
+
+    @Test
+    void run_withBoundedSpread_keepsTheSpread() {
+        DinnerConfig config = randomWork();
+        config.setFairnessMode(FairnessMode.BOUNDED_SPREAD);
+        config.setMaxSpread(2);
+
+        DinnerStats stats = new DinnerSimulation(config, 9, 42).run(9_000);
+
+        assertTrue(stats.getSpread() <= 2, "spread " + stats.getSpread());
+    }
+
+    @Test
+    void run_withBoundedSpread_sharesLikeTheThreadedEngine() throws InterruptedException {
+        DinnerConfig config = new DinnerConfig();
+        config.setFairnessMode(FairnessMode.BOUNDED_SPREAD);
+        config.setMaxSpread(2);
+        config.setWatchdogWindowMillis(0);
+        // One slow eater keeps the others held back at the bound
+        config.setProfiles(ProgrammerProfiles.of(List.of(
+                new ProgrammerProfile("slow", 1, 1, WorkModelType.FIXED, 200_000),
+                new ProgrammerProfile("fast", 1, 4, WorkModelType.ZERO, 0))));
+        int food = 1_000;
+
+        DinnerSimulation simulation = new DinnerSimulation(config, 5, 42);
+        simulation.run(food);
+        try (DinnerEngine engine = new DinnerEngine(config, 5)) {
+            engine.serve(new AtomicInteger(food));
+
+            for (int p = 0; p < 5; p++) {
+                assertEquals(engine.getPortionsEaten(p), simulation.getPortionsEaten(p), 2 * config.getMaxSpread(),
+                        "programmer " + p);
+            }
+        }
+    }
+
+    @Test
+    void run_withWeightedFair_sharesTheFoodByWeight() {
+        DinnerConfig config = randomWork();
+        config.setFairnessMode(FairnessMode.WEIGHTED_FAIR);
+        config.setMaxSpread(1);
+        // The heavy ones also eat twice as slow, they still get three times the food
+        config.setProfiles(ProgrammerProfiles.of(List.of(
+                new ProgrammerProfile("heavy", 3, 1, WorkModelType.EXPONENTIAL, 2_000_000),
+                new ProgrammerProfile("light", 1, 1, WorkModelType.EXPONENTIAL, 1_000_000))));
+
+        DinnerStats stats = new DinnerSimulation(config, 8, 42).run(8_000);
+
+        List<ClassStats> classes = stats.getClasses();
+        assertEquals(2, classes.size());
+        assertEquals(0.75, classes.get(0).getWeightShare(), 1e-9);
+        assertEquals(0.75, classes.get(0).getMealShare(), 0.01);
+        assertEquals(classes.get(1).getMealsPerWeight(), classes.get(0).getMealsPerWeight(), 2);
+        assertEquals(8_000, classes.get(0).getMeals() + classes.get(1).getMeals());
+    }
+
+    @Test
+    void run_trace_replaysToTheSameDinner() {
+        InterleavingTrace trace = new InterleavingTrace(100_000);
+        DinnerSimulation simulation = new DinnerSimulation(randomWork(), 6, 99);
+        simulation.setTrace(trace);
+
+        DinnerStats simulated = simulation.run(3_000);
+        DinnerStats replayed = TraceReplay.replay(trace);
+
+        assertEquals(simulated.getMealsEaten(), replayed.getMealsEaten());
+        assertEquals(simulated.getMinPortions(), replayed.getMinPortions());
+        assertEquals(simulated.getMaxPortions(), replayed.getMaxPortions());
+        assertEquals(simulated.getForkWait().getMean(), replayed.getForkWait().getMean());
+        assertEquals(simulated.getEatTime().getMax(), replayed.getEatTime().getMax());
+    }
+
+    @Test
+    void open_simulate_servesEveryIterationWithTheNextSeed() throws InterruptedException {
+        DinnerConfig config = randomWork();
+        config.setSimulate(true);
+        try (DinnerRunner runner = DinnerRunner.open(config, 5)) {
+            assertInstanceOf(DinnerSimulation.class, runner);
+            AtomicInteger foodCount = new AtomicInteger(1_000);
+
+            DinnerStats first = runner.serve(foodCount);
+            DinnerStats second = runner.serve(new AtomicInteger(1_000));
+
+            assertEquals(0, foodCount.get());
+            assertEquals(1_000, first.getMealsEaten());
+            assertEquals(new DinnerSimulation(config, 5, 43).run(1_000).getElapsedNanos(),
+                    second.getElapsedNanos());
+        }
+    }
+}
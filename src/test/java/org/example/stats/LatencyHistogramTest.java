@@ -0,0 +1,106 @@
+package org.example.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram_reportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.getTotalCount());
+    }
+
+    @Test
+    void percentile_landsInTheRightBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) histogram.record(100);
+        histogram.record(1_000_000);
+
+        // 100 lies in [96, 103]
+        assertEquals(103, histogram.percentile(50));
+        assertEquals(103, histogram.percentile(99));
+        assertEquals(1_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    void buckets_stayWithinTheirRelativeError() {
+        for (long value = 1; value < (1L << 36); value = value * 3 + 1) {
+            long bound = LatencyHistogram.upperBound(LatencyHistogram.bucketOf(value));
+            assertTrue(bound >= value, "bound below " + value);
+            assertTrue(bound - value <= value / 8 + 1, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    void hugeValues_goToTheOverflowBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.percentile(50));
+    }
+
+    @Test
+    void merge_addsCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(20);
+        b.record(5_000);
+        a.merge(b);
+
+        assertEquals(3, a.getTotalCount());
+        assertEquals(5_000, a.getMax());
+        assertEquals(1_676, a.getMean());
+    }
+
+    @Test
+    void readFrom_getsBackWhatWasWritten() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(70_000);
+        ByteBuffer buffer = ByteBuffer.allocate(2 * LatencyHistogram.BYTES);
+        histogram.writeTo(buffer);
+        LatencyHistogram.disabled().writeTo(buffer);
+        buffer.flip();
+
+        LatencyHistogram read = LatencyHistogram.readFrom(buffer);
+        assertEquals(2, read.getTotalCount());
+        assertEquals(70_000, read.getMax());
+        assertEquals(histogram.percentile(50), read.percentile(50));
+        assertEquals(0, LatencyHistogram.readFrom(buffer).getTotalCount());
+    }
+
+    @Test
+    void merge_intoAnUnusedHistogram() {
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram unused = new LatencyHistogram();
+        LatencyHistogram used = new LatencyHistogram();
+        used.record(300);
+        total.merge(unused);
+        total.merge(used);
+
+        assertEquals(1, total.getTotalCount());
+        assertEquals(300, total.percentile(50));
+    }
+
+    @Test
+    void disabledHistogram_recordsNothing() {
+        LatencyHistogram histogram = LatencyHistogram.disabled();
+        histogram.record(100);
+        assertFalse(histogram.isEnabled());
+        assertEquals(0, histogram.getTotalCount());
+    }
+
+    @Test
+    void reset_clearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.reset();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.percentile(99));
+    }
+}
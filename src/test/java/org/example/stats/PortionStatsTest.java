@@ -0,0 +1,61 @@
+package org.example.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortionStatsTest {
+
+    @Test
+    void evenSpread_isPerfectlyFair() {
+        PortionStats stats = PortionStats.of(new int[]{4, 4, 4, 4});
+
+        assertEquals(16, stats.getMeals());
+        assertEquals(4.0, stats.getMean());
+        assertEquals(0.0, stats.getStdDev());
+        assertEquals(1.0, stats.getJainIndex());
+    }
+
+    @Test
+    void oneProgrammerEatingEverything_isOneOverN() {
+        PortionStats stats = PortionStats.of(new int[]{10, 0, 0, 0, 0});
+
+        assertEquals(0.2, stats.getJainIndex(), 1e-12);
+        assertEquals(0, stats.getMin());
+        assertEquals(10, stats.getMax());
+    }
+
+    @Test
+    void meanAndStdDev_matchTheDefinition() {
+        PortionStats stats = PortionStats.of(new int[]{2, 4, 4, 4, 5, 5, 7, 9});
+
+        assertEquals(5.0, stats.getMean(), 1e-12);
+        assertEquals(2.0, stats.getStdDev(), 1e-12);
+        assertEquals(1600.0 / (8 * 232), stats.getJainIndex(), 1e-12);
+    }
+
+    @Test
+    void merge_equalsAddingEverythingToOne() {
+        PortionStats left = PortionStats.of(new int[]{1, 7, 3});
+        PortionStats right = PortionStats.of(new int[]{9, 2});
+        PortionStats all = PortionStats.of(new int[]{1, 7, 3, 9, 2});
+
+        left.merge(right);
+
+        assertEquals(all.getProgrammers(), left.getProgrammers());
+        assertEquals(all.getMeals(), left.getMeals());
+        assertEquals(all.getMin(), left.getMin());
+        assertEquals(all.getMax(), left.getMax());
+        assertEquals(all.getStdDev(), left.getStdDev(), 1e-12);
+        assertEquals(all.getJainIndex(), left.getJainIndex(), 1e-12);
+    }
+
+    @Test
+    void empty_reportsZeroAndFair() {
+        PortionStats stats = new PortionStats();
+
+        assertEquals(0, stats.getMin());
+        assertEquals(0.0, stats.getMean());
+        assertEquals(1.0, stats.getJainIndex());
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.sweep;
+
+import org.example.fork.ForkStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SweepRunnerTest {
+
+    private static Properties quickDinners() {
+        Properties props = new Properties();
+        props.setProperty("iterations", "2");
+        props.setProperty("warmup_iterations", "1");
+        props.setProperty("eat_model", "zero");
+        props.setProperty("sweep_programmers", "3,5");
+        props.setProperty("sweep_food", "200");
+        props.setProperty("sweep_waiters", "0,1");
+        props.setProperty("sweep_strategies", "ordered, backoff");
+        props.setProperty("sweep_parallelism", "2");
+        return props;
+    }
+
+    @Test
+    void parseRange_listsStepsAndFactors() {
+        assertArrayEquals(new int[]{5, 10, 20}, SweepRunner.parseRange("5, 10,20"));
+        assertArrayEquals(new int[]{10, 40, 70, 100}, SweepRunner.parseRange("10..100+30"));
+        assertArrayEquals(new int[]{1, 10, 100, 1000}, SweepRunner.parseRange("1..1000*10"));
+        assertArrayEquals(new int[]{2, 5, 7, 9}, SweepRunner.parseRange("2,5..9+2"));
+    }
+
+    @Test
+    void parseRange_endlessRange_fails() {
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parseRange("1..10+0"));
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parseRange("0..10*2"));
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parseRange("1..10"));
+    }
+
+    @Test
+    void grid_coversEveryCombination() {
+        List<SweepPoint> grid = SweepRunner.fromProperties(quickDinners()).grid();
+
+        assertEquals(8, grid.size());
+        assertEquals(ForkStrategy.BACKOFF, grid.get(1).getStrategy());
+        assertEquals(1, grid.get(2).getWaiters());
+        assertEquals(5, grid.get(4).getProgrammers());
+    }
+
+    @Test
+    void run_servesEveryPointInGridOrder() throws InterruptedException {
+        List<SweepResult> results = SweepRunner.fromProperties(quickDinners()).run();
+
+        assertEquals(8, results.size());
+        for (SweepResult result : results) {
+            assertFalse(result.isFailed(), result.getError());
+            assertEquals(2, result.getDinners());
+            assertEquals(400, result.getForkWait().getTotalCount());
+            assertTrue(result.getThroughputMean() > 0);
+            assertTrue(result.getJainMean() > 0 && result.getJainMean() <= 1);
+        }
+        assertEquals(3, results.get(0).getPoint().getProgrammers());
+        assertEquals(5, results.get(7).getPoint().getProgrammers());
+    }
+
+    @Test
+    void run_impossiblePoint_keepsItsErrorAndTheRest() throws InterruptedException {
+        Properties props = quickDinners();
+        props.setProperty("sweep_programmers", "3,500");
+        props.setProperty("sweep_waiters", "0");
+        props.setProperty("sweep_strategies", "ordered");
+
+        List<SweepResult> results = SweepRunner.fromProperties(props).run();
+
+        assertFalse(results.get(0).isFailed());
+        assertTrue(results.get(1).isFailed());
+        assertEquals("Some of programmers would still be hungry", results.get(1).getError());
+    }
+
+    @Test
+    void toProperties_dropsEverythingPointsWouldShare() {
+        Properties base = quickDinners();
+        base.setProperty("trace_file", "dinner.trace");
+        base.setProperty("event_log", "dinner.events");
+        base.setProperty("metrics_port", "9400");
+        base.setProperty("shared_file", "dinner.table");
+
+        Properties props = new SweepPoint(3, 200, 0, ForkStrategy.ORDERED).toProperties(base);
+
+        assertEquals("", props.getProperty("trace_file"));
+        assertEquals("", props.getProperty("event_log"));
+        assertEquals("-1", props.getProperty("metrics_port"));
+        assertEquals("", props.getProperty("shared_file"));
+        assertEquals("dinner.table", base.getProperty("shared_file"));
+    }
+
+    @Test
+    void fromProperties_withoutParallelism_servesOnePointAtATime() {
+        Properties props = quickDinners();
+        props.remove("sweep_parallelism");
+
+        assertEquals(1, SweepRunner.fromProperties(props).getParallelism());
+    }
+
+    @Test
+    void run_fixedMetricsPort_doesNotStopPointsRunningTogether() throws InterruptedException {
+        Properties props = quickDinners();
+        props.setProperty("sweep_programmers", "3");
+        props.setProperty("metrics", "true");
+        props.setProperty("metrics_port", "1");
+
+        List<SweepResult> results = SweepRunner.fromProperties(props).run();
+
+        assertEquals(4, results.size());
+        for (SweepResult result : results) {
+            assertFalse(result.isFailed(), result.getError());
+        }
+    }
+
+    @Test
+    void write_csvAndJson_oneEntryPerPoint() throws IOException, InterruptedException {
+        Properties props = quickDinners();
+        props.setProperty("sweep_programmers", "3");
+        List<SweepResult> results = SweepRunner.fromProperties(props).run();
+        Path csv = Files.createTempFile("sweep", ".csv");
+        Path json = Files.createTempFile("sweep", ".json");
+        try {
+            SweepRunner.writeCsv(csv, results);
+            SweepRunner.writeJson(json, results);
+
+            List<String> lines = Files.readAllLines(csv);
+            assertEquals(SweepResult.CSV_HEADER, lines.get(0));
+            assertEquals(5, lines.size());
+            assertEquals(SweepResult.CSV_HEADER.split(",").length, lines.get(1).split(",", -1).length);
+            String text = Files.readString(json).trim();
+            assertTrue(text.startsWith("[") && text.endsWith("]"));
+            assertEquals(4, text.split("\"programmers\"").length - 1);
+            assertTrue(text.contains("\"error\": null"));
+            assertTrue(lines.get(1).startsWith("3,200,0,ORDERED,2,2,"));
+            assertTrue(text.contains("\"parallelism\": 2"));
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(json);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.trace;
+
+import org.example.dinner.DinnerConfig;
+import org.example.dinner.DinnerEngine;
+import org.example.programmer.WorkModelType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLogTest {
+
+    @Test
+    void ring_full_dropsInsteadOfWaiting() {
+        EventRing ring = new EventRing(2);
+        ring.offer(1, 0, TraceOp.TAKE_FOOD);
+        ring.offer(2, 0, TraceOp.ACQUIRE_FORKS);
+        ring.offer(3, 0, TraceOp.RELEASE_FORKS);
+        List<Long> times = new ArrayList<>();
+
+        int drained = ring.drain((nanos, id, op) -> times.add(nanos));
+
+        assertEquals(2, drained);
+        assertEquals(List.of(1L, 2L), times);
+        assertEquals(1, ring.getDropped());
+    }
+
+    @Test
+    void closeAndOpen_keepEveryProgrammersEventsInOrder() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("dinner", ".events");
+        try {
+            EventLog log = new EventLog(file, 3, 1 << 16);
+            Thread[] threads = new Thread[3];
+            for (int p = 0; p < 3; p++) {
+                int id = p;
+                threads[p] = Thread.ofPlatform().start(() -> {
+                    for (int meal = 0; meal < 1_000; meal++) {
+                        log.record(id, TraceOp.TAKE_FOOD);
+                        log.record(id, TraceOp.ACQUIRE_FORKS);
+                        log.record(id, TraceOp.RELEASE_FORKS);
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            log.close();
+
+            EventLogReader reader = EventLogReader.open(file);
+
+            assertEquals(3, reader.getProgrammersCount());
+            assertEquals(9_000, reader.size());
+            assertEquals(0, reader.getDropped());
+            long[] last = new long[3];
+            for (long i = 0; i < reader.size(); i++) {
+                int id = reader.programmerAt(i);
+                assertTrue(reader.timeAt(i) >= last[id], "event " + i);
+                last[id] = reader.timeAt(i);
+            }
+            for (EventLogReader.Timeline timeline : reader.timelines()) {
+                assertEquals(1_000, timeline.getMeals());
+                assertEquals(1_000, timeline.getForkWait().getTotalCount());
+                assertEquals(1_000, timeline.getHoldTime().getTotalCount());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void close_pastOneMappedChunk_keepsTheWholeFile() throws IOException {
+        Path file = Files.createTempFile("dinner", ".events");
+        try {
+            EventLog log = new EventLog(file, 1, 1 << 12);
+            for (int i = 0; i < 1_200_000; i++) {
+                log.record(0, TraceOp.TAKE_FOOD);
+                if ((i & 1023) == 0) Thread.yield();
+            }
+            log.close();
+
+            EventLogReader reader = EventLogReader.open(file);
+
+            assertEquals(1_200_000, reader.size() + reader.getDropped());
+            assertEquals(log.getEvents(), reader.size());
+            assertEquals(Files.size(file), 32 + reader.size() * 16);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void open_notAnEventLog_fails() throws IOException {
+        Path file = Files.createTempFile("dinner", ".events");
+        try {
+            Files.writeString(file, "# dinner trace programmers=1 food=1 dropped=0\n");
+
+            assertThrows(IOException.class, () -> EventLogReader.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void engine_withEventLog_logsEveryMeal() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("dinner", ".events");
+        DinnerConfig config = new DinnerConfig();
+        config.setEatModel(WorkModelType.ZERO);
+        config.setEventLog(file.toString());
+        try {
+            try (DinnerEngine engine = new DinnerEngine(config, 4)) {
+                engine.serve(new AtomicInteger(500));
+                engine.serve(new AtomicInteger(300));
+            }
+
+            EventLogReader reader = EventLogReader.open(file);
+            long meals = 0;
+            for (EventLogReader.Timeline timeline : reader.timelines()) {
+                meals += timeline.getMeals();
+            }
+
+            assertEquals(0, reader.getDropped());
+            assertEquals(800, meals);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.trace;
+
+import org.example.dinner.DinnerConfig;
+import org.example.dinner.DinnerEngine;
+import org.example.programmer.WorkModelType;
+import org.example.stats.DinnerStats;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceReplayTest {
+
+    @Test
+    void writeAndRead_keepEveryOperation() throws IOException {
+        InterleavingTrace trace = new InterleavingTrace(16);
+        trace.start(2, 5);
+        trace.recordAt(0, TraceOp.TAKE_FOOD, 10);
+        trace.recordAt(0, TraceOp.ACQUIRE_FORKS, 20);
+        trace.recordAt(1, TraceOp.PUT_BACK, 30);
+        Path file = Files.createTempFile("dinner", ".trace");
+        try {
+            trace.write(file);
+            InterleavingTrace read = InterleavingTrace.read(file);
+
+            assertEquals(2, read.getProgrammersCount());
+            assertEquals(5, read.getFood());
+            assertEquals(3, read.size());
+            assertEquals(20, read.timeAt(1));
+            assertEquals(1, read.programmerAt(2));
+            assertEquals(TraceOp.PUT_BACK, read.opAt(2));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void replay_ofARealDinner_reproducesItsMeals() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("dinner", ".trace");
+        DinnerConfig config = new DinnerConfig();
+        config.setEatModel(WorkModelType.ZERO);
+        config.setTraceFile(file.toString());
+        try (DinnerEngine engine = new DinnerEngine(config, 5)) {
+            DinnerStats served = engine.serve(new AtomicInteger(2_000));
+
+            DinnerStats replayed = TraceReplay.replay(InterleavingTrace.read(file));
+
+            assertEquals(served.getMealsEaten(), replayed.getMealsEaten());
+            assertEquals(served.getMinPortions(), replayed.getMinPortions());
+            assertEquals(served.getMaxPortions(), replayed.getMaxPortions());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void replay_forkTakenTwice_namesTheOperation() {
+        InterleavingTrace trace = new InterleavingTrace(16);
+        trace.start(3, 5);
+        trace.recordAt(0, TraceOp.TAKE_FOOD, 1);
+        trace.recordAt(1, TraceOp.TAKE_FOOD, 2);
+        trace.recordAt(0, TraceOp.ACQUIRE_FORKS, 3);
+        trace.recordAt(1, TraceOp.ACQUIRE_FORKS, 4);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> TraceReplay.replay(trace));
+
+        assertTrue(e.getMessage().startsWith("Trace operation 3"), e.getMessage());
+    }
+
+    @Test
+    void replay_droppedOperations_fail() {
+        InterleavingTrace trace = new InterleavingTrace(1);
+        trace.start(1, 5);
+        trace.recordAt(0, TraceOp.TAKE_FOOD, 1);
+        trace.recordAt(0, TraceOp.ACQUIRE_FORKS, 2);
+
+        assertThrows(IllegalStateException.class, () -> TraceReplay.replay(trace));
+    }
+}
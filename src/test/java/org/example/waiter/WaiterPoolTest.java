@@ -0,0 +1,92 @@
+package org.example.waiter;
+
+import org.example.food.FoodDispenser;
+import org.example.food.FoodSource;
+import org.example.food.PortionBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaiterPoolTest {
+
+    @Test
+    void waiters_serveExactlyTheSupply() throws InterruptedException {
+        int programmers = 8;
+        AtomicInteger food = new AtomicInteger(10_000);
+        FoodDispenser dispenser = new FoodDispenser(food, programmers);
+        WaiterPool waiters = new WaiterPool(2, 4, 8, dispenser);
+        waiters.start();
+
+        int[] eaten = new int[programmers];
+        Thread[] threads = new Thread[programmers];
+        for (int i = 0; i < programmers; i++) {
+            int id = i;
+            PortionBatch batch = new PortionBatch(waiters.clientFor(id));
+            threads[i] = new Thread(() -> {
+                while (batch.takeOne()) eaten[id]++;
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        waiters.shutdown();
+
+        int total = 0;
+        for (int count : eaten) total += count;
+        assertEquals(10_000, total, "eaten");
+
+        long served = 0;
+        for (Waiter waiter : waiters.getWaiters()) {
+            served += waiter.getPortionsServed();
+            assertTrue(waiter.getRequestsServed() > 0);
+            assertTrue(waiter.getBatchesServed() <= waiter.getRequestsServed());
+        }
+        assertEquals(10_000, served, "served");
+    }
+
+    @Test
+    void stats_afterADinner_areCompleteWhileTheWaitersStayOnDuty() throws InterruptedException {
+        int programmers = 4;
+        FoodDispenser dispenser = new FoodDispenser(new AtomicInteger(2_000), programmers);
+        WaiterPool waiters = new WaiterPool(1, 4, 4, dispenser);
+        waiters.start();
+        Thread[] threads = new Thread[programmers];
+        for (int i = 0; i < programmers; i++) {
+            PortionBatch batch = new PortionBatch(waiters.clientFor(i));
+            threads[i] = new Thread(() -> {
+                while (batch.takeOne()) {
+                    // eating
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        waiters.endDinner();
+
+        Waiter waiter = waiters.getWaiters()[0];
+        assertEquals(2_000, waiter.getPortionsServed());
+        double throughput = waiter.getThroughput();
+        Thread.sleep(20);
+        assertEquals(throughput, waiter.getThroughput());
+        waiters.shutdown();
+    }
+
+    @Test
+    void client_whenFoodIsOver_getsNothing() throws InterruptedException {
+        FoodDispenser dispenser = new FoodDispenser(new AtomicInteger(0), 1);
+        WaiterPool waiters = new WaiterPool(1, 1, 1, dispenser);
+        waiters.start();
+
+        FoodSource client = waiters.clientFor(0);
+        assertEquals(0, client.tryReserve(4));
+        waiters.shutdown();
+    }
+
+    @Test
+    void constructor_withoutWaiters_throws() {
+        FoodDispenser dispenser = new FoodDispenser(new AtomicInteger(1), 1);
+        assertThrows(IllegalArgumentException.class, () -> new WaiterPool(0, 1, 1, dispenser));
+        assertThrows(IllegalArgumentException.class, () -> new WaiterPool(1, 0, 1, dispenser));
+    }
+}